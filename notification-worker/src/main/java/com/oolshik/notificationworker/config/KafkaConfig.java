@@ -1,6 +1,12 @@
 package com.oolshik.notificationworker.config;
 
+import com.oolshik.notificationworker.service.NotificationCoalescer;
+import com.oolshik.notificationworker.service.OffsetCommitTracker;
+import com.oolshik.notificationworker.service.UserCacheInvalidationConsumer;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -9,28 +15,78 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.TopicPartitionOffset;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 @Configuration
 @EnableConfigurationProperties({KafkaTopicProperties.class, NotificationWorkerProperties.class})
 public class KafkaConfig {
 
+    // Values are raw bytes: binary NotificationEventCodec payloads or UTF-8 JSON from older outbox rows.
     @Bean
-    public ConsumerFactory<String, String> notificationConsumerFactory(KafkaProperties properties) {
+    public ConsumerFactory<String, byte[]> notificationConsumerFactory(KafkaProperties properties) {
         Map<String, Object> config = new HashMap<>(properties.buildConsumerProperties());
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), new StringDeserializer());
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), new ByteArrayDeserializer());
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> notificationKafkaListenerContainerFactory(
-            ConsumerFactory<String, String> notificationConsumerFactory) {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> notificationKafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> notificationConsumerFactory,
+            NotificationCoalescer coalescer,
+            OffsetCommitTracker offsetCommitTracker) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(notificationConsumerFactory);
+        // Offsets are acked through OffsetCommitTracker once delivery is recorded. It only ever acks a contiguous
+        // prefix, so async acks (which pause the consumer until a whole poll is acked) are not needed.
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                List<Integer> revoked = partitions.stream().map(TopicPartition::partition).toList();
+                offsetCommitTracker.onPartitionsRevoked(revoked);
+                coalescer.onPartitionsRevoked(revoked);
+            }
+        });
         return factory;
     }
+
+    // Every replica must see every invalidation, so partitions are assigned manually from their end: no group,
+    // no rebalancing and no committed offsets left behind on the broker.
+    @Bean
+    public KafkaMessageListenerContainer<String, String> userCacheInvalidationListenerContainer(
+            KafkaProperties properties,
+            KafkaTopicProperties topics,
+            NotificationWorkerProperties workerProperties,
+            UserCacheInvalidationConsumer consumer) {
+        Map<String, Object> config = new HashMap<>(properties.buildConsumerProperties());
+        config.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        TopicPartitionOffset[] partitions = IntStream.range(0, Math.max(1, topics.getUserCacheInvalidationPartitions()))
+                .mapToObj(partition -> new TopicPartitionOffset(
+                        topics.getUserCacheInvalidation(), partition, TopicPartitionOffset.SeekPosition.END))
+                .toArray(TopicPartitionOffset[]::new);
+        ContainerProperties containerProperties = new ContainerProperties(partitions);
+        // Nothing is ever acked, so nothing is committed.
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setMessageListener((MessageListener<String, String>) record -> consumer.onMessage(record.value()));
+        KafkaMessageListenerContainer<String, String> container = new KafkaMessageListenerContainer<>(
+                new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), new StringDeserializer()),
+                containerProperties);
+        container.setAutoStartup(workerProperties.isDeviceCacheEnabled());
+        return container;
+    }
 }
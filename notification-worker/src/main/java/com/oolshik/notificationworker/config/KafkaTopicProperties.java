@@ -6,6 +6,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class KafkaTopicProperties {
 
     private String notificationEvents;
+    private String userCacheInvalidation;
+    private int userCacheInvalidationPartitions = 1;
 
     public String getNotificationEvents() {
         return notificationEvents;
@@ -14,4 +16,20 @@ public class KafkaTopicProperties {
     public void setNotificationEvents(String notificationEvents) {
         this.notificationEvents = notificationEvents;
     }
+
+    public String getUserCacheInvalidation() {
+        return userCacheInvalidation;
+    }
+
+    public void setUserCacheInvalidation(String userCacheInvalidation) {
+        this.userCacheInvalidation = userCacheInvalidation;
+    }
+
+    public int getUserCacheInvalidationPartitions() {
+        return userCacheInvalidationPartitions;
+    }
+
+    public void setUserCacheInvalidationPartitions(int userCacheInvalidationPartitions) {
+        this.userCacheInvalidationPartitions = userCacheInvalidationPartitions;
+    }
 }
@@ -5,10 +5,50 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "notification")
 public class NotificationWorkerProperties {
 
+    public enum OverflowPolicy {
+        DISPATCH_NEW,
+        FLUSH_OLDEST
+    }
+
+    public enum RebalancePolicy {
+        HANDOFF,
+        FLUSH
+    }
+
     private String expoEndpoint = "https://exp.host/--/api/v2/push/send";
+    private String expoReceiptsEndpoint = "https://exp.host/--/api/v2/push/getReceipts";
     private int maxSendAttempts = 3;
     private int coalesceWindowSeconds = 10;
+    private int coalesceMaxPending = 10000;
+    private OverflowPolicy coalesceOverflowPolicy = OverflowPolicy.DISPATCH_NEW;
+    private RebalancePolicy coalesceRebalancePolicy = RebalancePolicy.HANDOFF;
     private int expoBatchSize = 100;
+    private int expoMaxInFlight = 1;
+    private long expoRetryBaseDelayMs = 200;
+    private long expoRetryMaxDelayMs = 5000;
+    private long expoConnectTimeoutMs = 5000;
+    private long processingStaleSeconds = 300;
+    private boolean deviceCacheEnabled = false;
+    private long deviceCacheTtlSeconds = 300;
+    private int deviceCacheMaxEntries = 50000;
+    private boolean receiptPollingEnabled = false;
+    private long receiptPollIntervalMs = 60000;
+    private long receiptDelaySeconds = 900;
+    private int receiptBatchSize = 1000;
+    private int receiptMaxPending = 100000;
+    private boolean audienceStreamingEnabled = false;
+    private int audienceChunkSize = 500;
+    private boolean rateLimitEnabled = false;
+    private int rateLimitMaxPerWindow = 5;
+    private long rateLimitWindowSeconds = 900;
+    private long digestPollIntervalMs = 30000;
+    private int digestBatchSize = 500;
+    private boolean pipelineEnabled = false;
+    private int pipelineQueueCapacity = 256;
+    private int pipelineResolveWorkers = 2;
+    private int pipelineRenderWorkers = 2;
+    private int pipelineSendWorkers = 4;
+    private int pipelineRecordWorkers = 2;
 
     public String getExpoEndpoint() {
         return expoEndpoint;
@@ -18,6 +58,14 @@ public class NotificationWorkerProperties {
         this.expoEndpoint = expoEndpoint;
     }
 
+    public String getExpoReceiptsEndpoint() {
+        return expoReceiptsEndpoint;
+    }
+
+    public void setExpoReceiptsEndpoint(String expoReceiptsEndpoint) {
+        this.expoReceiptsEndpoint = expoReceiptsEndpoint;
+    }
+
     public int getMaxSendAttempts() {
         return maxSendAttempts;
     }
@@ -34,6 +82,30 @@ public class NotificationWorkerProperties {
         this.coalesceWindowSeconds = coalesceWindowSeconds;
     }
 
+    public int getCoalesceMaxPending() {
+        return coalesceMaxPending;
+    }
+
+    public void setCoalesceMaxPending(int coalesceMaxPending) {
+        this.coalesceMaxPending = coalesceMaxPending;
+    }
+
+    public OverflowPolicy getCoalesceOverflowPolicy() {
+        return coalesceOverflowPolicy;
+    }
+
+    public void setCoalesceOverflowPolicy(OverflowPolicy coalesceOverflowPolicy) {
+        this.coalesceOverflowPolicy = coalesceOverflowPolicy;
+    }
+
+    public RebalancePolicy getCoalesceRebalancePolicy() {
+        return coalesceRebalancePolicy;
+    }
+
+    public void setCoalesceRebalancePolicy(RebalancePolicy coalesceRebalancePolicy) {
+        this.coalesceRebalancePolicy = coalesceRebalancePolicy;
+    }
+
     public int getExpoBatchSize() {
         return expoBatchSize;
     }
@@ -41,4 +113,212 @@ public class NotificationWorkerProperties {
     public void setExpoBatchSize(int expoBatchSize) {
         this.expoBatchSize = expoBatchSize;
     }
+
+    public int getExpoMaxInFlight() {
+        return expoMaxInFlight;
+    }
+
+    public void setExpoMaxInFlight(int expoMaxInFlight) {
+        this.expoMaxInFlight = expoMaxInFlight;
+    }
+
+    public long getExpoRetryBaseDelayMs() {
+        return expoRetryBaseDelayMs;
+    }
+
+    public void setExpoRetryBaseDelayMs(long expoRetryBaseDelayMs) {
+        this.expoRetryBaseDelayMs = expoRetryBaseDelayMs;
+    }
+
+    public long getExpoRetryMaxDelayMs() {
+        return expoRetryMaxDelayMs;
+    }
+
+    public void setExpoRetryMaxDelayMs(long expoRetryMaxDelayMs) {
+        this.expoRetryMaxDelayMs = expoRetryMaxDelayMs;
+    }
+
+    public long getExpoConnectTimeoutMs() {
+        return expoConnectTimeoutMs;
+    }
+
+    public void setExpoConnectTimeoutMs(long expoConnectTimeoutMs) {
+        this.expoConnectTimeoutMs = expoConnectTimeoutMs;
+    }
+
+    public long getProcessingStaleSeconds() {
+        return processingStaleSeconds;
+    }
+
+    public void setProcessingStaleSeconds(long processingStaleSeconds) {
+        this.processingStaleSeconds = processingStaleSeconds;
+    }
+
+    public boolean isPipelineEnabled() {
+        return pipelineEnabled;
+    }
+
+    public void setPipelineEnabled(boolean pipelineEnabled) {
+        this.pipelineEnabled = pipelineEnabled;
+    }
+
+    public int getPipelineQueueCapacity() {
+        return pipelineQueueCapacity;
+    }
+
+    public void setPipelineQueueCapacity(int pipelineQueueCapacity) {
+        this.pipelineQueueCapacity = pipelineQueueCapacity;
+    }
+
+    public int getPipelineResolveWorkers() {
+        return pipelineResolveWorkers;
+    }
+
+    public void setPipelineResolveWorkers(int pipelineResolveWorkers) {
+        this.pipelineResolveWorkers = pipelineResolveWorkers;
+    }
+
+    public int getPipelineRenderWorkers() {
+        return pipelineRenderWorkers;
+    }
+
+    public void setPipelineRenderWorkers(int pipelineRenderWorkers) {
+        this.pipelineRenderWorkers = pipelineRenderWorkers;
+    }
+
+    public int getPipelineSendWorkers() {
+        return pipelineSendWorkers;
+    }
+
+    public void setPipelineSendWorkers(int pipelineSendWorkers) {
+        this.pipelineSendWorkers = pipelineSendWorkers;
+    }
+
+    public int getPipelineRecordWorkers() {
+        return pipelineRecordWorkers;
+    }
+
+    public void setPipelineRecordWorkers(int pipelineRecordWorkers) {
+        this.pipelineRecordWorkers = pipelineRecordWorkers;
+    }
+
+    public boolean isDeviceCacheEnabled() {
+        return deviceCacheEnabled;
+    }
+
+    public void setDeviceCacheEnabled(boolean deviceCacheEnabled) {
+        this.deviceCacheEnabled = deviceCacheEnabled;
+    }
+
+    public long getDeviceCacheTtlSeconds() {
+        return deviceCacheTtlSeconds;
+    }
+
+    public void setDeviceCacheTtlSeconds(long deviceCacheTtlSeconds) {
+        this.deviceCacheTtlSeconds = deviceCacheTtlSeconds;
+    }
+
+    public int getDeviceCacheMaxEntries() {
+        return deviceCacheMaxEntries;
+    }
+
+    public void setDeviceCacheMaxEntries(int deviceCacheMaxEntries) {
+        this.deviceCacheMaxEntries = deviceCacheMaxEntries;
+    }
+
+    public boolean isReceiptPollingEnabled() {
+        return receiptPollingEnabled;
+    }
+
+    public void setReceiptPollingEnabled(boolean receiptPollingEnabled) {
+        this.receiptPollingEnabled = receiptPollingEnabled;
+    }
+
+    public long getReceiptPollIntervalMs() {
+        return receiptPollIntervalMs;
+    }
+
+    public void setReceiptPollIntervalMs(long receiptPollIntervalMs) {
+        this.receiptPollIntervalMs = receiptPollIntervalMs;
+    }
+
+    public long getReceiptDelaySeconds() {
+        return receiptDelaySeconds;
+    }
+
+    public void setReceiptDelaySeconds(long receiptDelaySeconds) {
+        this.receiptDelaySeconds = receiptDelaySeconds;
+    }
+
+    public int getReceiptBatchSize() {
+        return receiptBatchSize;
+    }
+
+    public void setReceiptBatchSize(int receiptBatchSize) {
+        this.receiptBatchSize = receiptBatchSize;
+    }
+
+    public int getReceiptMaxPending() {
+        return receiptMaxPending;
+    }
+
+    public void setReceiptMaxPending(int receiptMaxPending) {
+        this.receiptMaxPending = receiptMaxPending;
+    }
+
+    public boolean isAudienceStreamingEnabled() {
+        return audienceStreamingEnabled;
+    }
+
+    public void setAudienceStreamingEnabled(boolean audienceStreamingEnabled) {
+        this.audienceStreamingEnabled = audienceStreamingEnabled;
+    }
+
+    public int getAudienceChunkSize() {
+        return audienceChunkSize;
+    }
+
+    public void setAudienceChunkSize(int audienceChunkSize) {
+        this.audienceChunkSize = audienceChunkSize;
+    }
+
+    public boolean isRateLimitEnabled() {
+        return rateLimitEnabled;
+    }
+
+    public void setRateLimitEnabled(boolean rateLimitEnabled) {
+        this.rateLimitEnabled = rateLimitEnabled;
+    }
+
+    public int getRateLimitMaxPerWindow() {
+        return rateLimitMaxPerWindow;
+    }
+
+    public void setRateLimitMaxPerWindow(int rateLimitMaxPerWindow) {
+        this.rateLimitMaxPerWindow = rateLimitMaxPerWindow;
+    }
+
+    public long getRateLimitWindowSeconds() {
+        return rateLimitWindowSeconds;
+    }
+
+    public void setRateLimitWindowSeconds(long rateLimitWindowSeconds) {
+        this.rateLimitWindowSeconds = rateLimitWindowSeconds;
+    }
+
+    public long getDigestPollIntervalMs() {
+        return digestPollIntervalMs;
+    }
+
+    public void setDigestPollIntervalMs(long digestPollIntervalMs) {
+        this.digestPollIntervalMs = digestPollIntervalMs;
+    }
+
+    public int getDigestBatchSize() {
+        return digestBatchSize;
+    }
+
+    public void setDigestBatchSize(int digestBatchSize) {
+        this.digestBatchSize = digestBatchSize;
+    }
 }
@@ -0,0 +1,70 @@
+package com.oolshik.notificationworker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "notification_rate_limit")
+public class NotificationRateLimitEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "window_start", nullable = false)
+    private OffsetDateTime windowStart;
+
+    @Column(name = "sent_count", nullable = false)
+    private int sentCount;
+
+    @Column(name = "digest_count", nullable = false)
+    private int digestCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public OffsetDateTime getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(OffsetDateTime windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public int getSentCount() {
+        return sentCount;
+    }
+
+    public void setSentCount(int sentCount) {
+        this.sentCount = sentCount;
+    }
+
+    public int getDigestCount() {
+        return digestCount;
+    }
+
+    public void setDigestCount(int digestCount) {
+        this.digestCount = digestCount;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,46 @@
+package com.oolshik.notificationworker.model;
+
+import java.util.Map;
+
+public class ExpoPushReceiptResponse {
+
+    private Map<String, ExpoPushReceipt> data;
+
+    public Map<String, ExpoPushReceipt> getData() {
+        return data;
+    }
+
+    public void setData(Map<String, ExpoPushReceipt> data) {
+        this.data = data;
+    }
+
+    public static class ExpoPushReceipt {
+        private String status;
+        private String message;
+        private Map<String, Object> details;
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public Map<String, Object> getDetails() {
+            return details;
+        }
+
+        public void setDetails(Map<String, Object> details) {
+            this.details = details;
+        }
+    }
+}
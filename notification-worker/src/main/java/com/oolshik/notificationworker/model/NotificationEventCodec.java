@@ -0,0 +1,185 @@
+package com.oolshik.notificationworker.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Compact binary form of {@link NotificationEventPayload}; mirrors the backend's writer byte for byte.
+ *
+ * <p>Layout: magic byte, format version, a presence bitmask, then each present field in bit order.
+ * New fields must only be appended with the next free bit, so older readers skip them; the version is bumped
+ * only for changes older readers cannot ignore. JSON payloads always start with '{', never with the magic byte.
+ */
+public final class NotificationEventCodec {
+
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte VERSION = 1;
+
+    private static final int EVENT_ID = 0;
+    private static final int EVENT_TYPE = 1;
+    private static final int TASK_ID = 2;
+    private static final int OCCURRED_AT = 3;
+    private static final int ACTOR_USER_ID = 4;
+    private static final int REQUESTER_USER_ID = 5;
+    private static final int PREVIOUS_STATUS = 6;
+    private static final int NEW_STATUS = 7;
+    private static final int ASSIGNMENT_CHANGE = 8;
+    private static final int PREVIOUS_HELPER_ID = 9;
+    private static final int NEW_HELPER_ID = 10;
+    private static final int PAYMENT_REQUEST_ID = 11;
+    private static final int PAYER_USER_ID = 12;
+    private static final int HELPER_USER_ID = 13;
+    private static final int PAYER_ROLE = 14;
+    private static final int PAYMENT_AMOUNT = 15;
+    private static final int PAYMENT_CURRENCY = 16;
+    private static final int PAYMENT_DUE_AT = 17;
+    private static final int OFFER_AMOUNT = 18;
+    private static final int OFFER_CURRENCY = 19;
+    private static final int GEO_LAT = 20;
+    private static final int GEO_LNG = 21;
+    private static final int PREVIOUS_RADIUS = 22;
+    private static final int NEW_RADIUS = 23;
+
+    private NotificationEventCodec() {
+    }
+
+    public static boolean isBinary(byte[] bytes) {
+        return bytes != null && bytes.length > 1 && bytes[0] == MAGIC;
+    }
+
+    public static byte[] encode(NotificationEventPayload p) {
+        NotificationEventPayload.Geo geo = p.getGeo();
+        Double lat = geo == null ? null : geo.getLat();
+        Double lng = geo == null ? null : geo.getLng();
+        Object[] fields = {
+                p.getEventId(), p.getEventType(), p.getTaskId(), p.getOccurredAt(),
+                p.getActorUserId(), p.getRequesterUserId(), p.getPreviousStatus(), p.getNewStatus(),
+                p.getAssignmentChange(), p.getPreviousHelperId(), p.getNewHelperId(), p.getPaymentRequestId(),
+                p.getPayerUserId(), p.getHelperUserId(), p.getPayerRole(), p.getPaymentAmount(),
+                p.getPaymentCurrency(), p.getPaymentDueAt(), p.getOfferAmount(), p.getOfferCurrency(),
+                lat, lng, p.getPreviousRadiusMeters(), p.getNewRadiusMeters()
+        };
+        int presence = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                presence |= 1 << i;
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(presence);
+            for (Object field : fields) {
+                if (field != null) {
+                    write(out, field);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static NotificationEventPayload decode(byte[] bytes) {
+        if (!isBinary(bytes)) {
+            throw new IllegalArgumentException("Not a binary notification event");
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            in.readByte();
+            int version = in.readUnsignedByte();
+            if (version > VERSION) {
+                throw new IllegalArgumentException("Unsupported notification event version " + version);
+            }
+            int presence = in.readInt();
+            NotificationEventPayload p = new NotificationEventPayload();
+            if (has(presence, EVENT_ID)) p.setEventId(readUuid(in));
+            if (has(presence, EVENT_TYPE)) p.setEventType(in.readUTF());
+            if (has(presence, TASK_ID)) p.setTaskId(readUuid(in));
+            if (has(presence, OCCURRED_AT)) p.setOccurredAt(readTime(in));
+            if (has(presence, ACTOR_USER_ID)) p.setActorUserId(readUuid(in));
+            if (has(presence, REQUESTER_USER_ID)) p.setRequesterUserId(readUuid(in));
+            if (has(presence, PREVIOUS_STATUS)) p.setPreviousStatus(in.readUTF());
+            if (has(presence, NEW_STATUS)) p.setNewStatus(in.readUTF());
+            if (has(presence, ASSIGNMENT_CHANGE)) p.setAssignmentChange(in.readUTF());
+            if (has(presence, PREVIOUS_HELPER_ID)) p.setPreviousHelperId(readUuid(in));
+            if (has(presence, NEW_HELPER_ID)) p.setNewHelperId(readUuid(in));
+            if (has(presence, PAYMENT_REQUEST_ID)) p.setPaymentRequestId(readUuid(in));
+            if (has(presence, PAYER_USER_ID)) p.setPayerUserId(readUuid(in));
+            if (has(presence, HELPER_USER_ID)) p.setHelperUserId(readUuid(in));
+            if (has(presence, PAYER_ROLE)) p.setPayerRole(in.readUTF());
+            if (has(presence, PAYMENT_AMOUNT)) p.setPaymentAmount(readDecimal(in));
+            if (has(presence, PAYMENT_CURRENCY)) p.setPaymentCurrency(in.readUTF());
+            if (has(presence, PAYMENT_DUE_AT)) p.setPaymentDueAt(readTime(in));
+            if (has(presence, OFFER_AMOUNT)) p.setOfferAmount(readDecimal(in));
+            if (has(presence, OFFER_CURRENCY)) p.setOfferCurrency(in.readUTF());
+            if (has(presence, GEO_LAT) || has(presence, GEO_LNG)) {
+                NotificationEventPayload.Geo geo = new NotificationEventPayload.Geo();
+                if (has(presence, GEO_LAT)) geo.setLat(in.readDouble());
+                if (has(presence, GEO_LNG)) geo.setLng(in.readDouble());
+                p.setGeo(geo);
+            }
+            if (has(presence, PREVIOUS_RADIUS)) p.setPreviousRadiusMeters(in.readInt());
+            if (has(presence, NEW_RADIUS)) p.setNewRadiusMeters(in.readInt());
+            return p;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed binary notification event", e);
+        }
+    }
+
+    private static boolean has(int presence, int bit) {
+        return (presence & (1 << bit)) != 0;
+    }
+
+    private static void write(DataOutputStream out, Object field) throws IOException {
+        if (field instanceof UUID id) {
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+        } else if (field instanceof String text) {
+            out.writeUTF(text);
+        } else if (field instanceof OffsetDateTime time) {
+            out.writeLong(time.toEpochSecond());
+            out.writeInt(time.getNano());
+            out.writeInt(time.getOffset().getTotalSeconds());
+        } else if (field instanceof BigDecimal amount) {
+            byte[] unscaled = amount.unscaledValue().toByteArray();
+            out.writeInt(amount.scale());
+            out.writeByte(unscaled.length);
+            out.write(unscaled);
+        } else if (field instanceof Double number) {
+            out.writeDouble(number);
+        } else if (field instanceof Integer number) {
+            out.writeInt(number);
+        } else {
+            throw new IllegalArgumentException("Unsupported field type " + field.getClass());
+        }
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static OffsetDateTime readTime(DataInputStream in) throws IOException {
+        long epochSecond = in.readLong();
+        int nano = in.readInt();
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(in.readInt());
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano), offset);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
@@ -22,4 +22,23 @@ public interface HelpRequestNotificationAudienceRepository extends JpaRepository
             @Param("notifiedFor") String notifiedFor,
             @Param("radiusMeters") Integer radiusMeters
     );
+
+    // Keyset page ordered by user_id; pass the last user_id of the previous page (or the nil UUID) as afterUserId.
+    @Query(value = """
+        SELECT a.user_id
+          FROM help_request_notification_audience a
+         WHERE a.help_request_id = :helpRequestId
+           AND a.notified_for = :notifiedFor
+           AND a.radius_meters = :radiusMeters
+           AND a.user_id > :afterUserId
+         ORDER BY a.user_id
+         LIMIT :limit
+        """, nativeQuery = true)
+    List<UUID> findAudienceUserIdsPage(
+            @Param("helpRequestId") UUID helpRequestId,
+            @Param("notifiedFor") String notifiedFor,
+            @Param("radiusMeters") int radiusMeters,
+            @Param("afterUserId") UUID afterUserId,
+            @Param("limit") int limit
+    );
 }
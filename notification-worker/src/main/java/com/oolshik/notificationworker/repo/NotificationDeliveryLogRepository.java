@@ -7,12 +7,39 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface NotificationDeliveryLogRepository extends JpaRepository<NotificationDeliveryLogEntity, UUID> {
 
-    Optional<NotificationDeliveryLogEntity> findByIdempotencyKey(String idempotencyKey);
+    interface ClaimedDeliveryRow {
+        UUID getId();
+        UUID getRecipientUserId();
+    }
+
+    // Inserts PROCESSING rows for new keys and re-claims FAILED ones, plus PROCESSING rows untouched since
+    // staleBefore (a worker died between claim and record); SENT, THROTTLED and live PROCESSING keys are not returned. Keys and recipient ids are positional pairs and must not contain duplicates.
+    @Query(value = """
+        INSERT INTO notification_delivery_log
+               (id, idempotency_key, event_id, recipient_user_id, provider, status, created_at, updated_at)
+        SELECT gen_random_uuid(), k.idempotency_key, :eventId, k.recipient_user_id, 'EXPO', 'PROCESSING', :now, :now
+          FROM unnest(CAST(:keys AS text[]), CAST(:recipientIds AS uuid[])) AS k(idempotency_key, recipient_user_id)
+        ON CONFLICT (idempotency_key) DO UPDATE
+           SET status = 'PROCESSING',
+               last_error = NULL,
+               updated_at = EXCLUDED.updated_at
+         WHERE notification_delivery_log.status NOT IN ('SENT', 'THROTTLED', 'PROCESSING')
+            OR (notification_delivery_log.status = 'PROCESSING' AND notification_delivery_log.updated_at < :staleBefore)
+        RETURNING id AS id, recipient_user_id AS recipientUserId
+        """, nativeQuery = true)
+    List<ClaimedDeliveryRow> claimAll(
+            @Param("keys") String[] keys,
+            @Param("recipientIds") UUID[] recipientIds,
+            @Param("eventId") UUID eventId,
+            @Param("now") OffsetDateTime now,
+            @Param("staleBefore") OffsetDateTime staleBefore
+    );
 
     @Modifying
     @Query("""
@@ -20,10 +47,10 @@ public interface NotificationDeliveryLogRepository extends JpaRepository<Notific
            set l.status = :status,
                l.lastError = :lastError,
                l.updatedAt = :updatedAt
-         where l.id = :id
+         where l.id in :ids
         """)
-    int updateStatus(
-            @Param("id") UUID id,
+    int updateStatuses(
+            @Param("ids") Collection<UUID> ids,
             @Param("status") String status,
             @Param("lastError") String lastError,
             @Param("updatedAt") OffsetDateTime updatedAt
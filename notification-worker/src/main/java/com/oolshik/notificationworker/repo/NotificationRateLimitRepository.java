@@ -0,0 +1,91 @@
+package com.oolshik.notificationworker.repo;
+
+import com.oolshik.notificationworker.entity.NotificationRateLimitEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface NotificationRateLimitRepository extends JpaRepository<NotificationRateLimitEntity, UUID> {
+
+    interface RateLimitRow {
+        UUID getUserId();
+        int getDigestCount();
+    }
+
+    // Takes one push from each user's window. A window that has run out (and has no digest waiting) restarts;
+    // a full one counts the event towards the digest instead, or, when countsTowardDigest is false, is left
+    // untouched and its row is not returned. A user was throttled exactly when their row is missing or comes
+    // back with digestCount > 0. userIds must not contain duplicates.
+    @Query(value = """
+        INSERT INTO notification_rate_limit AS r (user_id, window_start, sent_count, digest_count, updated_at)
+        SELECT u.user_id, :now, 1, 0, :now
+          FROM unnest(CAST(:userIds AS uuid[])) AS u(user_id)
+        ON CONFLICT (user_id) DO UPDATE
+           SET window_start = CASE
+                   WHEN r.window_start <= :windowCutoff AND r.digest_count = 0 THEN EXCLUDED.window_start
+                   ELSE r.window_start
+               END,
+               sent_count = CASE
+                   WHEN r.window_start <= :windowCutoff AND r.digest_count = 0 THEN 1
+                   WHEN r.sent_count < :maxPerWindow THEN r.sent_count + 1
+                   ELSE r.sent_count
+               END,
+               digest_count = CASE
+                   WHEN r.window_start <= :windowCutoff AND r.digest_count = 0 THEN 0
+                   WHEN r.sent_count < :maxPerWindow THEN r.digest_count
+                   ELSE r.digest_count + 1
+               END,
+               updated_at = EXCLUDED.updated_at
+         WHERE :countsTowardDigest
+            OR (r.window_start <= :windowCutoff AND r.digest_count = 0)
+            OR r.sent_count < :maxPerWindow
+        RETURNING r.user_id AS userId, r.digest_count AS digestCount
+        """, nativeQuery = true)
+    List<RateLimitRow> takeTokens(
+            @Param("userIds") UUID[] userIds,
+            @Param("maxPerWindow") int maxPerWindow,
+            @Param("windowCutoff") OffsetDateTime windowCutoff,
+            @Param("now") OffsetDateTime now,
+            @Param("countsTowardDigest") boolean countsTowardDigest
+    );
+
+    // Hands each due digest to exactly one worker and starts a new window with the digest push as its first send.
+    @Query(value = """
+        WITH due AS (
+            SELECT user_id, digest_count
+              FROM notification_rate_limit
+             WHERE digest_count > 0
+               AND window_start <= :windowCutoff
+             ORDER BY window_start
+             LIMIT :limit
+               FOR UPDATE SKIP LOCKED
+        )
+        UPDATE notification_rate_limit r
+           SET window_start = :now,
+               sent_count = 1,
+               digest_count = 0,
+               updated_at = :now
+          FROM due
+         WHERE r.user_id = due.user_id
+        RETURNING r.user_id AS userId, due.digest_count AS digestCount
+        """, nativeQuery = true)
+    List<RateLimitRow> claimDueDigests(
+            @Param("windowCutoff") OffsetDateTime windowCutoff,
+            @Param("now") OffsetDateTime now,
+            @Param("limit") int limit
+    );
+
+    // An expired window with nothing to digest behaves exactly like a missing row.
+    @Modifying
+    @Query(value = """
+        DELETE FROM notification_rate_limit
+         WHERE window_start <= :windowCutoff
+           AND digest_count = 0
+        """, nativeQuery = true)
+    int deleteExpired(@Param("windowCutoff") OffsetDateTime windowCutoff);
+}
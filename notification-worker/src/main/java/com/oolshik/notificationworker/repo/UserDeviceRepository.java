@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -37,7 +38,8 @@ public interface UserDeviceRepository extends JpaRepository<UserDeviceEntity, UU
         UPDATE user_device
            SET is_active = false,
                updated_at = now()
-         WHERE token_hash = :tokenHash
+         WHERE token_hash IN (:tokenHashes)
+           AND is_active = true
         """, nativeQuery = true)
-    int deactivateByTokenHash(@Param("tokenHash") String tokenHash);
+    int deactivateByTokenHashes(@Param("tokenHashes") Collection<String> tokenHashes);
 }
@@ -2,16 +2,21 @@ package com.oolshik.notificationworker.service;
 
 import com.oolshik.notificationworker.config.NotificationWorkerProperties;
 import com.oolshik.notificationworker.model.ExpoPushMessage;
+import com.oolshik.notificationworker.model.ExpoPushReceiptResponse;
 import com.oolshik.notificationworker.model.ExpoPushResponse;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ExpoPushClient {
@@ -20,7 +25,14 @@ public class ExpoPushClient {
     private final NotificationWorkerProperties properties;
 
     public ExpoPushClient(RestTemplateBuilder restTemplateBuilder, NotificationWorkerProperties properties) {
-        this.restTemplate = restTemplateBuilder.build();
+        // One shared HTTP/2 client so concurrent batches multiplex over a reused connection.
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(properties.getExpoConnectTimeoutMs()))
+                .build();
+        this.restTemplate = restTemplateBuilder
+                .requestFactory(() -> new JdkClientHttpRequestFactory(httpClient))
+                .build();
         this.properties = properties;
     }
 
@@ -35,4 +47,16 @@ public class ExpoPushClient {
         );
         return response.getBody();
     }
+
+    public ExpoPushReceiptResponse getReceipts(List<String> ticketIds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Map<String, List<String>>> request = new HttpEntity<>(Map.of("ids", ticketIds), headers);
+        ResponseEntity<ExpoPushReceiptResponse> response = restTemplate.postForEntity(
+                properties.getExpoReceiptsEndpoint(),
+                request,
+                ExpoPushReceiptResponse.class
+        );
+        return response.getBody();
+    }
 }
@@ -0,0 +1,160 @@
+package com.oolshik.notificationworker.service;
+
+import com.oolshik.notificationworker.config.NotificationWorkerProperties;
+import com.oolshik.notificationworker.model.ExpoPushReceiptResponse;
+import com.oolshik.notificationworker.repo.UserDeviceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Tickets accepted by Expo are remembered in memory and their receipts fetched in bulk once they are due.
+// Tokens Expo reports as unregistered, from tickets or receipts, are deactivated with one UPDATE per call.
+@Service
+public class ExpoReceiptService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpoReceiptService.class);
+
+    private record PendingReceipt(String ticketId, UUID recipientId, String token, long dueAtNanos) {}
+
+    private final ExpoPushClient expoPushClient;
+    private final UserDeviceRepository userDeviceRepository;
+    private final RecipientDeviceCache deviceCache;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long delayNanos;
+    private final int batchSize;
+    private final int maxPending;
+    private final ConcurrentLinkedQueue<PendingReceipt> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Counter dropped;
+    private final Counter deactivated;
+
+    public ExpoReceiptService(
+            ExpoPushClient expoPushClient,
+            UserDeviceRepository userDeviceRepository,
+            RecipientDeviceCache deviceCache,
+            NotificationWorkerProperties properties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.expoPushClient = expoPushClient;
+        this.userDeviceRepository = userDeviceRepository;
+        this.deviceCache = deviceCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = properties.isReceiptPollingEnabled();
+        this.delayNanos = Math.max(0, properties.getReceiptDelaySeconds()) * 1_000_000_000L;
+        // Expo accepts at most 1000 ids per getReceipts call.
+        this.batchSize = Math.min(1000, Math.max(1, properties.getReceiptBatchSize()));
+        this.maxPending = Math.max(1, properties.getReceiptMaxPending());
+        this.dropped = meterRegistry.counter("notification.receipts.dropped");
+        this.deactivated = meterRegistry.counter("notification.receipts.deactivated");
+        Gauge.builder("notification.receipts.pending", pendingCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public void track(String ticketId, UUID recipientId, String token) {
+        if (!enabled || ticketId == null) {
+            return;
+        }
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        pending.add(new PendingReceipt(ticketId, recipientId, token, System.nanoTime() + delayNanos));
+    }
+
+    @Scheduled(fixedDelayString = "${notification.receiptPollIntervalMs:60000}")
+    public void pollReceipts() {
+        if (!enabled) {
+            return;
+        }
+        List<PendingReceipt> due = drainDue();
+        Map<String, UUID> unregistered = new LinkedHashMap<>();
+        for (int i = 0; i < due.size(); i += batchSize) {
+            List<PendingReceipt> chunk = due.subList(i, Math.min(due.size(), i + batchSize));
+            collectUnregistered(chunk, unregistered);
+        }
+        if (unregistered.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> deactivateTokens(unregistered));
+        log.info("deactivated {} push tokens from {} receipts", unregistered.size(), due.size());
+    }
+
+    // token -> owning recipient; each distinct token is hashed once and the lot goes out as one UPDATE.
+    public void deactivateTokens(Map<String, UUID> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        List<String> tokenHashes = new ArrayList<>(tokens.size());
+        for (String token : tokens.keySet()) {
+            tokenHashes.add(HashUtil.sha256(token));
+        }
+        userDeviceRepository.deactivateByTokenHashes(tokenHashes);
+        deactivated.increment(tokenHashes.size());
+        for (UUID recipientId : tokens.values()) {
+            deviceCache.invalidate(recipientId);
+        }
+    }
+
+    int pendingSize() {
+        return pendingCount.get();
+    }
+
+    private List<PendingReceipt> drainDue() {
+        List<PendingReceipt> due = new ArrayList<>();
+        long now = System.nanoTime();
+        PendingReceipt head;
+        // Tickets are queued in send order, so the first one not yet due ends the drain. Only the
+        // scheduler thread removes entries, so the peeked head is the one polled.
+        while ((head = pending.peek()) != null && now - head.dueAtNanos() >= 0) {
+            pending.poll();
+            pendingCount.decrementAndGet();
+            due.add(head);
+        }
+        return due;
+    }
+
+    private void collectUnregistered(List<PendingReceipt> chunk, Map<String, UUID> unregistered) {
+        List<String> ids = new ArrayList<>(chunk.size());
+        for (PendingReceipt receipt : chunk) {
+            ids.add(receipt.ticketId());
+        }
+        ExpoPushReceiptResponse response;
+        try {
+            response = expoPushClient.getReceipts(ids);
+        } catch (RestClientException ex) {
+            // Receipts are best effort; the next failed send for these tokens deactivates them anyway.
+            log.warn("expo receipt fetch failed size={} error={}", ids.size(), ex.getMessage());
+            return;
+        }
+        if (response == null || response.getData() == null) {
+            return;
+        }
+        for (PendingReceipt receipt : chunk) {
+            ExpoPushReceiptResponse.ExpoPushReceipt result = response.getData().get(receipt.ticketId());
+            if (result != null && "error".equals(result.getStatus()) && isUnregistered(result.getDetails())) {
+                unregistered.putIfAbsent(receipt.token(), receipt.recipientId());
+            }
+        }
+    }
+
+    private static boolean isUnregistered(Map<String, Object> details) {
+        return details != null && "DeviceNotRegistered".equals(String.valueOf(details.get("error")));
+    }
+}
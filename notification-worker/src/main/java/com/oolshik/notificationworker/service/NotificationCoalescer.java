@@ -1,56 +1,175 @@
 package com.oolshik.notificationworker.service;
 
 import com.oolshik.notificationworker.config.NotificationWorkerProperties;
+import com.oolshik.notificationworker.config.NotificationWorkerProperties.OverflowPolicy;
+import com.oolshik.notificationworker.config.NotificationWorkerProperties.RebalancePolicy;
 import com.oolshik.notificationworker.model.NotificationEventPayload;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 
+// Pending events are indexed by taskId and ordered by flush deadline, so a flush only touches due entries.
+// Nothing is acked until the coalesced event is recorded; entries dropped on rebalance are redelivered
+// to the partition's new owner.
 @Service
 public class NotificationCoalescer {
 
+    private static final Logger log = LoggerFactory.getLogger(NotificationCoalescer.class);
+
     private final Map<UUID, PendingEvent> pending = new ConcurrentHashMap<>();
-    private final NotificationDispatcher dispatcher;
+    private final DelayQueue<PendingEvent> deadlines = new DelayQueue<>();
+    private final NotificationPipeline pipeline;
     private final Duration window;
+    private final int maxPending;
+    private final OverflowPolicy overflowPolicy;
+    private final RebalancePolicy rebalancePolicy;
+    private final Counter received;
+    private final Counter dispatched;
+    private final Counter overflowed;
 
-    public NotificationCoalescer(NotificationDispatcher dispatcher, NotificationWorkerProperties properties) {
-        this.dispatcher = dispatcher;
+    public NotificationCoalescer(
+            NotificationPipeline pipeline,
+            NotificationWorkerProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.pipeline = pipeline;
         this.window = Duration.ofSeconds(properties.getCoalesceWindowSeconds());
+        this.maxPending = Math.max(1, properties.getCoalesceMaxPending());
+        this.overflowPolicy = properties.getCoalesceOverflowPolicy();
+        this.rebalancePolicy = properties.getCoalesceRebalancePolicy();
+        this.received = Counter.builder("notification.coalescer.received").register(meterRegistry);
+        this.dispatched = Counter.builder("notification.coalescer.dispatched").register(meterRegistry);
+        this.overflowed = Counter.builder("notification.coalescer.overflow").register(meterRegistry);
+        Gauge.builder("notification.coalescer.pending", pending, Map::size).register(meterRegistry);
+        Gauge.builder("notification.coalescer.ratio", this, NotificationCoalescer::coalesceRatio)
+                .description("Share of received events absorbed by coalescing")
+                .register(meterRegistry);
     }
 
-    public void enqueue(NotificationEventPayload payload) {
+    // onRecorded fires once the event (or the event that superseded it) has been recorded.
+    public void enqueue(NotificationEventPayload payload, int partition, Runnable onRecorded) {
+        received.increment();
         String eventType = payload.getEventType();
         if (payload.getTaskId() == null || (eventType != null && eventType.startsWith("PAYMENT_"))) {
-            dispatcher.dispatch(payload);
+            submit(payload, List.of(new Ack(partition, onRecorded)));
+            return;
+        }
+        PendingEvent[] created = new PendingEvent[1];
+        boolean full = pending.size() >= maxPending;
+        if (full && overflowPolicy == OverflowPolicy.DISPATCH_NEW && !pending.containsKey(payload.getTaskId())) {
+            overflowed.increment();
+            submit(payload, List.of(new Ack(partition, onRecorded)));
             return;
         }
         pending.compute(payload.getTaskId(), (taskId, existing) -> {
             if (existing == null) {
-                return new PendingEvent(payload, OffsetDateTime.now());
-            }
-            if (priority(payload) > priority(existing.payload)) {
+                existing = new PendingEvent(taskId, payload, System.nanoTime() + window.toNanos());
+                created[0] = existing;
+            } else if (priority(payload) > priority(existing.payload)) {
                 existing.payload = payload;
             }
+            synchronized (existing) {
+                existing.acks.add(new Ack(partition, onRecorded));
+            }
             return existing;
         });
+        if (created[0] != null) {
+            deadlines.add(created[0]);
+            if (full) {
+                overflowed.increment();
+                flushOldest();
+            }
+        }
     }
 
     @Scheduled(fixedDelayString = "1000")
     public void flushReady() {
-        OffsetDateTime now = OffsetDateTime.now();
-        for (Map.Entry<UUID, PendingEvent> entry : pending.entrySet()) {
-            PendingEvent event = entry.getValue();
-            if (Duration.between(event.firstSeen, now).compareTo(window) >= 0) {
-                if (pending.remove(entry.getKey(), event)) {
-                    dispatcher.dispatch(event.payload);
+        PendingEvent event;
+        while ((event = deadlines.poll()) != null) {
+            flush(event);
+        }
+    }
+
+    // Called from the consumer thread before offsets of the revoked partitions are committed.
+    public void onPartitionsRevoked(Collection<Integer> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        int handedOff = 0;
+        for (PendingEvent event : pending.values()) {
+            if (rebalancePolicy == RebalancePolicy.FLUSH) {
+                if (event.touches(partitions) && deadlines.remove(event)) {
+                    flush(event);
+                }
+                continue;
+            }
+            // Same lock order as enqueue: map bin first, then the event.
+            boolean[] dropped = new boolean[1];
+            pending.computeIfPresent(event.taskId, (taskId, current) -> {
+                if (current != event) {
+                    return current;
+                }
+                synchronized (current) {
+                    current.acks.removeIf(ack -> partitions.contains(ack.partition()));
+                    dropped[0] = current.acks.isEmpty();
                 }
+                return dropped[0] ? null : current;
+            });
+            if (dropped[0]) {
+                deadlines.remove(event);
+                handedOff++;
             }
         }
+        if (handedOff > 0) {
+            log.info("coalescer handed off {} pending events for revoked partitions {}", handedOff, partitions);
+        }
+    }
+
+    int pendingSize() {
+        return pending.size();
+    }
+
+    double coalesceRatio() {
+        double in = received.count();
+        return in == 0 ? 0.0 : Math.max(0.0, 1.0 - dispatched.count() / in);
+    }
+
+    private void flushOldest() {
+        PendingEvent oldest = deadlines.peek();
+        if (oldest != null && deadlines.remove(oldest)) {
+            flush(oldest);
+        }
+    }
+
+    private void flush(PendingEvent event) {
+        if (!pending.remove(event.taskId, event)) {
+            return;
+        }
+        List<Ack> acks;
+        synchronized (event) {
+            acks = List.copyOf(event.acks);
+        }
+        submit(event.payload, acks);
+    }
+
+    private void submit(NotificationEventPayload payload, List<Ack> acks) {
+        dispatched.increment();
+        pipeline.submit(payload, () -> acks.forEach(ack -> ack.onRecorded().run()));
     }
 
     private int priority(NotificationEventPayload payload) {
@@ -64,13 +183,32 @@ public class NotificationCoalescer {
         };
     }
 
-    private static class PendingEvent {
-        private NotificationEventPayload payload;
-        private final OffsetDateTime firstSeen;
+    private record Ack(int partition, Runnable onRecorded) {}
+
+    private static class PendingEvent implements Delayed {
+        private final UUID taskId;
+        private final long deadlineNanos;
+        private final List<Ack> acks = new ArrayList<>();
+        private volatile NotificationEventPayload payload;
 
-        private PendingEvent(NotificationEventPayload payload, OffsetDateTime firstSeen) {
+        private PendingEvent(UUID taskId, NotificationEventPayload payload, long deadlineNanos) {
+            this.taskId = taskId;
             this.payload = payload;
-            this.firstSeen = firstSeen;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private synchronized boolean touches(Collection<Integer> partitions) {
+            return acks.stream().anyMatch(ack -> partitions.contains(ack.partition()));
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineNanos, ((PendingEvent) other).deadlineNanos);
         }
     }
 }
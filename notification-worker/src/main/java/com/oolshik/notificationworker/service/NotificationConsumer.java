@@ -1,10 +1,14 @@
 package com.oolshik.notificationworker.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oolshik.notificationworker.model.NotificationEventCodec;
 import com.oolshik.notificationworker.model.NotificationEventPayload;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,33 +19,46 @@ public class NotificationConsumer {
     private final ObjectMapper objectMapper;
     private final LegacyEventMapper legacyEventMapper;
     private final NotificationCoalescer coalescer;
+    private final OffsetCommitTracker offsetCommitTracker;
 
     public NotificationConsumer(
             ObjectMapper objectMapper,
             LegacyEventMapper legacyEventMapper,
-            NotificationCoalescer coalescer
+            NotificationCoalescer coalescer,
+            OffsetCommitTracker offsetCommitTracker
     ) {
         this.objectMapper = objectMapper;
         this.legacyEventMapper = legacyEventMapper;
         this.coalescer = coalescer;
+        this.offsetCommitTracker = offsetCommitTracker;
     }
 
     @KafkaListener(
             topics = "${app.kafka.topics.notificationEvents}",
             containerFactory = "notificationKafkaListenerContainerFactory"
     )
-    public void onMessage(String payloadJson) {
+    public void onMessage(
+            byte[] value,
+            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+            @Header(KafkaHeaders.OFFSET) long offset,
+            Acknowledgment acknowledgment
+    ) {
+        Runnable finished = offsetCommitTracker.track(partition, offset, acknowledgment);
         NotificationEventPayload payload;
         try {
-            payload = objectMapper.readValue(payloadJson, NotificationEventPayload.class);
+            payload = NotificationEventCodec.isBinary(value)
+                    ? NotificationEventCodec.decode(value)
+                    : objectMapper.readValue(value, NotificationEventPayload.class);
         } catch (Exception ex) {
             log.warn("failed to parse notification event");
+            finished.run();
             return;
         }
         NotificationEventPayload mapped = legacyEventMapper.mapIfLegacy(payload);
         if (mapped == null) {
+            finished.run();
             return;
         }
-        coalescer.enqueue(mapped);
+        coalescer.enqueue(mapped, partition, finished);
     }
 }
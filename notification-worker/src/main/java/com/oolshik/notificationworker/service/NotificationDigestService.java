@@ -0,0 +1,140 @@
+package com.oolshik.notificationworker.service;
+
+import com.oolshik.notificationworker.config.NotificationWorkerProperties;
+import com.oolshik.notificationworker.model.ExpoPushMessage;
+import com.oolshik.notificationworker.model.ExpoPushResponse;
+import com.oolshik.notificationworker.repo.NotificationRateLimitRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Sends one "N new requests near you" push per throttled recipient once their rate-limit window has ended.
+// Digests are claimed with SKIP LOCKED, so each one is sent by a single worker instance.
+@Service
+public class NotificationDigestService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDigestService.class);
+
+    private final NotificationRateLimitRepository rateLimitRepository;
+    private final RecipientDeviceCache deviceCache;
+    private final NotificationTemplateService templateService;
+    private final ExpoPushClient expoPushClient;
+    private final ExpoReceiptService receiptService;
+    private final NotificationWorkerProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sent;
+
+    public NotificationDigestService(
+            NotificationRateLimitRepository rateLimitRepository,
+            RecipientDeviceCache deviceCache,
+            NotificationTemplateService templateService,
+            ExpoPushClient expoPushClient,
+            ExpoReceiptService receiptService,
+            NotificationWorkerProperties properties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.rateLimitRepository = rateLimitRepository;
+        this.deviceCache = deviceCache;
+        this.templateService = templateService;
+        this.expoPushClient = expoPushClient;
+        this.receiptService = receiptService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sent = meterRegistry.counter("notification.digest.sent");
+    }
+
+    @Scheduled(fixedDelayString = "${notification.digestPollIntervalMs:30000}")
+    public void flushDueDigests() {
+        if (!properties.isRateLimitEnabled()) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime windowCutoff = now.minusSeconds(Math.max(1, properties.getRateLimitWindowSeconds()));
+        List<NotificationRateLimitRepository.RateLimitRow> due = transactionTemplate.execute(status -> {
+            List<NotificationRateLimitRepository.RateLimitRow> claimed = rateLimitRepository.claimDueDigests(
+                    windowCutoff,
+                    now,
+                    Math.max(1, properties.getDigestBatchSize())
+            );
+            rateLimitRepository.deleteExpired(windowCutoff);
+            return claimed;
+        });
+        if (due == null || due.isEmpty()) {
+            return;
+        }
+        send(due);
+    }
+
+    private void send(List<NotificationRateLimitRepository.RateLimitRow> due) {
+        Map<UUID, Integer> counts = new LinkedHashMap<>();
+        for (NotificationRateLimitRepository.RateLimitRow row : due) {
+            counts.put(row.getUserId(), row.getDigestCount());
+        }
+        Map<UUID, RecipientDeviceCache.Recipient> recipients = deviceCache.lookup(new ArrayList<>(counts.keySet()));
+        List<ExpoPushMessage> messages = new ArrayList<>();
+        List<UUID> owners = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> entry : counts.entrySet()) {
+            RecipientDeviceCache.Recipient recipient = recipients.get(entry.getKey());
+            if (recipient == null) {
+                continue;
+            }
+            NotificationTemplateService.NotificationTemplate content =
+                    templateService.digestTemplate(entry.getValue(), recipient.localeTag());
+            Map<String, Object> data = Map.of("type", "NEARBY_DIGEST", "count", entry.getValue());
+            for (String token : recipient.tokens()) {
+                ExpoPushMessage message = new ExpoPushMessage();
+                message.setTo(token);
+                message.setTitle(content.title());
+                message.setBody(content.body());
+                message.setData(data);
+                messages.add(message);
+                owners.add(entry.getKey());
+            }
+        }
+
+        Map<String, UUID> deadTokens = new LinkedHashMap<>();
+        int batchSize = Math.max(1, properties.getExpoBatchSize());
+        for (int i = 0; i < messages.size(); i += batchSize) {
+            int end = Math.min(messages.size(), i + batchSize);
+            ExpoPushResponse response;
+            try {
+                response = expoPushClient.send(messages.subList(i, end));
+            } catch (RuntimeException ex) {
+                // The window has already been reset, so a lost digest is not retried.
+                log.warn("digest push batch failed size={} error={}", end - i, ex.getMessage());
+                continue;
+            }
+            if (response == null || response.getData() == null) {
+                continue;
+            }
+            List<ExpoPushResponse.ExpoPushTicket> tickets = response.getData();
+            for (int j = 0; j < tickets.size() && i + j < end; j++) {
+                ExpoPushResponse.ExpoPushTicket ticket = tickets.get(j);
+                String token = messages.get(i + j).getTo();
+                UUID owner = owners.get(i + j);
+                if ("ok".equals(ticket.getStatus())) {
+                    sent.increment();
+                    receiptService.track(ticket.getId(), owner, token);
+                } else if (ticket.getDetails() != null && "DeviceNotRegistered".equals(String.valueOf(ticket.getDetails().get("error")))) {
+                    deadTokens.putIfAbsent(token, owner);
+                }
+            }
+        }
+        if (!deadTokens.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> receiptService.deactivateTokens(deadTokens));
+        }
+    }
+}
@@ -1,151 +1,204 @@
 package com.oolshik.notificationworker.service;
 
 import com.oolshik.notificationworker.config.NotificationWorkerProperties;
-import com.oolshik.notificationworker.entity.NotificationDeliveryLogEntity;
-import com.oolshik.notificationworker.entity.UserDeviceEntity;
 import com.oolshik.notificationworker.model.ExpoPushMessage;
 import com.oolshik.notificationworker.model.ExpoPushResponse;
 import com.oolshik.notificationworker.model.NotificationEventPayload;
 import com.oolshik.notificationworker.model.NotificationEventType;
 import com.oolshik.notificationworker.repo.HelpRequestCandidateRepository;
 import com.oolshik.notificationworker.repo.NotificationDeliveryLogRepository;
-import com.oolshik.notificationworker.repo.UserDeviceRepository;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class NotificationDispatcher {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
 
+    // Cursor for the first audience page: sorts before every other uuid.
+    public static final UUID AUDIENCE_START = new UUID(0L, 0L);
+
     private final RecipientResolver recipientResolver;
-    private final UserDeviceRepository userDeviceRepository;
+    private final RecipientRateLimiter rateLimiter;
+    private final RecipientDeviceCache deviceCache;
+    private final ExpoReceiptService receiptService;
     private final NotificationDeliveryLogRepository deliveryLogRepository;
     private final HelpRequestCandidateRepository candidateRepository;
     private final NotificationTemplateService templateService;
     private final ExpoPushClient expoPushClient;
     private final NotificationWorkerProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     public NotificationDispatcher(
             RecipientResolver recipientResolver,
-            UserDeviceRepository userDeviceRepository,
+            RecipientRateLimiter rateLimiter,
+            RecipientDeviceCache deviceCache,
+            ExpoReceiptService receiptService,
             NotificationDeliveryLogRepository deliveryLogRepository,
             HelpRequestCandidateRepository candidateRepository,
             NotificationTemplateService templateService,
             ExpoPushClient expoPushClient,
-            NotificationWorkerProperties properties
+            NotificationWorkerProperties properties,
+            PlatformTransactionManager transactionManager
     ) {
         this.recipientResolver = recipientResolver;
-        this.userDeviceRepository = userDeviceRepository;
+        this.rateLimiter = rateLimiter;
+        this.deviceCache = deviceCache;
+        this.receiptService = receiptService;
         this.deliveryLogRepository = deliveryLogRepository;
         this.candidateRepository = candidateRepository;
         this.templateService = templateService;
         this.expoPushClient = expoPushClient;
         this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    // Claim and record commit separately, so no connection or uncommitted claim is held while send() waits on
+    // Expo and its retry backoff.
     public void dispatch(NotificationEventPayload payload) {
-        List<UUID> recipients = recipientResolver.resolve(payload);
-        if (recipients.isEmpty()) {
+        Delivery delivery = transactionTemplate.execute(status -> claim(payload));
+        if (delivery == null || delivery.isEmpty()) {
             return;
         }
+        render(delivery);
+        send(delivery);
+        transactionTemplate.executeWithoutResult(status -> record(delivery));
+    }
+
+    // The phases below are also driven one by one by NotificationPipeline, each in its own transaction.
+
+    @Transactional
+    public Delivery claim(NotificationEventPayload payload) {
         OffsetDateTime now = OffsetDateTime.now();
-        Map<UUID, NotificationDeliveryLogEntity> logs = new HashMap<>();
-        for (UUID recipientId : recipients) {
-            String idempotencySeed = buildIdempotencySeed(payload, recipientId);
-            String key = HashUtil.sha256(idempotencySeed + ":" + recipientId);
-            NotificationDeliveryLogEntity existing = deliveryLogRepository.findByIdempotencyKey(key).orElse(null);
-            if (existing != null) {
-                if ("SENT".equals(existing.getStatus()) || "PROCESSING".equals(existing.getStatus())) {
-                    continue;
-                }
-                deliveryLogRepository.updateStatus(existing.getId(), "PROCESSING", null, now);
-                logs.put(recipientId, existing);
-                continue;
-            }
-            NotificationDeliveryLogEntity logEntry = buildLog(payload, recipientId, key, now);
-            try {
-                deliveryLogRepository.save(logEntry);
-                logs.put(recipientId, logEntry);
-            } catch (DataIntegrityViolationException e) {
-                // another worker inserted concurrently
-            }
-        }
-        if (logs.isEmpty()) {
-            return;
+        List<UUID> recipients = recipientResolver.resolve(payload);
+        if (recipients.isEmpty()) {
+            return new Delivery(payload, now, Map.of());
         }
+        return new Delivery(payload, now, admitClaimed(payload, claimDeliveries(payload, recipients, now), now));
+    }
 
-        List<UserDeviceEntity> devices = userDeviceRepository.findActiveByUserIds(new ArrayList<>(logs.keySet()));
-        Map<UUID, List<UserDeviceEntity>> devicesByUser = new HashMap<>();
-        for (UserDeviceEntity device : devices) {
-            devicesByUser.computeIfAbsent(device.getUserId(), k -> new ArrayList<>()).add(device);
-        }
-        Map<UUID, String> localesByUser = new HashMap<>();
-        for (UserDeviceRepository.UserLocaleRow row : userDeviceRepository.findPreferredLocalesByUserIds(
-                new ArrayList<>(logs.keySet()))) {
-            localesByUser.put(row.getUserId(), LocaleSupport.normalizeTag(row.getPreferredLanguage()));
+    // Audience events are streamed page by page so memory per event stays bounded by the chunk size.
+    public boolean streamsAudience(NotificationEventPayload payload) {
+        return properties.isAudienceStreamingEnabled() && recipientResolver.isAudienceEvent(payload);
+    }
+
+    // Claims the audience page after afterUserId; the returned delivery's nextCursor() is null on the last page.
+    @Transactional
+    public Delivery claimChunk(NotificationEventPayload payload, UUID afterUserId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        int chunkSize = Math.max(1, properties.getAudienceChunkSize());
+        List<UUID> page = recipientResolver.resolveAudiencePage(payload, afterUserId, chunkSize);
+        UUID nextCursor = page.size() < chunkSize ? null : page.get(page.size() - 1);
+        if (page.isEmpty()) {
+            return new Delivery(payload, now, Map.of(), nextCursor);
         }
+        return new Delivery(payload, now, admitClaimed(payload, claimDeliveries(payload, page, now), now), nextCursor);
+    }
 
-        List<OutgoingMessage> outgoing = new ArrayList<>();
-        for (Map.Entry<UUID, NotificationDeliveryLogEntity> entry : logs.entrySet()) {
+    @Transactional(readOnly = true)
+    public void render(Delivery delivery) {
+        NotificationEventPayload payload = delivery.payload;
+        Map<UUID, RecipientDeviceCache.Recipient> recipients =
+                deviceCache.lookup(new ArrayList<>(delivery.logs.keySet()));
+
+        // Data depends only on the event and title/body only on (role, locale): build each once and share them
+        // across every device message.
+        Map<String, Object> data = messageData(payload);
+        Map<RenderKey, NotificationTemplateService.NotificationTemplate> rendered = new HashMap<>();
+        for (Map.Entry<UUID, UUID> entry : delivery.logs.entrySet()) {
             UUID recipientId = entry.getKey();
-            List<UserDeviceEntity> userDevices = devicesByUser.get(recipientId);
-            if (userDevices == null || userDevices.isEmpty()) {
-                deliveryLogRepository.updateStatus(entry.getValue().getId(), "FAILED", "no active tokens", now);
+            RecipientDeviceCache.Recipient recipient = recipients.get(recipientId);
+            if (recipient == null || recipient.tokens().isEmpty()) {
+                delivery.failedByError.computeIfAbsent("no active tokens", k -> new ArrayList<>()).add(entry.getValue());
+                delivery.withoutDevices.add(recipientId);
                 continue;
             }
-            String localeTag = localesByUser.getOrDefault(recipientId, LocaleSupport.EN_IN_TAG);
-            NotificationTemplateService.NotificationTemplate template =
-                    templateService.templateFor(payload.getEventType(), roleForRecipient(payload, recipientId), localeTag);
-            String body = enrichBodyWithOffer(template.body(), payload, localeTag);
-            for (UserDeviceEntity device : userDevices) {
-                Map<String, Object> data = new HashMap<>();
-                data.put("type", payload.getEventType());
-                if (payload.getTaskId() != null) {
-                    data.put("taskId", payload.getTaskId().toString());
-                }
-                if (payload.getPaymentRequestId() != null) {
-                    data.put("paymentRequestId", payload.getPaymentRequestId().toString());
-                    data.put("route", "PaymentPay");
-                } else {
-                    data.put("route", "TaskDetail");
-                }
-                if (payload.getOfferAmount() != null) {
-                    data.put("offerAmount", payload.getOfferAmount().toPlainString());
-                    data.put("offerCurrency", payload.getOfferCurrency() == null ? "INR" : payload.getOfferCurrency());
-                }
+            RenderKey key = new RenderKey(
+                    roleForRecipient(payload, recipientId),
+                    recipient.localeTag()
+            );
+            NotificationTemplateService.NotificationTemplate content = rendered.computeIfAbsent(key, k -> {
+                NotificationTemplateService.NotificationTemplate template =
+                        templateService.templateFor(payload.getEventType(), k.role(), k.localeTag());
+                return new NotificationTemplateService.NotificationTemplate(
+                        template.title(),
+                        enrichBodyWithOffer(template.body(), payload, k.localeTag())
+                );
+            });
+            for (String token : recipient.tokens()) {
                 ExpoPushMessage message = new ExpoPushMessage();
-                message.setTo(device.getToken());
-                message.setTitle(template.title());
-                message.setBody(body);
+                message.setTo(token);
+                message.setTitle(content.title());
+                message.setBody(content.body());
                 message.setData(data);
-                outgoing.add(new OutgoingMessage(recipientId, entry.getValue().getId(), device.getToken(), message));
+                delivery.outgoing.add(new OutgoingMessage(recipientId, entry.getValue(), token, message));
             }
         }
+    }
 
-        if (outgoing.isEmpty()) {
+    private static Map<String, Object> messageData(NotificationEventPayload payload) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("type", payload.getEventType());
+        if (payload.getTaskId() != null) {
+            data.put("taskId", payload.getTaskId().toString());
+        }
+        if (payload.getPaymentRequestId() != null) {
+            data.put("paymentRequestId", payload.getPaymentRequestId().toString());
+            data.put("route", "PaymentPay");
+        } else {
+            data.put("route", "TaskDetail");
+        }
+        if (payload.getOfferAmount() != null) {
+            data.put("offerAmount", payload.getOfferAmount().toPlainString());
+            data.put("offerCurrency", payload.getOfferCurrency() == null ? "INR" : payload.getOfferCurrency());
+        }
+        return Map.copyOf(data);
+    }
+
+    public void send(Delivery delivery) {
+        if (delivery.outgoing.isEmpty()) {
             return;
         }
+        int batchSize = Math.max(1, properties.getExpoBatchSize());
+        List<List<OutgoingMessage>> batches = new ArrayList<>();
+        for (int i = 0; i < delivery.outgoing.size(); i += batchSize) {
+            batches.add(delivery.outgoing.subList(i, Math.min(delivery.outgoing.size(), i + batchSize)));
+        }
+        delivery.batches = batches;
+        delivery.responses = sendBatches(batches);
+    }
 
+    @Transactional
+    public void record(Delivery delivery) {
         Map<UUID, DeliveryOutcome> outcomes = new HashMap<>();
-        int batchSize = Math.max(1, properties.getExpoBatchSize());
-        for (int i = 0; i < outgoing.size(); i += batchSize) {
-            int end = Math.min(outgoing.size(), i + batchSize);
-            List<OutgoingMessage> batch = outgoing.subList(i, end);
-            List<ExpoPushMessage> messages = batch.stream().map(m -> m.message).toList();
-            ExpoPushResponse response = sendWithRetries(messages);
+        Map<String, UUID> deadTokens = new LinkedHashMap<>();
+        for (int i = 0; i < delivery.batches.size(); i++) {
+            List<OutgoingMessage> batch = delivery.batches.get(i);
+            ExpoPushResponse response = delivery.responses.get(i);
             if (response == null) {
                 log.warn("expo push batch failed size={}", batch.size());
                 for (OutgoingMessage out : batch) {
@@ -154,7 +207,7 @@ public class NotificationDispatcher {
                 }
                 continue;
             }
-            if (response == null || response.getData() == null) {
+            if (response.getData() == null) {
                 for (OutgoingMessage out : batch) {
                     outcomes.computeIfAbsent(out.recipientId, k -> new DeliveryOutcome())
                             .recordFailure("expo empty response");
@@ -167,26 +220,40 @@ public class NotificationDispatcher {
                 ExpoPushResponse.ExpoPushTicket ticket = j < tickets.size() ? tickets.get(j) : null;
                 if (ticket != null && "ok".equals(ticket.getStatus())) {
                     outcomes.computeIfAbsent(out.recipientId, k -> new DeliveryOutcome()).recordSuccess();
+                    receiptService.track(ticket.getId(), out.recipientId, out.token);
                 } else {
                     String error = ticket == null ? "expo no ticket" : ticket.getMessage();
                     outcomes.computeIfAbsent(out.recipientId, k -> new DeliveryOutcome()).recordFailure(error);
-                    maybeDeactivateToken(out, ticket);
+                    if (isDeadToken(ticket)) {
+                        deadTokens.putIfAbsent(out.token, out.recipientId);
+                    }
                 }
             }
         }
+        receiptService.deactivateTokens(deadTokens);
 
+        Map<String, List<UUID>> failedByError = delivery.failedByError;
         List<UUID> notifiedRecipients = new ArrayList<>();
-        for (Map.Entry<UUID, NotificationDeliveryLogEntity> entry : logs.entrySet()) {
+        List<UUID> sentLogIds = new ArrayList<>();
+        for (Map.Entry<UUID, UUID> entry : delivery.logs.entrySet()) {
+            if (delivery.withoutDevices.contains(entry.getKey())) {
+                continue;
+            }
             DeliveryOutcome outcome = outcomes.get(entry.getKey());
             if (outcome != null && outcome.hasSuccess()) {
-                deliveryLogRepository.updateStatus(entry.getValue().getId(), "SENT", null, now);
+                sentLogIds.add(entry.getValue());
                 notifiedRecipients.add(entry.getKey());
             } else {
                 String error = outcome == null ? "no delivery attempt" : outcome.firstError();
-                deliveryLogRepository.updateStatus(entry.getValue().getId(), "FAILED", error, now);
+                failedByError.computeIfAbsent(error, k -> new ArrayList<>()).add(entry.getValue());
             }
         }
+        if (!sentLogIds.isEmpty()) {
+            deliveryLogRepository.updateStatuses(sentLogIds, "SENT", null, delivery.now);
+        }
+        writeFailures(failedByError, delivery.now);
 
+        NotificationEventPayload payload = delivery.payload;
         NotificationEventType type = NotificationEventType.valueOf(payload.getEventType());
         if (!notifiedRecipients.isEmpty() && (type == NotificationEventType.TASK_CREATED || type == NotificationEventType.TASK_RADIUS_EXPANDED)) {
             candidateRepository.updateStates(payload.getTaskId(), notifiedRecipients, "NOTIFIED");
@@ -222,37 +289,110 @@ public class NotificationDispatcher {
         return body + suffix;
     }
 
-    private NotificationDeliveryLogEntity buildLog(
-            NotificationEventPayload payload,
-            UUID recipientId,
-            String key,
-            OffsetDateTime now
-    ) {
-        NotificationDeliveryLogEntity logEntry = new NotificationDeliveryLogEntity();
-        logEntry.setId(UUID.randomUUID());
-        logEntry.setIdempotencyKey(key);
-        logEntry.setEventId(payload.getEventId());
-        logEntry.setRecipientUserId(recipientId);
-        logEntry.setProvider("EXPO");
-        logEntry.setStatus("PROCESSING");
-        logEntry.setCreatedAt(now);
-        logEntry.setUpdatedAt(now);
-        return logEntry;
+    // One statement claims every recipient; returns recipientId -> delivery log id for the rows this call owns.
+    private Map<UUID, UUID> claimDeliveries(NotificationEventPayload payload, List<UUID> recipients, OffsetDateTime now) {
+        Map<String, UUID> recipientsByKey = new LinkedHashMap<>();
+        for (UUID recipientId : recipients) {
+            String idempotencySeed = buildIdempotencySeed(payload, recipientId);
+            recipientsByKey.putIfAbsent(HashUtil.sha256(idempotencySeed + ":" + recipientId), recipientId);
+        }
+        List<NotificationDeliveryLogRepository.ClaimedDeliveryRow> claimed = deliveryLogRepository.claimAll(
+                recipientsByKey.keySet().toArray(String[]::new),
+                recipientsByKey.values().toArray(UUID[]::new),
+                payload.getEventId(),
+                now,
+                now.minusSeconds(Math.max(1, properties.getProcessingStaleSeconds()))
+        );
+        Map<UUID, UUID> logs = new LinkedHashMap<>();
+        for (NotificationDeliveryLogRepository.ClaimedDeliveryRow row : claimed) {
+            logs.put(row.getRecipientUserId(), row.getId());
+        }
+        return logs;
+    }
+
+    // Rate limiting runs after the claim so only newly claimed recipients take a token. Throttled rows are parked
+    // as THROTTLED, which claimAll never re-claims, so a redelivery does not count them again.
+    private Map<UUID, UUID> admitClaimed(NotificationEventPayload payload, Map<UUID, UUID> logs, OffsetDateTime now) {
+        if (logs.isEmpty()) {
+            return logs;
+        }
+        List<UUID> admitted = rateLimiter.admit(payload, new ArrayList<>(logs.keySet()), now);
+        if (admitted.size() == logs.size()) {
+            return logs;
+        }
+        Set<UUID> allowed = new HashSet<>(admitted);
+        Map<UUID, UUID> kept = new LinkedHashMap<>();
+        List<UUID> throttledLogIds = new ArrayList<>();
+        for (Map.Entry<UUID, UUID> entry : logs.entrySet()) {
+            if (allowed.contains(entry.getKey())) {
+                kept.put(entry.getKey(), entry.getValue());
+            } else {
+                throttledLogIds.add(entry.getValue());
+            }
+        }
+        deliveryLogRepository.updateStatuses(throttledLogIds, "THROTTLED", null, now);
+        return kept;
     }
 
-    private void maybeDeactivateToken(OutgoingMessage out, ExpoPushResponse.ExpoPushTicket ticket) {
+    private void writeFailures(Map<String, List<UUID>> failedByError, OffsetDateTime now) {
+        for (Map.Entry<String, List<UUID>> entry : failedByError.entrySet()) {
+            deliveryLogRepository.updateStatuses(entry.getValue(), "FAILED", entry.getKey(), now);
+        }
+    }
+
+    private boolean isDeadToken(ExpoPushResponse.ExpoPushTicket ticket) {
         if (ticket == null || ticket.getDetails() == null) {
-            return;
+            return false;
         }
         Object error = ticket.getDetails().get("error");
         if (error == null) {
-            return;
+            return false;
         }
         String errorText = String.valueOf(error);
-        if ("DeviceNotRegistered".equals(errorText) || "InvalidCredentials".equals(errorText)) {
-            String tokenHash = HashUtil.sha256(out.token);
-            userDeviceRepository.deactivateByTokenHash(tokenHash);
+        return "DeviceNotRegistered".equals(errorText) || "InvalidCredentials".equals(errorText);
+    }
+
+    // Up to expoMaxInFlight batches are on the wire at once; responses come back in batch order.
+    private List<ExpoPushResponse> sendBatches(List<List<OutgoingMessage>> batches) {
+        int maxInFlight = Math.max(1, properties.getExpoMaxInFlight());
+        if (maxInFlight == 1 || batches.size() == 1) {
+            List<ExpoPushResponse> responses = new ArrayList<>(batches.size());
+            for (List<OutgoingMessage> batch : batches) {
+                responses.add(sendWithRetries(messagesOf(batch)));
+            }
+            return responses;
+        }
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<Future<ExpoPushResponse>> futures = new ArrayList<>(batches.size());
+        for (List<OutgoingMessage> batch : batches) {
+            List<ExpoPushMessage> messages = messagesOf(batch);
+            futures.add(sendExecutor.submit(() -> {
+                inFlight.acquire();
+                try {
+                    return sendWithRetries(messages);
+                } finally {
+                    inFlight.release();
+                }
+            }));
         }
+        List<ExpoPushResponse> responses = new ArrayList<>(batches.size());
+        for (Future<ExpoPushResponse> future : futures) {
+            try {
+                responses.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                responses.add(null);
+            } catch (ExecutionException | CancellationException e) {
+                // Batches cancelled after an interrupt count as failed; ones that already finished keep their tickets.
+                responses.add(null);
+            }
+        }
+        return responses;
+    }
+
+    private static List<ExpoPushMessage> messagesOf(List<OutgoingMessage> batch) {
+        return batch.stream().map(m -> m.message).toList();
     }
 
     private ExpoPushResponse sendWithRetries(List<ExpoPushMessage> messages) {
@@ -264,13 +404,38 @@ public class NotificationDispatcher {
             } catch (Exception ex) {
                 lastError = ex;
             }
+            if (attempt < maxAttempts && !sleepBeforeRetry(attempt)) {
+                break;
+            }
         }
         if (lastError != null) {
-            log.warn("expo push failed after retries");
+            log.warn("expo push failed after retries: {}", lastError.toString());
         }
         return null;
     }
 
+    // Full jitter: uniform in [0, min(max, base * 2^(attempt-1))].
+    private boolean sleepBeforeRetry(int attempt) {
+        long base = Math.max(0, properties.getExpoRetryBaseDelayMs());
+        long cap = Math.max(base, properties.getExpoRetryMaxDelayMs());
+        long ceiling = Math.min(cap, base << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sendExecutor.shutdownNow();
+    }
+
     private NotificationTemplateService.RecipientRole roleForRecipient(NotificationEventPayload payload, UUID recipientId) {
         if (payload.getRequesterUserId() != null && payload.getRequesterUserId().equals(recipientId)) {
             return NotificationTemplateService.RecipientRole.REQUESTER;
@@ -278,6 +443,44 @@ public class NotificationDispatcher {
         return NotificationTemplateService.RecipientRole.HELPER;
     }
 
+    // Per-event state handed from one dispatch phase to the next.
+    public static final class Delivery {
+        private final NotificationEventPayload payload;
+        private final OffsetDateTime now;
+        private final Map<UUID, UUID> logs;
+        private final UUID nextCursor;
+        private final List<OutgoingMessage> outgoing = new ArrayList<>();
+        private final Map<String, List<UUID>> failedByError = new LinkedHashMap<>();
+        private final Set<UUID> withoutDevices = new HashSet<>();
+        private List<List<OutgoingMessage>> batches = List.of();
+        private List<ExpoPushResponse> responses = List.of();
+
+        Delivery(NotificationEventPayload payload, OffsetDateTime now, Map<UUID, UUID> logs) {
+            this(payload, now, logs, null);
+        }
+
+        Delivery(NotificationEventPayload payload, OffsetDateTime now, Map<UUID, UUID> logs, UUID nextCursor) {
+            this.payload = payload;
+            this.now = now;
+            this.logs = logs;
+            this.nextCursor = nextCursor;
+        }
+
+        public NotificationEventPayload payload() {
+            return payload;
+        }
+
+        public UUID nextCursor() {
+            return nextCursor;
+        }
+
+        public boolean isEmpty() {
+            return logs.isEmpty();
+        }
+    }
+
+    private record RenderKey(NotificationTemplateService.RecipientRole role, String localeTag) {}
+
     private static class OutgoingMessage {
         private final UUID recipientId;
         private final UUID logId;
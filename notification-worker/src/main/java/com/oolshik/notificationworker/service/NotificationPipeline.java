@@ -0,0 +1,228 @@
+package com.oolshik.notificationworker.service;
+
+import com.oolshik.notificationworker.config.NotificationWorkerProperties;
+import com.oolshik.notificationworker.model.NotificationEventPayload;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// resolve (recipients + claim) -> render -> send -> record, joined by bounded queues.
+// A full queue blocks the stage feeding it, which eventually blocks submit() and therefore the Kafka listener.
+// onRecorded runs once the record stage has committed (or the event was dropped), and is what acks the offset.
+// Streamed audience events fan out into one job per claimed page and are acked after the last page is recorded.
+@Service
+public class NotificationPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPipeline.class);
+
+    private final NotificationDispatcher dispatcher;
+    private final NotificationWorkerProperties properties;
+    private final BlockingQueue<Job> resolveQueue;
+    private final BlockingQueue<Job> renderQueue;
+    private final BlockingQueue<Job> sendQueue;
+    private final BlockingQueue<Job> recordQueue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public NotificationPipeline(NotificationDispatcher dispatcher, NotificationWorkerProperties properties) {
+        this.dispatcher = dispatcher;
+        this.properties = properties;
+        int capacity = Math.max(1, properties.getPipelineQueueCapacity());
+        this.resolveQueue = new ArrayBlockingQueue<>(capacity);
+        this.renderQueue = new ArrayBlockingQueue<>(capacity);
+        this.sendQueue = new ArrayBlockingQueue<>(capacity);
+        this.recordQueue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    private interface StageAction {
+        // Returns false when the job is finished and should not be passed on.
+        boolean apply(Job job);
+    }
+
+    private static final class Job {
+        private final NotificationEventPayload payload;
+        private Runnable onRecorded;
+        private NotificationDispatcher.Delivery delivery;
+
+        private Job(NotificationEventPayload payload, Runnable onRecorded) {
+            this.payload = payload;
+            this.onRecorded = onRecorded;
+        }
+    }
+
+    // Starts at one for the claiming job itself, so the event is not acked while pages are still being claimed.
+    private static final class ChunkTracker {
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+        private final Runnable onRecorded;
+
+        private ChunkTracker(Runnable onRecorded) {
+            this.onRecorded = onRecorded;
+        }
+
+        private void add() {
+            outstanding.incrementAndGet();
+        }
+
+        private void done() {
+            if (outstanding.decrementAndGet() == 0) {
+                onRecorded.run();
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isPipelineEnabled()) {
+            return;
+        }
+        running = true;
+        startStage("resolve", properties.getPipelineResolveWorkers(), resolveQueue, renderQueue, job -> {
+            if (dispatcher.streamsAudience(job.payload)) {
+                return claimChunks(job);
+            }
+            job.delivery = dispatcher.claim(job.payload);
+            return !job.delivery.isEmpty();
+        });
+        startStage("render", properties.getPipelineRenderWorkers(), renderQueue, sendQueue, job -> {
+            dispatcher.render(job.delivery);
+            return true;
+        });
+        startStage("send", properties.getPipelineSendWorkers(), sendQueue, recordQueue, job -> {
+            dispatcher.send(job.delivery);
+            return true;
+        });
+        startStage("record", properties.getPipelineRecordWorkers(), recordQueue, null, job -> {
+            dispatcher.record(job.delivery);
+            return false;
+        });
+    }
+
+    public void submit(NotificationEventPayload payload, Runnable onRecorded) {
+        if (!running) {
+            try {
+                if (dispatcher.streamsAudience(payload)) {
+                    dispatchChunks(payload);
+                } else {
+                    dispatcher.dispatch(payload);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("notification dispatch failed type={} taskId={}: {}",
+                        payload.getEventType(), payload.getTaskId(), ex.toString());
+            }
+            onRecorded.run();
+            return;
+        }
+        try {
+            resolveQueue.put(new Job(payload, onRecorded));
+        } catch (InterruptedException e) {
+            // not acked: the record is redelivered after restart
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    private void dispatchChunks(NotificationEventPayload payload) {
+        UUID cursor = NotificationDispatcher.AUDIENCE_START;
+        while (cursor != null) {
+            NotificationDispatcher.Delivery chunk = dispatcher.claimChunk(payload, cursor);
+            if (!chunk.isEmpty()) {
+                dispatcher.render(chunk);
+                dispatcher.send(chunk);
+                dispatcher.record(chunk);
+            }
+            cursor = chunk.nextCursor();
+        }
+    }
+
+    // Runs on a resolve worker: each claimed page goes straight to the render queue, which bounds how many
+    // pages of one event are in memory at once.
+    private boolean claimChunks(Job job) {
+        ChunkTracker tracker = new ChunkTracker(job.onRecorded);
+        job.onRecorded = tracker::done;
+        UUID cursor = NotificationDispatcher.AUDIENCE_START;
+        while (cursor != null) {
+            NotificationDispatcher.Delivery chunk = dispatcher.claimChunk(job.payload, cursor);
+            if (!chunk.isEmpty()) {
+                Job chunkJob = new Job(job.payload, tracker::done);
+                chunkJob.delivery = chunk;
+                tracker.add();
+                try {
+                    renderQueue.put(chunkJob);
+                } catch (InterruptedException e) {
+                    // not acked: the record is redelivered after restart
+                    Thread.currentThread().interrupt();
+                    job.onRecorded = () -> {};
+                    return false;
+                }
+            }
+            cursor = chunk.nextCursor();
+        }
+        return false;
+    }
+
+    private void startStage(
+            String name,
+            int size,
+            BlockingQueue<Job> in,
+            BlockingQueue<Job> out,
+            StageAction action
+    ) {
+        for (int i = 0; i < Math.max(1, size); i++) {
+            Thread worker = Thread.ofPlatform()
+                    .daemon()
+                    .name("notif-" + name + "-" + i)
+                    .start(() -> runStage(name, in, out, action));
+            workers.add(worker);
+        }
+    }
+
+    private void runStage(String name, BlockingQueue<Job> in, BlockingQueue<Job> out, StageAction action) {
+        while (running) {
+            Job job;
+            try {
+                job = in.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            boolean forward;
+            try {
+                forward = action.apply(job);
+            } catch (RuntimeException ex) {
+                log.warn("notification {} stage failed type={} taskId={}: {}",
+                        name, job.payload.getEventType(), job.payload.getTaskId(), ex.toString());
+                forward = false;
+            }
+            if (forward && out != null) {
+                try {
+                    out.put(job);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            } else {
+                complete(job);
+            }
+        }
+    }
+
+    private void complete(Job job) {
+        try {
+            job.onRecorded.run();
+        } catch (RuntimeException ex) {
+            log.warn("notification ack failed: {}", ex.toString());
+        }
+    }
+}
@@ -6,16 +6,42 @@ import org.springframework.stereotype.Service;
 @Service
 public class NotificationTemplateService {
 
+    private static final int EN = 0;
+    private static final int MR = 1;
+
+    // [event type][role][locale], built once; templates are immutable and shared by every recipient.
+    private final NotificationTemplate[][][] table;
+
+    public NotificationTemplateService() {
+        NotificationEventType[] types = NotificationEventType.values();
+        RecipientRole[] roles = RecipientRole.values();
+        table = new NotificationTemplate[types.length][roles.length][2];
+        for (NotificationEventType type : types) {
+            for (RecipientRole role : roles) {
+                table[type.ordinal()][role.ordinal()][EN] = englishTemplate(type, role);
+                table[type.ordinal()][role.ordinal()][MR] = marathiTemplate(type, role);
+            }
+        }
+    }
+
     public NotificationTemplate templateFor(String eventType, RecipientRole role) {
         return templateFor(eventType, role, LocaleSupport.EN_IN_TAG);
     }
 
     public NotificationTemplate templateFor(String eventType, RecipientRole role, String localeTag) {
-        NotificationEventType type = NotificationEventType.valueOf(eventType);
+        return templateFor(NotificationEventType.valueOf(eventType), role, localeTag);
+    }
+
+    public NotificationTemplate templateFor(NotificationEventType type, RecipientRole role, String localeTag) {
+        return table[type.ordinal()][role.ordinal()][LocaleSupport.isMarathi(localeTag) ? MR : EN];
+    }
+
+    // Summary push for recipients whose nearby-task pushes were rate limited during a window.
+    public NotificationTemplate digestTemplate(int count, String localeTag) {
         if (LocaleSupport.isMarathi(localeTag)) {
-            return marathiTemplate(type, role);
+            return new NotificationTemplate("तुमच्या जवळ " + count + " नवीन विनंत्या", "मदत करण्यासाठी अ‍ॅप उघडा.");
         }
-        return englishTemplate(type, role);
+        return new NotificationTemplate(count + " new requests near you", "Open the app to help.");
     }
 
     private NotificationTemplate englishTemplate(NotificationEventType type, RecipientRole role) {
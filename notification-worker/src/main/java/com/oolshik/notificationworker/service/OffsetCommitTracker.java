@@ -0,0 +1,68 @@
+package com.oolshik.notificationworker.service;
+
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Records finish out of order (coalescing window, pipeline stages). Each partition is acked only up to the last
+// record whose predecessors have all finished, so the consumer keeps polling while a record is held, and a crash
+// or rebalance redelivers everything past that watermark.
+@Component
+public class OffsetCommitTracker {
+
+    private final Map<Integer, PartitionWatermark> partitions = new ConcurrentHashMap<>();
+
+    // Called on the consumer thread in offset order; the returned callback may run on any thread, at most once.
+    public Runnable track(int partition, long offset, Acknowledgment acknowledgment) {
+        PartitionWatermark watermark = partitions.computeIfAbsent(partition, p -> new PartitionWatermark());
+        watermark.add(offset, acknowledgment);
+        return () -> {
+            // Completions for a partition revoked in the meantime are dropped; the new owner redelivers.
+            if (partitions.get(partition) == watermark) {
+                watermark.finish(offset);
+            }
+        };
+    }
+
+    public void onPartitionsRevoked(Collection<Integer> revoked) {
+        revoked.forEach(partitions::remove);
+    }
+
+    int outstanding(int partition) {
+        PartitionWatermark watermark = partitions.get(partition);
+        return watermark == null ? 0 : watermark.outstanding();
+    }
+
+    private static final class PartitionWatermark {
+        private final TreeMap<Long, Acknowledgment> outstanding = new TreeMap<>();
+        private final Set<Long> finished = new HashSet<>();
+
+        private synchronized void add(long offset, Acknowledgment acknowledgment) {
+            outstanding.put(offset, acknowledgment);
+        }
+
+        private synchronized void finish(long offset) {
+            if (!outstanding.containsKey(offset)) {
+                return;
+            }
+            finished.add(offset);
+            Acknowledgment highest = null;
+            while (!outstanding.isEmpty() && finished.remove(outstanding.firstKey())) {
+                highest = outstanding.pollFirstEntry().getValue();
+            }
+            if (highest != null) {
+                highest.acknowledge();
+            }
+        }
+
+        private synchronized int outstanding() {
+            return outstanding.size();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.oolshik.notificationworker.service;
+
+import com.oolshik.notificationworker.config.NotificationWorkerProperties;
+import com.oolshik.notificationworker.entity.UserDeviceEntity;
+import com.oolshik.notificationworker.repo.UserDeviceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// userId -> (active push tokens, normalized locale). Bounded LRU with TTL; entries are dropped early when the
+// backend publishes a user change on the invalidation topic or when this worker deactivates a token.
+@Service
+public class RecipientDeviceCache {
+
+    public record Recipient(List<String> tokens, String localeTag) {}
+
+    private record Entry(Recipient recipient, long expiresAtNanos) {}
+
+    private final UserDeviceRepository userDeviceRepository;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<UUID, Entry> entries;
+    // Bumped by every invalidation; a load that raced one is returned but not cached.
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public RecipientDeviceCache(
+            UserDeviceRepository userDeviceRepository,
+            NotificationWorkerProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.userDeviceRepository = userDeviceRepository;
+        this.enabled = properties.isDeviceCacheEnabled();
+        this.ttlNanos = Math.max(1, properties.getDeviceCacheTtlSeconds()) * 1_000_000_000L;
+        int maxEntries = Math.max(1, properties.getDeviceCacheMaxEntries());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = meterRegistry.counter("notification.device_cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("notification.device_cache.requests", "result", "miss");
+        Gauge.builder("notification.device_cache.size", this, RecipientDeviceCache::size).register(meterRegistry);
+        Gauge.builder("notification.device_cache.hit.ratio", this, RecipientDeviceCache::hitRatio).register(meterRegistry);
+    }
+
+    public Map<UUID, Recipient> lookup(List<UUID> userIds) {
+        Map<UUID, Recipient> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        long invalidationsBefore = invalidations.get();
+        if (enabled) {
+            long now = System.nanoTime();
+            synchronized (entries) {
+                for (UUID userId : userIds) {
+                    Entry entry = entries.get(userId);
+                    if (entry != null && entry.expiresAtNanos() - now > 0) {
+                        result.put(userId, entry.recipient());
+                    } else {
+                        missing.add(userId);
+                    }
+                }
+            }
+            hits.increment(result.size());
+            misses.increment(missing.size());
+        } else {
+            missing.addAll(userIds);
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<UUID, List<String>> tokensByUser = new HashMap<>();
+        for (UserDeviceEntity device : userDeviceRepository.findActiveByUserIds(missing)) {
+            tokensByUser.computeIfAbsent(device.getUserId(), k -> new ArrayList<>()).add(device.getToken());
+        }
+        Map<UUID, String> localesByUser = new HashMap<>();
+        for (UserDeviceRepository.UserLocaleRow row : userDeviceRepository.findPreferredLocalesByUserIds(missing)) {
+            localesByUser.put(row.getUserId(), LocaleSupport.normalizeTag(row.getPreferredLanguage()));
+        }
+        Map<UUID, Recipient> loaded = new HashMap<>();
+        for (UUID userId : missing) {
+            loaded.put(userId, new Recipient(
+                    List.copyOf(tokensByUser.getOrDefault(userId, List.of())),
+                    localesByUser.getOrDefault(userId, LocaleSupport.EN_IN_TAG)
+            ));
+        }
+        if (enabled) {
+            long expiresAt = System.nanoTime() + ttlNanos;
+            synchronized (entries) {
+                if (invalidations.get() == invalidationsBefore) {
+                    loaded.forEach((userId, recipient) -> entries.put(userId, new Entry(recipient, expiresAt)));
+                }
+            }
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    public void invalidate(UUID userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(userId);
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+}
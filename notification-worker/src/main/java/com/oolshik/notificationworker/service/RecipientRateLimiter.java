@@ -0,0 +1,89 @@
+package com.oolshik.notificationworker.service;
+
+import com.oolshik.notificationworker.config.NotificationWorkerProperties;
+import com.oolshik.notificationworker.model.NotificationEventPayload;
+import com.oolshik.notificationworker.model.NotificationEventType;
+import com.oolshik.notificationworker.repo.NotificationRateLimitRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Per-recipient token bucket for nearby-task pushes, kept in notification_rate_limit so every worker instance
+// sees the same windows. Throttled new-request pushes are counted for NotificationDigestService, which sends one
+// summary push when the window ends; throttled offer updates are dropped.
+@Service
+public class RecipientRateLimiter {
+
+    private final NotificationRateLimitRepository rateLimitRepository;
+    private final NotificationWorkerProperties properties;
+    private final Counter admitted;
+    private final Counter digested;
+    private final Counter dropped;
+
+    public RecipientRateLimiter(
+            NotificationRateLimitRepository rateLimitRepository,
+            NotificationWorkerProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.rateLimitRepository = rateLimitRepository;
+        this.properties = properties;
+        this.admitted = meterRegistry.counter("notification.rate_limit.decisions", "result", "admitted");
+        this.digested = meterRegistry.counter("notification.rate_limit.decisions", "result", "digested");
+        this.dropped = meterRegistry.counter("notification.rate_limit.decisions", "result", "dropped");
+    }
+
+    public static boolean isRateLimited(String eventType) {
+        return NotificationEventType.TASK_CREATED.name().equals(eventType)
+                || NotificationEventType.TASK_RADIUS_EXPANDED.name().equals(eventType)
+                || NotificationEventType.OFFER_UPDATED.name().equals(eventType);
+    }
+
+    // Only these feed the "N new requests near you" digest.
+    static boolean countsTowardDigest(String eventType) {
+        return NotificationEventType.TASK_CREATED.name().equals(eventType)
+                || NotificationEventType.TASK_RADIUS_EXPANDED.name().equals(eventType);
+    }
+
+    // Returns the recipients that may be pushed now, in their original order. Must run inside a transaction,
+    // and only for recipients whose delivery was newly claimed, so a redelivered event costs no budget.
+    public List<UUID> admit(NotificationEventPayload payload, List<UUID> recipients, OffsetDateTime now) {
+        if (!properties.isRateLimitEnabled() || recipients.isEmpty() || !isRateLimited(payload.getEventType())) {
+            return recipients;
+        }
+        Set<UUID> distinct = new LinkedHashSet<>(recipients);
+        List<NotificationRateLimitRepository.RateLimitRow> rows = rateLimitRepository.takeTokens(
+                distinct.toArray(UUID[]::new),
+                Math.max(1, properties.getRateLimitMaxPerWindow()),
+                now.minusSeconds(Math.max(1, properties.getRateLimitWindowSeconds())),
+                now,
+                countsTowardDigest(payload.getEventType())
+        );
+        Set<UUID> throttled = new HashSet<>(distinct);
+        for (NotificationRateLimitRepository.RateLimitRow row : rows) {
+            if (row.getDigestCount() == 0) {
+                throttled.remove(row.getUserId());
+            }
+        }
+        if (throttled.isEmpty()) {
+            admitted.increment(distinct.size());
+            return recipients;
+        }
+        List<UUID> allowed = new ArrayList<>(distinct.size() - throttled.size());
+        for (UUID recipientId : distinct) {
+            if (!throttled.contains(recipientId)) {
+                allowed.add(recipientId);
+            }
+        }
+        admitted.increment(allowed.size());
+        (countsTowardDigest(payload.getEventType()) ? digested : dropped).increment(throttled.size());
+        return allowed;
+    }
+}
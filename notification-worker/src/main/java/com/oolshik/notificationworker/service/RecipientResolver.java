@@ -118,6 +118,27 @@ public class RecipientResolver {
         return new ArrayList<>(recipients);
     }
 
+    public boolean isAudienceEvent(NotificationEventPayload payload) {
+        String type = payload.getEventType();
+        return payload.getNewRadiusMeters() != null
+                && (NotificationEventType.TASK_CREATED.name().equals(type)
+                || NotificationEventType.TASK_RADIUS_EXPANDED.name().equals(type));
+    }
+
+    // One keyset page of a TASK_CREATED / TASK_RADIUS_EXPANDED audience, in user_id order.
+    public List<UUID> resolveAudiencePage(NotificationEventPayload payload, UUID afterUserId, int limit) {
+        if (!isAudienceEvent(payload)) {
+            return List.of();
+        }
+        return audienceRepository.findAudienceUserIdsPage(
+                payload.getTaskId(),
+                payload.getEventType(),
+                payload.getNewRadiusMeters(),
+                afterUserId,
+                limit
+        );
+    }
+
     private UUID helperId(NotificationEventPayload payload) {
         return payload.getNewHelperId() != null ? payload.getNewHelperId() : payload.getPreviousHelperId();
     }
@@ -0,0 +1,31 @@
+package com.oolshik.notificationworker.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Service
+public class UserCacheInvalidationConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCacheInvalidationConsumer.class);
+
+    private final RecipientDeviceCache deviceCache;
+
+    public UserCacheInvalidationConsumer(RecipientDeviceCache deviceCache) {
+        this.deviceCache = deviceCache;
+    }
+
+    // Fed by KafkaConfig.userCacheInvalidationListenerContainer.
+    public void onMessage(String userId) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            deviceCache.invalidate(UUID.fromString(userId.trim()));
+        } catch (IllegalArgumentException ex) {
+            log.warn("ignoring malformed user cache invalidation");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.oolshik.notificationworker.service;
+
+import com.oolshik.notificationworker.config.NotificationWorkerProperties;
+import com.oolshik.notificationworker.model.ExpoPushReceiptResponse;
+import com.oolshik.notificationworker.repo.UserDeviceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExpoReceiptServiceTest {
+
+    @Mock
+    private ExpoPushClient expoPushClient;
+    @Mock
+    private UserDeviceRepository userDeviceRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationWorkerProperties properties;
+    private RecipientDeviceCache deviceCache;
+    private ExpoReceiptService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationWorkerProperties();
+        properties.setReceiptPollingEnabled(true);
+        properties.setReceiptDelaySeconds(0);
+        properties.setReceiptBatchSize(2);
+        properties.setReceiptMaxPending(3);
+        deviceCache = new RecipientDeviceCache(userDeviceRepository, properties, new SimpleMeterRegistry());
+        service = new ExpoReceiptService(
+                expoPushClient,
+                userDeviceRepository,
+                deviceCache,
+                properties,
+                transactionManager,
+                new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    void pollsReceiptsInChunksAndDeactivatesWithOneUpdate() {
+        service.track("t1", UUID.randomUUID(), "ExponentPushToken[a]");
+        service.track("t2", UUID.randomUUID(), "ExponentPushToken[b]");
+        service.track("t3", UUID.randomUUID(), "ExponentPushToken[c]");
+
+        when(expoPushClient.getReceipts(List.of("t1", "t2")))
+                .thenReturn(receipts(Map.of("t1", receipt("error", "DeviceNotRegistered"), "t2", receipt("ok", null))));
+        when(expoPushClient.getReceipts(List.of("t3")))
+                .thenReturn(receipts(Map.of("t3", receipt("error", "DeviceNotRegistered"))));
+
+        service.pollReceipts();
+
+        verify(expoPushClient, times(2)).getReceipts(anyList());
+        verify(userDeviceRepository).deactivateByTokenHashes(eq(List.of(
+                HashUtil.sha256("ExponentPushToken[a]"),
+                HashUtil.sha256("ExponentPushToken[c]")
+        )));
+        assertEquals(0, service.pendingSize());
+    }
+
+    @Test
+    void receiptsNotYetDueStayQueued() {
+        properties.setReceiptDelaySeconds(900);
+        ExpoReceiptService service = new ExpoReceiptService(
+                expoPushClient, userDeviceRepository, deviceCache, properties, transactionManager, new SimpleMeterRegistry());
+        service.track("t1", UUID.randomUUID(), "ExponentPushToken[a]");
+
+        service.pollReceipts();
+
+        verify(expoPushClient, never()).getReceipts(anyList());
+        assertEquals(1, service.pendingSize());
+    }
+
+    @Test
+    void dropsTicketsBeyondMaxPending() {
+        service.track("t1", UUID.randomUUID(), "ExponentPushToken[a]");
+        service.track("t2", UUID.randomUUID(), "ExponentPushToken[b]");
+        service.track("t3", UUID.randomUUID(), "ExponentPushToken[c]");
+        service.track("t4", UUID.randomUUID(), "ExponentPushToken[d]");
+
+        assertEquals(3, service.pendingSize());
+    }
+
+    @Test
+    void disabledServiceTracksNothing() {
+        properties.setReceiptPollingEnabled(false);
+        ExpoReceiptService service = new ExpoReceiptService(
+                expoPushClient, userDeviceRepository, deviceCache, properties, transactionManager, new SimpleMeterRegistry());
+
+        service.track("t1", UUID.randomUUID(), "ExponentPushToken[a]");
+        service.pollReceipts();
+
+        assertEquals(0, service.pendingSize());
+        verify(expoPushClient, never()).getReceipts(any());
+    }
+
+    private static ExpoPushReceiptResponse receipts(Map<String, ExpoPushReceiptResponse.ExpoPushReceipt> data) {
+        ExpoPushReceiptResponse response = new ExpoPushReceiptResponse();
+        response.setData(data);
+        return response;
+    }
+
+    private static ExpoPushReceiptResponse.ExpoPushReceipt receipt(String status, String error) {
+        ExpoPushReceiptResponse.ExpoPushReceipt receipt = new ExpoPushReceiptResponse.ExpoPushReceipt();
+        receipt.setStatus(status);
+        if (error != null) {
+            receipt.setMessage(error);
+            receipt.setDetails(Map.of("error", error));
+        }
+        return receipt;
+    }
+}
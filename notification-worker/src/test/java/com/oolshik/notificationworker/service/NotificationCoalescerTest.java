@@ -2,11 +2,15 @@ package com.oolshik.notificationworker.service;
 
 import com.oolshik.notificationworker.config.NotificationWorkerProperties;
 import com.oolshik.notificationworker.model.NotificationEventPayload;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 class NotificationCoalescerTest {
 
@@ -15,7 +19,7 @@ class NotificationCoalescerTest {
         NotificationWorkerProperties props = new NotificationWorkerProperties();
         props.setCoalesceWindowSeconds(0);
         CapturingDispatcher dispatcher = new CapturingDispatcher();
-        NotificationCoalescer coalescer = new NotificationCoalescer(dispatcher, props);
+        NotificationCoalescer coalescer = new NotificationCoalescer(new NotificationPipeline(dispatcher, props), props, new SimpleMeterRegistry());
 
         UUID taskId = UUID.randomUUID();
         NotificationEventPayload low = new NotificationEventPayload();
@@ -26,18 +30,117 @@ class NotificationCoalescerTest {
         high.setTaskId(taskId);
         high.setEventType("TASK_CANCELLED");
 
-        coalescer.enqueue(low);
-        coalescer.enqueue(high);
+        AtomicInteger acks = new AtomicInteger();
+        coalescer.enqueue(low, 0, acks::incrementAndGet);
+        coalescer.enqueue(high, 0, acks::incrementAndGet);
         coalescer.flushReady();
 
         assertEquals("TASK_CANCELLED", dispatcher.lastEventType);
+        assertEquals(2, acks.get());
+    }
+
+    @Test
+    void supersededEventsAreAcknowledgedWithTheWinner() {
+        NotificationWorkerProperties props = new NotificationWorkerProperties();
+        props.setCoalesceWindowSeconds(0);
+        CapturingDispatcher dispatcher = new CapturingDispatcher();
+        NotificationCoalescer coalescer = new NotificationCoalescer(new NotificationPipeline(dispatcher, props), props, new SimpleMeterRegistry());
+
+        UUID taskId = UUID.randomUUID();
+        NotificationEventPayload first = new NotificationEventPayload();
+        first.setTaskId(taskId);
+        first.setEventType("TASK_CREATED");
+        NotificationEventPayload second = new NotificationEventPayload();
+        second.setTaskId(taskId);
+        second.setEventType("TASK_RADIUS_EXPANDED");
+
+        AtomicInteger acks = new AtomicInteger();
+        coalescer.enqueue(first, 0, acks::incrementAndGet);
+        coalescer.enqueue(second, 1, acks::incrementAndGet);
+        assertEquals(0, acks.get());
+
+        coalescer.flushReady();
+
+        assertEquals(2, acks.get());
+        assertEquals("TASK_CREATED", dispatcher.lastEventType);
+    }
+
+    @Test
+    void revokedPartitionsHandOffTheirPendingEvents() {
+        NotificationWorkerProperties props = new NotificationWorkerProperties();
+        props.setCoalesceWindowSeconds(60);
+        CapturingDispatcher dispatcher = new CapturingDispatcher();
+        NotificationCoalescer coalescer = new NotificationCoalescer(new NotificationPipeline(dispatcher, props), props, new SimpleMeterRegistry());
+
+        NotificationEventPayload onRevoked = new NotificationEventPayload();
+        onRevoked.setTaskId(UUID.randomUUID());
+        onRevoked.setEventType("TASK_CREATED");
+        NotificationEventPayload onKept = new NotificationEventPayload();
+        onKept.setTaskId(UUID.randomUUID());
+        onKept.setEventType("TASK_CREATED");
+        AtomicInteger acks = new AtomicInteger();
+        coalescer.enqueue(onRevoked, 3, acks::incrementAndGet);
+        coalescer.enqueue(onKept, 4, acks::incrementAndGet);
+
+        coalescer.onPartitionsRevoked(List.of(3));
+
+        assertEquals(1, coalescer.pendingSize());
+        assertEquals(0, acks.get());
+        assertNull(dispatcher.lastEventType);
+    }
+
+    @Test
+    void overflowDispatchesNewEventsImmediately() {
+        NotificationWorkerProperties props = new NotificationWorkerProperties();
+        props.setCoalesceWindowSeconds(60);
+        props.setCoalesceMaxPending(1);
+        CapturingDispatcher dispatcher = new CapturingDispatcher();
+        NotificationCoalescer coalescer = new NotificationCoalescer(new NotificationPipeline(dispatcher, props), props, new SimpleMeterRegistry());
+
+        NotificationEventPayload first = new NotificationEventPayload();
+        first.setTaskId(UUID.randomUUID());
+        first.setEventType("TASK_CREATED");
+        NotificationEventPayload second = new NotificationEventPayload();
+        second.setTaskId(UUID.randomUUID());
+        second.setEventType("TASK_CANCELLED");
+
+        AtomicInteger firstAcks = new AtomicInteger();
+        AtomicInteger secondAcks = new AtomicInteger();
+        coalescer.enqueue(first, 0, firstAcks::incrementAndGet);
+        coalescer.enqueue(second, 1, secondAcks::incrementAndGet);
+
+        assertEquals(1, coalescer.pendingSize());
+        assertEquals("TASK_CANCELLED", dispatcher.lastEventType);
+        assertEquals(0, firstAcks.get());
+        assertEquals(1, secondAcks.get());
+    }
+
+    @Test
+    void ratioReflectsAbsorbedEvents() {
+        NotificationWorkerProperties props = new NotificationWorkerProperties();
+        props.setCoalesceWindowSeconds(0);
+        CapturingDispatcher dispatcher = new CapturingDispatcher();
+        NotificationCoalescer coalescer = new NotificationCoalescer(new NotificationPipeline(dispatcher, props), props, new SimpleMeterRegistry());
+
+        UUID taskId = UUID.randomUUID();
+        AtomicInteger acks = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            NotificationEventPayload payload = new NotificationEventPayload();
+            payload.setTaskId(taskId);
+            payload.setEventType("OFFER_UPDATED");
+            coalescer.enqueue(payload, i, acks::incrementAndGet);
+        }
+        coalescer.flushReady();
+
+        assertEquals(0.75, coalescer.coalesceRatio(), 1e-9);
+        assertEquals(4, acks.get());
     }
 
     private static class CapturingDispatcher extends NotificationDispatcher {
         private String lastEventType;
 
         CapturingDispatcher() {
-            super(null, null, null, null, null, null, new NotificationWorkerProperties());
+            super(null, null, null, null, null, null, null, null, new NotificationWorkerProperties(), null);
         }
 
         @Override
@@ -0,0 +1,79 @@
+package com.oolshik.notificationworker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oolshik.notificationworker.model.NotificationEventCodec;
+import com.oolshik.notificationworker.model.NotificationEventPayload;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class NotificationConsumerTest {
+
+    private final NotificationCoalescer coalescer = mock(NotificationCoalescer.class);
+    private final NotificationConsumer consumer =
+            new NotificationConsumer(
+                    new ObjectMapper().findAndRegisterModules(), new LegacyEventMapper(), coalescer, new OffsetCommitTracker());
+
+    @Test
+    void readsLegacyJsonPayloads() {
+        UUID taskId = UUID.randomUUID();
+        String json = "{\"eventId\":\"" + UUID.randomUUID() + "\",\"eventType\":\"TASK_CANCELLED\",\"taskId\":\"" + taskId + "\"}";
+
+        consumer.onMessage(json.getBytes(StandardCharsets.UTF_8), 3, 10L, mock(Acknowledgment.class));
+
+        ArgumentCaptor<NotificationEventPayload> captor = ArgumentCaptor.forClass(NotificationEventPayload.class);
+        verify(coalescer).enqueue(captor.capture(), eq(3), any());
+        assertEquals(taskId, captor.getValue().getTaskId());
+        assertEquals("TASK_CANCELLED", captor.getValue().getEventType());
+    }
+
+    @Test
+    void readsBinaryPayloads() {
+        NotificationEventPayload original = new NotificationEventPayload();
+        original.setEventId(UUID.randomUUID());
+        original.setEventType("OFFER_UPDATED");
+        original.setTaskId(UUID.randomUUID());
+        original.setOccurredAt(OffsetDateTime.parse("2026-03-01T10:15:30.123456+05:30"));
+        original.setOfferAmount(new BigDecimal("99.90"));
+        original.setOfferCurrency("INR");
+        original.setNewRadiusMeters(1500);
+
+        consumer.onMessage(NotificationEventCodec.encode(original), 0, 11L, mock(Acknowledgment.class));
+
+        ArgumentCaptor<NotificationEventPayload> captor = ArgumentCaptor.forClass(NotificationEventPayload.class);
+        verify(coalescer).enqueue(captor.capture(), eq(0), any());
+        NotificationEventPayload decoded = captor.getValue();
+        assertEquals(original.getEventId(), decoded.getEventId());
+        assertEquals(original.getTaskId(), decoded.getTaskId());
+        assertEquals(original.getOccurredAt(), decoded.getOccurredAt());
+        assertEquals(new BigDecimal("99.90"), decoded.getOfferAmount());
+        assertEquals("INR", decoded.getOfferCurrency());
+        assertEquals(1500, decoded.getNewRadiusMeters());
+        assertNull(decoded.getRequesterUserId());
+        assertNull(decoded.getGeo());
+    }
+
+    @Test
+    void unreadablePayloadIsAckedAndDropped() {
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        consumer.onMessage(new byte[] {NotificationEventCodec.MAGIC, 1, 0}, 0, 12L, ack);
+
+        verify(ack).acknowledge();
+        verify(coalescer, never()).enqueue(any(), anyInt(), any());
+    }
+}
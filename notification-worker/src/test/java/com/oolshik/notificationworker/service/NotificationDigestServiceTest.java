@@ -0,0 +1,108 @@
+package com.oolshik.notificationworker.service;
+
+import com.oolshik.notificationworker.config.NotificationWorkerProperties;
+import com.oolshik.notificationworker.entity.UserDeviceEntity;
+import com.oolshik.notificationworker.model.ExpoPushMessage;
+import com.oolshik.notificationworker.model.ExpoPushResponse;
+import com.oolshik.notificationworker.repo.NotificationRateLimitRepository;
+import com.oolshik.notificationworker.repo.UserDeviceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDigestServiceTest {
+
+    @Mock
+    private NotificationRateLimitRepository rateLimitRepository;
+    @Mock
+    private UserDeviceRepository userDeviceRepository;
+    @Mock
+    private ExpoPushClient expoPushClient;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationWorkerProperties properties;
+    private NotificationDigestService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationWorkerProperties();
+        properties.setRateLimitEnabled(true);
+        RecipientDeviceCache deviceCache = new RecipientDeviceCache(userDeviceRepository, properties, new SimpleMeterRegistry());
+        service = new NotificationDigestService(
+                rateLimitRepository,
+                deviceCache,
+                new NotificationTemplateService(),
+                expoPushClient,
+                new ExpoReceiptService(expoPushClient, userDeviceRepository, deviceCache, properties, transactionManager, new SimpleMeterRegistry()),
+                properties,
+                transactionManager,
+                new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    void sendsOneSummaryPushPerDueDigest() {
+        UUID userId = UUID.randomUUID();
+        when(rateLimitRepository.claimDueDigests(any(), any(), anyInt())).thenReturn(List.of(row(userId, 4)));
+        UserDeviceEntity device = new UserDeviceEntity();
+        device.setUserId(userId);
+        device.setToken("ExponentPushToken[d]");
+        when(userDeviceRepository.findActiveByUserIds(anyList())).thenReturn(List.of(device));
+        when(userDeviceRepository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of());
+        ExpoPushResponse.ExpoPushTicket ok = new ExpoPushResponse.ExpoPushTicket();
+        ok.setStatus("ok");
+        ExpoPushResponse response = new ExpoPushResponse();
+        response.setData(List.of(ok));
+        when(expoPushClient.send(anyList())).thenReturn(response);
+
+        service.flushDueDigests();
+
+        ArgumentCaptor<List<ExpoPushMessage>> sent = ArgumentCaptor.forClass(List.class);
+        verify(expoPushClient).send(sent.capture());
+        assertEquals(1, sent.getValue().size());
+        assertEquals("4 new requests near you", sent.getValue().get(0).getTitle());
+        verify(rateLimitRepository).deleteExpired(any());
+    }
+
+    @Test
+    void disabledRateLimitSkipsTheDatabase() {
+        properties.setRateLimitEnabled(false);
+
+        service.flushDueDigests();
+
+        verify(rateLimitRepository, never()).claimDueDigests(any(), any(), anyInt());
+        verify(expoPushClient, never()).send(anyList());
+    }
+
+    private static NotificationRateLimitRepository.RateLimitRow row(UUID userId, int digestCount) {
+        return new NotificationRateLimitRepository.RateLimitRow() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public int getDigestCount() {
+                return digestCount;
+            }
+        };
+    }
+}
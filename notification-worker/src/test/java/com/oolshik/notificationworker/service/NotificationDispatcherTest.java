@@ -1,35 +1,43 @@
 package com.oolshik.notificationworker.service;
 
 import com.oolshik.notificationworker.config.NotificationWorkerProperties;
-import com.oolshik.notificationworker.entity.NotificationDeliveryLogEntity;
 import com.oolshik.notificationworker.model.ExpoPushMessage;
 import com.oolshik.notificationworker.entity.UserDeviceEntity;
 import com.oolshik.notificationworker.model.ExpoPushResponse;
 import com.oolshik.notificationworker.model.NotificationEventPayload;
 import com.oolshik.notificationworker.repo.HelpRequestCandidateRepository;
 import com.oolshik.notificationworker.repo.NotificationDeliveryLogRepository;
+import com.oolshik.notificationworker.repo.NotificationRateLimitRepository;
 import com.oolshik.notificationworker.repo.UserDeviceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -48,21 +56,37 @@ class NotificationDispatcherTest {
     private NotificationTemplateService templateService;
     @Mock
     private ExpoPushClient expoPushClient;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private NotificationRateLimitRepository rateLimitRepository;
 
+    private NotificationWorkerProperties properties;
     private NotificationDispatcher dispatcher;
 
     @BeforeEach
     void setUp() {
-        NotificationWorkerProperties properties = new NotificationWorkerProperties();
+        properties = new NotificationWorkerProperties();
         properties.setExpoBatchSize(100);
+        RecipientDeviceCache deviceCache = new RecipientDeviceCache(userDeviceRepository, properties, new SimpleMeterRegistry());
         dispatcher = new NotificationDispatcher(
                 recipientResolver,
-                userDeviceRepository,
+                new RecipientRateLimiter(rateLimitRepository, properties, new SimpleMeterRegistry()),
+                deviceCache,
+                new ExpoReceiptService(
+                        expoPushClient,
+                        userDeviceRepository,
+                        deviceCache,
+                        properties,
+                        transactionManager,
+                        new SimpleMeterRegistry()
+                ),
                 deliveryLogRepository,
                 candidateRepository,
                 templateService,
                 expoPushClient,
-                properties
+                properties,
+                transactionManager
         );
     }
 
@@ -75,14 +99,15 @@ class NotificationDispatcherTest {
         payload.setEventType("TASK_CANCELLED");
         payload.setTaskId(taskId);
 
-        when(recipientResolver.resolve(payload)).thenReturn(List.of(userId));
-        NotificationDeliveryLogEntity existing = new NotificationDeliveryLogEntity();
-        existing.setStatus("SENT");
-        when(deliveryLogRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.of(existing));
-        when(userDeviceRepository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of());
+        when(recipientResolver.resolve(payload)).thenReturn(List.of(userId, userId));
+        // SENT/PROCESSING keys are filtered by the claim statement itself
+        when(deliveryLogRepository.claimAll(any(), any(), eq(payload.getEventId()), any(), any())).thenReturn(List.of());
 
         dispatcher.dispatch(payload);
 
+        ArgumentCaptor<String[]> keys = ArgumentCaptor.forClass(String[].class);
+        verify(deliveryLogRepository).claimAll(keys.capture(), any(), any(), any(), any());
+        assertEquals(1, keys.getValue().length);
         verify(expoPushClient, never()).send(anyList());
         verify(userDeviceRepository, never()).findActiveByUserIds(anyList());
     }
@@ -97,7 +122,8 @@ class NotificationDispatcherTest {
         payload.setTaskId(taskId);
 
         when(recipientResolver.resolve(payload)).thenReturn(List.of(userId));
-        when(deliveryLogRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        UUID logId = UUID.randomUUID();
+        when(deliveryLogRepository.claimAll(any(), any(), any(), any(), any())).thenReturn(List.of(claimed(logId, userId)));
         when(userDeviceRepository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of(new UserDeviceRepository.UserLocaleRow() {
             @Override
             public UUID getUserId() {
@@ -130,8 +156,8 @@ class NotificationDispatcherTest {
         dispatcher.dispatch(payload);
 
         String expectedHash = HashUtil.sha256(device.getToken());
-        verify(userDeviceRepository).deactivateByTokenHash(eq(expectedHash));
-        verify(deliveryLogRepository).updateStatus(any(), eq("FAILED"), any(), any(OffsetDateTime.class));
+        verify(userDeviceRepository).deactivateByTokenHashes(eq(List.of(expectedHash)));
+        verify(deliveryLogRepository).updateStatuses(eq(List.of(logId)), eq("FAILED"), eq("DeviceNotRegistered"), any(OffsetDateTime.class));
         verify(templateService).templateFor(eq("TASK_CANCELLED"), any(), eq("mr-IN"));
     }
 
@@ -150,7 +176,8 @@ class NotificationDispatcherTest {
         payload.setOfferCurrency("INR");
 
         when(recipientResolver.resolve(payload)).thenReturn(List.of(helperId));
-        when(deliveryLogRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(deliveryLogRepository.claimAll(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(claimed(UUID.randomUUID(), helperId)));
         when(userDeviceRepository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of(new UserDeviceRepository.UserLocaleRow() {
             @Override
             public UUID getUserId() {
@@ -201,7 +228,8 @@ class NotificationDispatcherTest {
         payload.setOfferCurrency("INR");
 
         when(recipientResolver.resolve(payload)).thenReturn(List.of(helperId));
-        when(deliveryLogRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(deliveryLogRepository.claimAll(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(claimed(UUID.randomUUID(), helperId)));
         when(userDeviceRepository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of(new UserDeviceRepository.UserLocaleRow() {
             @Override
             public UUID getUserId() {
@@ -236,4 +264,250 @@ class NotificationDispatcherTest {
         assertTrue(body.contains("Offer: INR 100.00"));
         assertFalse(body.contains("ऑफर:"));
     }
+
+    @Test
+    void finalStatusesAreWrittenOncePerOutcome() {
+        UUID userA = UUID.randomUUID();
+        UUID userB = UUID.randomUUID();
+        UUID userC = UUID.randomUUID();
+        UUID logA = UUID.randomUUID();
+        UUID logB = UUID.randomUUID();
+        UUID logC = UUID.randomUUID();
+        NotificationEventPayload payload = new NotificationEventPayload();
+        payload.setEventId(UUID.randomUUID());
+        payload.setEventType("TASK_CREATED");
+        payload.setTaskId(UUID.randomUUID());
+
+        when(recipientResolver.resolve(payload)).thenReturn(List.of(userA, userB, userC));
+        when(deliveryLogRepository.claimAll(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(claimed(logA, userA), claimed(logB, userB), claimed(logC, userC)));
+        when(userDeviceRepository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of());
+        UserDeviceEntity deviceA = new UserDeviceEntity();
+        deviceA.setUserId(userA);
+        deviceA.setToken("ExponentPushToken[a]");
+        UserDeviceEntity deviceB = new UserDeviceEntity();
+        deviceB.setUserId(userB);
+        deviceB.setToken("ExponentPushToken[b]");
+        when(userDeviceRepository.findActiveByUserIds(anyList())).thenReturn(List.of(deviceA, deviceB));
+        when(templateService.templateFor(eq("TASK_CREATED"), any(), anyString()))
+                .thenReturn(new NotificationTemplateService.NotificationTemplate("t", "b"));
+
+        ExpoPushResponse.ExpoPushTicket ok = new ExpoPushResponse.ExpoPushTicket();
+        ok.setStatus("ok");
+        ExpoPushResponse response = new ExpoPushResponse();
+        response.setData(List.of(ok, ok));
+        when(expoPushClient.send(anyList())).thenReturn(response);
+
+        dispatcher.dispatch(payload);
+
+        verify(deliveryLogRepository).updateStatuses(eq(List.of(logA, logB)), eq("SENT"), isNull(), any(OffsetDateTime.class));
+        verify(deliveryLogRepository).updateStatuses(eq(List.of(logC)), eq("FAILED"), eq("no active tokens"), any(OffsetDateTime.class));
+        verify(candidateRepository).updateStates(payload.getTaskId(), List.of(userA, userB), "NOTIFIED");
+    }
+
+    @Test
+    void concurrentBatchesKeepTicketsAlignedWithRecipients() {
+        properties.setExpoBatchSize(1);
+        properties.setExpoMaxInFlight(4);
+
+        UUID userA = UUID.randomUUID();
+        UUID userB = UUID.randomUUID();
+        UUID logA = UUID.randomUUID();
+        UUID logB = UUID.randomUUID();
+        NotificationEventPayload payload = new NotificationEventPayload();
+        payload.setEventId(UUID.randomUUID());
+        payload.setEventType("TASK_CANCELLED");
+        payload.setTaskId(UUID.randomUUID());
+
+        when(recipientResolver.resolve(payload)).thenReturn(List.of(userA, userB));
+        when(deliveryLogRepository.claimAll(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(claimed(logA, userA), claimed(logB, userB)));
+        when(userDeviceRepository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of());
+        UserDeviceEntity deviceA = new UserDeviceEntity();
+        deviceA.setUserId(userA);
+        deviceA.setToken("ExponentPushToken[a]");
+        UserDeviceEntity deviceB = new UserDeviceEntity();
+        deviceB.setUserId(userB);
+        deviceB.setToken("ExponentPushToken[b]");
+        when(userDeviceRepository.findActiveByUserIds(anyList())).thenReturn(List.of(deviceA, deviceB));
+        when(templateService.templateFor(eq("TASK_CANCELLED"), any(), anyString()))
+                .thenReturn(new NotificationTemplateService.NotificationTemplate("t", "b"));
+
+        ExpoPushResponse.ExpoPushTicket ok = new ExpoPushResponse.ExpoPushTicket();
+        ok.setStatus("ok");
+        ExpoPushResponse okResponse = new ExpoPushResponse();
+        okResponse.setData(List.of(ok));
+        ExpoPushResponse.ExpoPushTicket failed = new ExpoPushResponse.ExpoPushTicket();
+        failed.setStatus("error");
+        failed.setMessage("MessageRateExceeded");
+        ExpoPushResponse failedResponse = new ExpoPushResponse();
+        failedResponse.setData(List.of(failed));
+        when(expoPushClient.send(anyList())).thenAnswer(invocation -> {
+            List<ExpoPushMessage> messages = invocation.getArgument(0);
+            return deviceA.getToken().equals(messages.get(0).getTo()) ? okResponse : failedResponse;
+        });
+
+        dispatcher.dispatch(payload);
+
+        verify(expoPushClient, times(2)).send(anyList());
+        verify(deliveryLogRepository).updateStatuses(eq(List.of(logA)), eq("SENT"), isNull(), any(OffsetDateTime.class));
+        verify(deliveryLogRepository).updateStatuses(eq(List.of(logB)), eq("FAILED"), eq("MessageRateExceeded"), any(OffsetDateTime.class));
+    }
+
+    @Test
+    void retriesFailedSendBeforeGivingUp() {
+        properties.setMaxSendAttempts(2);
+        properties.setExpoRetryBaseDelayMs(1);
+
+        UUID userId = UUID.randomUUID();
+        UUID logId = UUID.randomUUID();
+        NotificationEventPayload payload = new NotificationEventPayload();
+        payload.setEventId(UUID.randomUUID());
+        payload.setEventType("TASK_CANCELLED");
+        payload.setTaskId(UUID.randomUUID());
+
+        when(recipientResolver.resolve(payload)).thenReturn(List.of(userId));
+        when(deliveryLogRepository.claimAll(any(), any(), any(), any(), any())).thenReturn(List.of(claimed(logId, userId)));
+        when(userDeviceRepository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of());
+        UserDeviceEntity device = new UserDeviceEntity();
+        device.setUserId(userId);
+        device.setToken("ExponentPushToken[r]");
+        when(userDeviceRepository.findActiveByUserIds(anyList())).thenReturn(List.of(device));
+        when(templateService.templateFor(eq("TASK_CANCELLED"), any(), anyString()))
+                .thenReturn(new NotificationTemplateService.NotificationTemplate("t", "b"));
+        when(expoPushClient.send(anyList())).thenThrow(new IllegalStateException("boom"));
+
+        dispatcher.dispatch(payload);
+
+        InOrder order = inOrder(transactionManager, expoPushClient);
+        order.verify(transactionManager).commit(any());
+        order.verify(expoPushClient, times(2)).send(anyList());
+        order.verify(transactionManager).commit(any());
+        verify(deliveryLogRepository).updateStatuses(eq(List.of(logId)), eq("FAILED"), eq("expo send failed"), any(OffsetDateTime.class));
+    }
+
+    @Test
+    void rendersOncePerRoleAndLocaleGroup() {
+        UUID userA = UUID.randomUUID();
+        UUID userB = UUID.randomUUID();
+        NotificationEventPayload payload = new NotificationEventPayload();
+        payload.setEventId(UUID.randomUUID());
+        payload.setEventType("TASK_CREATED");
+        payload.setTaskId(UUID.randomUUID());
+
+        when(recipientResolver.resolve(payload)).thenReturn(List.of(userA, userB));
+        when(deliveryLogRepository.claimAll(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(claimed(UUID.randomUUID(), userA), claimed(UUID.randomUUID(), userB)));
+        when(userDeviceRepository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of());
+        UserDeviceEntity deviceA = new UserDeviceEntity();
+        deviceA.setUserId(userA);
+        deviceA.setToken("ExponentPushToken[a]");
+        UserDeviceEntity deviceB = new UserDeviceEntity();
+        deviceB.setUserId(userB);
+        deviceB.setToken("ExponentPushToken[b]");
+        when(userDeviceRepository.findActiveByUserIds(anyList())).thenReturn(List.of(deviceA, deviceB));
+        when(templateService.templateFor(eq("TASK_CREATED"), any(), eq("en-IN")))
+                .thenReturn(new NotificationTemplateService.NotificationTemplate("t", "b"));
+        ExpoPushResponse.ExpoPushTicket ok = new ExpoPushResponse.ExpoPushTicket();
+        ok.setStatus("ok");
+        ExpoPushResponse response = new ExpoPushResponse();
+        response.setData(List.of(ok, ok));
+        when(expoPushClient.send(anyList())).thenReturn(response);
+
+        dispatcher.dispatch(payload);
+
+        verify(templateService, times(1)).templateFor(eq("TASK_CREATED"), any(), eq("en-IN"));
+        ArgumentCaptor<List<ExpoPushMessage>> sentMessages = ArgumentCaptor.forClass(List.class);
+        verify(expoPushClient).send(sentMessages.capture());
+        List<ExpoPushMessage> messages = sentMessages.getValue();
+        assertEquals(2, messages.size());
+        assertSame(messages.get(0).getData(), messages.get(1).getData());
+        assertSame(messages.get(0).getBody(), messages.get(1).getBody());
+    }
+
+    @Test
+    void claimChunkPagesAudienceByKeyset() {
+        properties.setAudienceChunkSize(2);
+        UUID userA = UUID.randomUUID();
+        UUID userB = UUID.randomUUID();
+        UUID userC = UUID.randomUUID();
+        NotificationEventPayload payload = new NotificationEventPayload();
+        payload.setEventId(UUID.randomUUID());
+        payload.setEventType("TASK_CREATED");
+        payload.setTaskId(UUID.randomUUID());
+        payload.setNewRadiusMeters(1000);
+
+        when(recipientResolver.resolveAudiencePage(payload, NotificationDispatcher.AUDIENCE_START, 2))
+                .thenReturn(List.of(userA, userB));
+        when(recipientResolver.resolveAudiencePage(payload, userB, 2)).thenReturn(List.of(userC));
+        when(deliveryLogRepository.claimAll(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(claimed(UUID.randomUUID(), userA), claimed(UUID.randomUUID(), userB)))
+                .thenReturn(List.of(claimed(UUID.randomUUID(), userC)));
+
+        NotificationDispatcher.Delivery first = dispatcher.claimChunk(payload, NotificationDispatcher.AUDIENCE_START);
+        NotificationDispatcher.Delivery second = dispatcher.claimChunk(payload, first.nextCursor());
+
+        assertEquals(userB, first.nextCursor());
+        assertFalse(first.isEmpty());
+        assertNull(second.nextCursor());
+        assertFalse(second.isEmpty());
+        verify(recipientResolver, never()).resolve(any());
+    }
+
+    @Test
+    void rateLimitTakesTokensOnlyForNewlyClaimedRecipients() {
+        properties.setRateLimitEnabled(true);
+        properties.setRateLimitMaxPerWindow(3);
+        UUID alreadySent = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+        UUID busy = UUID.randomUUID();
+        UUID freshLog = UUID.randomUUID();
+        UUID busyLog = UUID.randomUUID();
+        NotificationEventPayload payload = new NotificationEventPayload();
+        payload.setEventId(UUID.randomUUID());
+        payload.setEventType("TASK_CREATED");
+        payload.setTaskId(UUID.randomUUID());
+
+        when(recipientResolver.resolve(payload)).thenReturn(List.of(alreadySent, fresh, busy));
+        when(deliveryLogRepository.claimAll(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(claimed(freshLog, fresh), claimed(busyLog, busy)));
+        when(rateLimitRepository.takeTokens(any(), eq(3), any(), any(), eq(true)))
+                .thenReturn(List.of(rateLimitRow(fresh, 0), rateLimitRow(busy, 1)));
+
+        NotificationDispatcher.Delivery delivery = dispatcher.claim(payload);
+
+        ArgumentCaptor<UUID[]> charged = ArgumentCaptor.forClass(UUID[].class);
+        verify(rateLimitRepository).takeTokens(charged.capture(), eq(3), any(), any(), eq(true));
+        assertEquals(List.of(fresh, busy), List.of(charged.getValue()));
+        verify(deliveryLogRepository).updateStatuses(eq(List.of(busyLog)), eq("THROTTLED"), isNull(), any(OffsetDateTime.class));
+        assertFalse(delivery.isEmpty());
+    }
+
+    private static NotificationRateLimitRepository.RateLimitRow rateLimitRow(UUID userId, int digestCount) {
+        return new NotificationRateLimitRepository.RateLimitRow() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public int getDigestCount() {
+                return digestCount;
+            }
+        };
+    }
+
+    private static NotificationDeliveryLogRepository.ClaimedDeliveryRow claimed(UUID logId, UUID recipientId) {
+        return new NotificationDeliveryLogRepository.ClaimedDeliveryRow() {
+            @Override
+            public UUID getId() {
+                return logId;
+            }
+
+            @Override
+            public UUID getRecipientUserId() {
+                return recipientId;
+            }
+        };
+    }
 }
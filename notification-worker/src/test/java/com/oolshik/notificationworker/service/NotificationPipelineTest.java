@@ -0,0 +1,167 @@
+package com.oolshik.notificationworker.service;
+
+import com.oolshik.notificationworker.config.NotificationWorkerProperties;
+import com.oolshik.notificationworker.model.NotificationEventPayload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationPipelineTest {
+
+    private final NotificationDispatcher dispatcher = mock(NotificationDispatcher.class);
+    private NotificationWorkerProperties properties;
+    private NotificationPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationWorkerProperties();
+        properties.setPipelineEnabled(true);
+        properties.setPipelineQueueCapacity(4);
+        pipeline = new NotificationPipeline(dispatcher, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    void disabledPipelineDispatchesInlineThenAcks() {
+        properties.setPipelineEnabled(false);
+        pipeline.start();
+        NotificationEventPayload payload = payload();
+        CountDownLatch acked = new CountDownLatch(1);
+
+        pipeline.submit(payload, acked::countDown);
+
+        verify(dispatcher).dispatch(payload);
+        assertEquals(0, acked.getCount());
+    }
+
+    @Test
+    void stagesRunInOrderAndAckAfterRecord() throws Exception {
+        pipeline.start();
+        NotificationEventPayload payload = payload();
+        NotificationDispatcher.Delivery delivery =
+                new NotificationDispatcher.Delivery(payload, OffsetDateTime.now(), Map.of(UUID.randomUUID(), UUID.randomUUID()));
+        when(dispatcher.claim(payload)).thenReturn(delivery);
+        CountDownLatch acked = new CountDownLatch(1);
+
+        pipeline.submit(payload, acked::countDown);
+
+        assertTrue(acked.await(5, TimeUnit.SECONDS));
+        InOrder order = inOrder(dispatcher);
+        order.verify(dispatcher).claim(payload);
+        order.verify(dispatcher).render(delivery);
+        order.verify(dispatcher).send(delivery);
+        order.verify(dispatcher).record(delivery);
+        verify(dispatcher, never()).dispatch(any());
+    }
+
+    @Test
+    void emptyClaimAcksWithoutSending() throws Exception {
+        pipeline.start();
+        NotificationEventPayload payload = payload();
+        when(dispatcher.claim(payload)).thenReturn(new NotificationDispatcher.Delivery(payload, OffsetDateTime.now(), Map.of()));
+        CountDownLatch acked = new CountDownLatch(1);
+
+        pipeline.submit(payload, acked::countDown);
+
+        assertTrue(acked.await(5, TimeUnit.SECONDS));
+        verify(dispatcher, never()).send(any());
+    }
+
+    @Test
+    void failedStageStillAcks() throws Exception {
+        pipeline.start();
+        NotificationEventPayload payload = payload();
+        NotificationDispatcher.Delivery delivery =
+                new NotificationDispatcher.Delivery(payload, OffsetDateTime.now(), Map.of(UUID.randomUUID(), UUID.randomUUID()));
+        when(dispatcher.claim(payload)).thenReturn(delivery);
+        doThrow(new IllegalStateException("render failed")).when(dispatcher).render(delivery);
+        CountDownLatch acked = new CountDownLatch(1);
+
+        pipeline.submit(payload, acked::countDown);
+
+        assertTrue(acked.await(5, TimeUnit.SECONDS));
+        verify(dispatcher, never()).send(any());
+        verify(dispatcher, never()).record(any());
+    }
+
+    @Test
+    void disabledPipelineStreamsAudienceChunksInline() {
+        properties.setPipelineEnabled(false);
+        pipeline.start();
+        NotificationEventPayload payload = payload();
+        UUID lastOfFirstPage = UUID.randomUUID();
+        NotificationDispatcher.Delivery first = new NotificationDispatcher.Delivery(
+                payload, OffsetDateTime.now(), Map.of(lastOfFirstPage, UUID.randomUUID()), lastOfFirstPage);
+        NotificationDispatcher.Delivery second =
+                new NotificationDispatcher.Delivery(payload, OffsetDateTime.now(), Map.of(UUID.randomUUID(), UUID.randomUUID()));
+        when(dispatcher.streamsAudience(payload)).thenReturn(true);
+        when(dispatcher.claimChunk(payload, NotificationDispatcher.AUDIENCE_START)).thenReturn(first);
+        when(dispatcher.claimChunk(payload, lastOfFirstPage)).thenReturn(second);
+        CountDownLatch acked = new CountDownLatch(1);
+
+        pipeline.submit(payload, acked::countDown);
+
+        verify(dispatcher).record(first);
+        verify(dispatcher).record(second);
+        verify(dispatcher, never()).dispatch(any());
+        assertEquals(0, acked.getCount());
+    }
+
+    @Test
+    void streamedAudienceAcksAfterEveryChunkIsRecorded() throws Exception {
+        pipeline.start();
+        NotificationEventPayload payload = payload();
+        UUID lastOfFirstPage = UUID.randomUUID();
+        UUID lastOfSecondPage = UUID.randomUUID();
+        NotificationDispatcher.Delivery first = new NotificationDispatcher.Delivery(
+                payload, OffsetDateTime.now(), Map.of(lastOfFirstPage, UUID.randomUUID()), lastOfFirstPage);
+        // Every recipient on this page was already notified: nothing to send, but the cursor moves on.
+        NotificationDispatcher.Delivery alreadySent =
+                new NotificationDispatcher.Delivery(payload, OffsetDateTime.now(), Map.of(), lastOfSecondPage);
+        NotificationDispatcher.Delivery last =
+                new NotificationDispatcher.Delivery(payload, OffsetDateTime.now(), Map.of(UUID.randomUUID(), UUID.randomUUID()));
+        when(dispatcher.streamsAudience(payload)).thenReturn(true);
+        when(dispatcher.claimChunk(payload, NotificationDispatcher.AUDIENCE_START)).thenReturn(first);
+        when(dispatcher.claimChunk(payload, lastOfFirstPage)).thenReturn(alreadySent);
+        when(dispatcher.claimChunk(payload, lastOfSecondPage)).thenReturn(last);
+        CountDownLatch acked = new CountDownLatch(1);
+
+        pipeline.submit(payload, acked::countDown);
+
+        assertTrue(acked.await(5, TimeUnit.SECONDS));
+        verify(dispatcher).record(first);
+        verify(dispatcher).record(last);
+        verify(dispatcher, times(2)).send(any());
+        verify(dispatcher, never()).claim(any());
+    }
+
+    private static NotificationEventPayload payload() {
+        NotificationEventPayload payload = new NotificationEventPayload();
+        payload.setEventId(UUID.randomUUID());
+        payload.setEventType("TASK_CANCELLED");
+        payload.setTaskId(UUID.randomUUID());
+        return payload;
+    }
+}
@@ -3,6 +3,7 @@ package com.oolshik.notificationworker.service;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class NotificationTemplateServiceTest {
 
@@ -27,5 +28,19 @@ class NotificationTemplateServiceTest {
         );
         assertEquals("New request near you", template.title());
     }
-}
 
+    @Test
+    void returnsSharedTemplateInstancePerKey() {
+        NotificationTemplateService.NotificationTemplate first = service.templateFor(
+                "OFFER_UPDATED",
+                NotificationTemplateService.RecipientRole.HELPER,
+                "en-IN"
+        );
+        NotificationTemplateService.NotificationTemplate second = service.templateFor(
+                "OFFER_UPDATED",
+                NotificationTemplateService.RecipientRole.HELPER,
+                "en_in"
+        );
+        assertSame(first, second);
+    }
+}
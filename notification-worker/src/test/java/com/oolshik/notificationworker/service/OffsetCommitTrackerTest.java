@@ -0,0 +1,62 @@
+package com.oolshik.notificationworker.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class OffsetCommitTrackerTest {
+
+    private final OffsetCommitTracker tracker = new OffsetCommitTracker();
+
+    @Test
+    void acksOnlyUpToTheLastContiguousFinishedRecord() {
+        Acknowledgment first = mock(Acknowledgment.class);
+        Acknowledgment second = mock(Acknowledgment.class);
+        Acknowledgment third = mock(Acknowledgment.class);
+        Runnable held = tracker.track(0, 10, first);
+        Runnable passedThrough = tracker.track(0, 11, second);
+        Runnable last = tracker.track(0, 12, third);
+
+        passedThrough.run();
+        last.run();
+        verify(first, never()).acknowledge();
+        verify(second, never()).acknowledge();
+        verify(third, never()).acknowledge();
+        assertEquals(3, tracker.outstanding(0));
+
+        held.run();
+        verify(third).acknowledge();
+        verify(first, never()).acknowledge();
+        assertEquals(0, tracker.outstanding(0));
+    }
+
+    @Test
+    void partitionsAreTrackedIndependently() {
+        Acknowledgment held = mock(Acknowledgment.class);
+        Acknowledgment other = mock(Acknowledgment.class);
+        tracker.track(0, 5, held);
+
+        tracker.track(1, 5, other).run();
+
+        verify(other).acknowledge();
+        verify(held, never()).acknowledge();
+    }
+
+    @Test
+    void completionsAfterRevocationAreDropped() {
+        Acknowledgment ack = mock(Acknowledgment.class);
+        Runnable finished = tracker.track(2, 7, ack);
+
+        tracker.onPartitionsRevoked(List.of(2));
+        finished.run();
+
+        verify(ack, never()).acknowledge();
+        assertEquals(0, tracker.outstanding(2));
+    }
+}
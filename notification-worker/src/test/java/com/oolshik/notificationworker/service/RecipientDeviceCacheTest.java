@@ -0,0 +1,111 @@
+package com.oolshik.notificationworker.service;
+
+import com.oolshik.notificationworker.config.NotificationWorkerProperties;
+import com.oolshik.notificationworker.entity.UserDeviceEntity;
+import com.oolshik.notificationworker.repo.UserDeviceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecipientDeviceCacheTest {
+
+    private final UserDeviceRepository repository = mock(UserDeviceRepository.class);
+    private NotificationWorkerProperties properties;
+    private RecipientDeviceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationWorkerProperties();
+        properties.setDeviceCacheEnabled(true);
+        properties.setDeviceCacheMaxEntries(2);
+        cache = new RecipientDeviceCache(repository, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void servesRepeatLookupsFromCacheUntilInvalidated() {
+        UUID userId = UUID.randomUUID();
+        UserDeviceEntity device = new UserDeviceEntity();
+        device.setUserId(userId);
+        device.setToken("ExponentPushToken[a]");
+        when(repository.findActiveByUserIds(anyList())).thenReturn(List.of(device));
+        when(repository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of(locale(userId, "mr")));
+
+        Map<UUID, RecipientDeviceCache.Recipient> first = cache.lookup(List.of(userId));
+        Map<UUID, RecipientDeviceCache.Recipient> second = cache.lookup(List.of(userId));
+
+        assertEquals(List.of("ExponentPushToken[a]"), first.get(userId).tokens());
+        assertEquals("mr-IN", second.get(userId).localeTag());
+        verify(repository, times(1)).findActiveByUserIds(anyList());
+        assertEquals(0.5, cache.hitRatio(), 1e-9);
+
+        cache.invalidate(userId);
+        cache.lookup(List.of(userId));
+
+        verify(repository, times(2)).findActiveByUserIds(anyList());
+    }
+
+    @Test
+    void cachesUsersWithoutDevices() {
+        UUID userId = UUID.randomUUID();
+        when(repository.findActiveByUserIds(anyList())).thenReturn(List.of());
+        when(repository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of());
+
+        cache.lookup(List.of(userId));
+        RecipientDeviceCache.Recipient recipient = cache.lookup(List.of(userId)).get(userId);
+
+        assertTrue(recipient.tokens().isEmpty());
+        assertEquals("en-IN", recipient.localeTag());
+        verify(repository, times(1)).findActiveByUserIds(anyList());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() {
+        when(repository.findActiveByUserIds(anyList())).thenReturn(List.of());
+        when(repository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of());
+
+        cache.lookup(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void disabledCacheAlwaysReadsThrough() {
+        UUID userId = UUID.randomUUID();
+        when(repository.findActiveByUserIds(anyList())).thenReturn(List.of());
+        when(repository.findPreferredLocalesByUserIds(anyList())).thenReturn(List.of());
+        properties.setDeviceCacheEnabled(false);
+        RecipientDeviceCache readThrough = new RecipientDeviceCache(repository, properties, new SimpleMeterRegistry());
+
+        readThrough.lookup(List.of(userId));
+        readThrough.lookup(List.of(userId));
+
+        verify(repository, times(2)).findActiveByUserIds(anyList());
+        assertEquals(0, readThrough.size());
+    }
+
+    private static UserDeviceRepository.UserLocaleRow locale(UUID userId, String language) {
+        return new UserDeviceRepository.UserLocaleRow() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public String getPreferredLanguage() {
+                return language;
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.oolshik.notificationworker.service;
+
+import com.oolshik.notificationworker.config.NotificationWorkerProperties;
+import com.oolshik.notificationworker.model.NotificationEventPayload;
+import com.oolshik.notificationworker.repo.NotificationRateLimitRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RecipientRateLimiterTest {
+
+    @Mock
+    private NotificationRateLimitRepository rateLimitRepository;
+
+    private NotificationWorkerProperties properties;
+    private RecipientRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationWorkerProperties();
+        properties.setRateLimitEnabled(true);
+        properties.setRateLimitMaxPerWindow(3);
+        limiter = new RecipientRateLimiter(rateLimitRepository, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void throttledRecipientsAreFoldedIntoTheDigest() {
+        UUID fresh = UUID.randomUUID();
+        UUID busy = UUID.randomUUID();
+        when(rateLimitRepository.takeTokens(any(), eq(3), any(), any(), eq(true)))
+                .thenReturn(List.of(row(fresh, 0), row(busy, 2)));
+
+        List<UUID> admitted = limiter.admit(payload("TASK_CREATED"), List.of(fresh, busy), OffsetDateTime.now());
+
+        assertEquals(List.of(fresh), admitted);
+    }
+
+    @Test
+    void throttledOfferUpdatesAreDroppedWithoutCountingTowardTheDigest() {
+        UUID fresh = UUID.randomUUID();
+        UUID busy = UUID.randomUUID();
+        when(rateLimitRepository.takeTokens(any(), eq(3), any(), any(), eq(false)))
+                .thenReturn(List.of(row(fresh, 0)));
+
+        List<UUID> admitted = limiter.admit(payload("OFFER_UPDATED"), List.of(fresh, busy), OffsetDateTime.now());
+
+        assertEquals(List.of(fresh), admitted);
+    }
+
+    @Test
+    void directEventsAreNeverLimited() {
+        List<UUID> recipients = List.of(UUID.randomUUID());
+
+        List<UUID> admitted = limiter.admit(payload("TASK_CANCELLED"), recipients, OffsetDateTime.now());
+
+        assertEquals(recipients, admitted);
+        verify(rateLimitRepository, never()).takeTokens(any(), anyInt(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void disabledLimiterAdmitsEveryone() {
+        List<UUID> recipients = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        properties.setRateLimitEnabled(false);
+
+        List<UUID> admitted = limiter.admit(payload("OFFER_UPDATED"), recipients, OffsetDateTime.now());
+
+        assertEquals(recipients, admitted);
+        verify(rateLimitRepository, never()).takeTokens(any(), anyInt(), any(), any(), anyBoolean());
+    }
+
+    private static NotificationEventPayload payload(String eventType) {
+        NotificationEventPayload payload = new NotificationEventPayload();
+        payload.setEventId(UUID.randomUUID());
+        payload.setEventType(eventType);
+        payload.setTaskId(UUID.randomUUID());
+        return payload;
+    }
+
+    private static NotificationRateLimitRepository.RateLimitRow row(UUID userId, int digestCount) {
+        return new NotificationRateLimitRepository.RateLimitRow() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public int getDigestCount() {
+                return digestCount;
+            }
+        };
+    }
+}
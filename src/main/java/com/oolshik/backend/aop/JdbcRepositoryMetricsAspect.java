@@ -0,0 +1,55 @@
+package com.oolshik.backend.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.stereotype.Component;
+
+// Spring Boot already times Spring Data repository calls as spring.data.repository.invocations. The hand-written
+// JdbcTemplate repositories are not Spring Data proxies, so they are timed here under the same name and tag keys.
+@Aspect
+@Component
+public class JdbcRepositoryMetricsAspect {
+
+    private static final String METRIC = "spring.data.repository.invocations";
+
+    private final MeterRegistry meterRegistry;
+
+    public JdbcRepositoryMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Pointcut("within(com.oolshik.backend.repo..*)"
+            + " && @within(org.springframework.stereotype.Repository)"
+            + " && !this(org.springframework.data.repository.Repository)")
+    public void jdbcRepositoryPointcut() {}
+
+    @Pointcut("execution(public * *(..))")
+    public void publicMethodPointcut() {}
+
+    @Around("jdbcRepositoryPointcut() && publicMethodPointcut()")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String repository = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        try {
+            Object result = joinPoint.proceed();
+            sample.stop(timer(repository, method, "SUCCESS", "None"));
+            return result;
+        } catch (Throwable ex) {
+            sample.stop(timer(repository, method, "ERROR", ex.getClass().getSimpleName()));
+            throw ex;
+        }
+    }
+
+    private Timer timer(String repository, String method, String state, String exception) {
+        return meterRegistry.timer(METRIC,
+                "repository", repository,
+                "method", method,
+                "state", state,
+                "exception", exception);
+    }
+}
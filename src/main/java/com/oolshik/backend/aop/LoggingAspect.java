@@ -1,5 +1,6 @@
 package com.oolshik.backend.aop;
 
+import com.oolshik.backend.config.LoggingAspectProperties;
 import com.oolshik.backend.logging.Sensitive;
 import com.oolshik.backend.security.AuthenticatedUserPrincipal;
 import com.oolshik.backend.util.MaskingUtils;
@@ -11,7 +12,11 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
@@ -22,7 +27,11 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
 
 @Aspect
 @Component
@@ -30,8 +39,49 @@ public class LoggingAspect {
 
     private static final Logger log = LoggerFactory.getLogger(LoggingAspect.class);
 
-    // Controllers, Services, Repositories under our base package
-    @Pointcut("within(com.oolshik.backend..*)")
+    private static final Pattern PHONE = Pattern.compile("^\\+?[0-9]{10,15}$");
+    private static final Pattern OTP = Pattern.compile("^\\d{4,8}$");
+
+    private static final ClassValue<RecordComponent[]> RECORD_COMPONENTS = new ClassValue<>() {
+        @Override
+        protected RecordComponent[] computeValue(Class<?> type) {
+            return type.getRecordComponents();
+        }
+    };
+
+    // Head-based sampling: the outermost in-scope call decides for every call it makes on the same thread.
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+
+    private record MethodInfo(
+            String signature,
+            String[] parameterNames,
+            boolean[] sensitive,
+            LoggingAspectProperties.Scope scope
+    ) {}
+
+    // Rendered only if the logger actually formats the message.
+    private record LazyArguments(LoggingAspect aspect, MethodInfo method, Object[] args) {
+        @Override
+        public String toString() {
+            return aspect.sanitizeArguments(method, args);
+        }
+    }
+
+    // Copied once: the advice must never call back into another bean, or it can advise itself.
+    private final LoggingAspectProperties.Mode mode;
+    private final Set<LoggingAspectProperties.Scope> scopes;
+    private final double sampleRate;
+    private final Map<Method, MethodInfo> methods = new ConcurrentHashMap<>();
+
+    public LoggingAspect(LoggingAspectProperties properties) {
+        this.mode = properties.getMode();
+        this.scopes = Set.copyOf(properties.getScopes());
+        this.sampleRate = properties.getSampleRate();
+    }
+
+    // Controllers, Services, Repositories under our base package; config beans (including this aspect's
+    // own properties) are left unadvised.
+    @Pointcut("within(com.oolshik.backend..*) && !within(com.oolshik.backend.config..*)")
     public void applicationPackagePointcut() {}
 
     // Only public methods
@@ -40,41 +90,107 @@ public class LoggingAspect {
 
     @Around("applicationPackagePointcut() && publicMethodPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
-        String sig = joinPoint.getSignature().toShortString();
-        String args = sanitizeArguments(method, joinPoint.getArgs());
+        if (mode == LoggingAspectProperties.Mode.OFF) {
+            return joinPoint.proceed();
+        }
+        MethodInfo info = methodInfo(((MethodSignature) joinPoint.getSignature()).getMethod());
+        if (mode == LoggingAspectProperties.Mode.FULL) {
+            return invoke(joinPoint, info, log.isInfoEnabled());
+        }
+        if (!scopes.contains(info.scope())) {
+            return joinPoint.proceed();
+        }
+        Boolean inherited = SAMPLED.get();
+        boolean sampled = inherited != null
+                ? inherited
+                : ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (inherited == null) {
+            SAMPLED.set(sampled);
+        }
+        try {
+            return invoke(joinPoint, info, sampled && log.isInfoEnabled());
+        } finally {
+            if (inherited == null) {
+                SAMPLED.remove();
+            }
+        }
+    }
+
+    private Object invoke(ProceedingJoinPoint joinPoint, MethodInfo info, boolean logCall) throws Throwable {
         String cid = MDC.get("cid");
         long startNanos = System.nanoTime();
-        log.info("[{}] ▶ {} args={}", cid, sig, args);
+        if (logCall) {
+            log.info("[{}] ▶ {} args={}", cid, info.signature(), new LazyArguments(this, info, joinPoint.getArgs()));
+        }
         try {
             Object result = joinPoint.proceed();
-            long durMs = (System.nanoTime() - startNanos) / 1_000_000;
-            String resStr = (result == null) ? "null" : result.getClass().getSimpleName();
-            log.info("[{}] ◀ {} ok in {}ms -> {}", cid, sig, durMs, resStr);
+            if (logCall) {
+                long durMs = (System.nanoTime() - startNanos) / 1_000_000;
+                String resStr = (result == null) ? "null" : result.getClass().getSimpleName();
+                log.info("[{}] ◀ {} ok in {}ms -> {}", cid, info.signature(), durMs, resStr);
+            }
             return result;
         } catch (Throwable ex) {
             long durMs = (System.nanoTime() - startNanos) / 1_000_000;
-            log.error("[{}] ✖ {} failed in {}ms: {}", cid, sig, durMs, ex.toString(), ex);
+            log.error("[{}] ✖ {} failed in {}ms: {}", cid, info.signature(), durMs, ex.toString(), ex);
             throw ex;
         }
     }
 
-    private String sanitizeArguments(Method method, Object[] args) {
+    private MethodInfo methodInfo(Method method) {
+        MethodInfo info = methods.get(method);
+        if (info == null) {
+            info = methods.computeIfAbsent(method, LoggingAspect::describe);
+        }
+        return info;
+    }
+
+    private static MethodInfo describe(Method method) {
+        Parameter[] parameters = method.getParameters();
+        String[] names = new String[parameters.length];
+        boolean[] sensitive = new boolean[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            names[i] = parameters[i].getName();
+            sensitive[i] = parameters[i].isAnnotationPresent(Sensitive.class);
+        }
+        Class<?> type = method.getDeclaringClass();
+        return new MethodInfo(type.getSimpleName() + "." + method.getName() + "(..)", names, sensitive, scopeOf(type));
+    }
+
+    private static LoggingAspectProperties.Scope scopeOf(Class<?> type) {
+        if (AnnotatedElementUtils.hasAnnotation(type, Controller.class)) {
+            return LoggingAspectProperties.Scope.CONTROLLER;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(type, Service.class)) {
+            return LoggingAspectProperties.Scope.SERVICE;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(type, Repository.class)
+                || org.springframework.data.repository.Repository.class.isAssignableFrom(type)) {
+            return LoggingAspectProperties.Scope.REPOSITORY;
+        }
+        return LoggingAspectProperties.Scope.OTHER;
+    }
+
+    String renderArguments(Method method, Object[] args) {
+        return sanitizeArguments(methodInfo(method), args);
+    }
+
+    private String sanitizeArguments(MethodInfo method, Object[] args) {
         if (args == null || args.length == 0) {
             return "[]";
         }
-        Parameter[] parameters = method.getParameters();
+        String[] names = method.parameterNames();
         List<String> sanitized = new ArrayList<>(args.length);
         for (int i = 0; i < args.length; i++) {
-            Parameter parameter = i < parameters.length ? parameters[i] : null;
-            String name = parameter != null ? parameter.getName() : "arg" + i;
-            sanitized.add(name + "=" + sanitizeValue(args[i], name, parameter));
+            String name = i < names.length ? names[i] : "arg" + i;
+            boolean sensitive = i < names.length && method.sensitive()[i];
+            sanitized.add(name + "=" + sanitizeValue(args[i], name, sensitive));
         }
         return sanitized.toString();
     }
 
-    private Object sanitizeValue(Object value, String name, Parameter parameter) {
-        if (parameter != null && parameter.isAnnotationPresent(Sensitive.class)) {
+    private Object sanitizeValue(Object value, String name, boolean sensitive) {
+        if (sensitive) {
             return redactByName(name, value);
         }
         if (value == null) {
@@ -102,14 +218,14 @@ public class LoggingAspect {
             Map<String, Object> sanitized = new LinkedHashMap<>();
             for (Map.Entry<?, ?> entry : map.entrySet()) {
                 String key = String.valueOf(entry.getKey());
-                sanitized.put(key, sanitizeValue(entry.getValue(), key, null));
+                sanitized.put(key, sanitizeValue(entry.getValue(), key, false));
             }
             return sanitized;
         }
         if (value instanceof Collection<?> collection) {
             List<Object> sanitized = new ArrayList<>(collection.size());
             for (Object item : collection) {
-                sanitized.add(sanitizeValue(item, name, null));
+                sanitized.add(sanitizeValue(item, name, false));
             }
             return sanitized;
         }
@@ -117,7 +233,7 @@ public class LoggingAspect {
             int len = Array.getLength(value);
             List<Object> sanitized = new ArrayList<>(len);
             for (int i = 0; i < len; i++) {
-                sanitized.add(sanitizeValue(Array.get(value, i), name, null));
+                sanitized.add(sanitizeValue(Array.get(value, i), name, false));
             }
             return sanitized;
         }
@@ -133,13 +249,13 @@ public class LoggingAspect {
     private Object sanitizeRecord(Object value) {
         try {
             Map<String, Object> sanitized = new LinkedHashMap<>();
-            for (RecordComponent component : value.getClass().getRecordComponents()) {
+            for (RecordComponent component : RECORD_COMPONENTS.get(value.getClass())) {
                 Object componentValue = component.getAccessor().invoke(value);
                 sanitized.put(
                         component.getName(),
                         component.isAnnotationPresent(Sensitive.class)
                                 ? redactByName(component.getName(), componentValue)
-                                : sanitizeValue(componentValue, component.getName(), null)
+                                : sanitizeValue(componentValue, component.getName(), false)
                 );
             }
             return sanitized;
@@ -155,10 +271,10 @@ public class LoggingAspect {
         if (isSensitiveName(name)) {
             return redactByName(name, value);
         }
-        if (value.matches("^\\+?[0-9]{10,15}$")) {
+        if (PHONE.matcher(value).matches()) {
             return MaskingUtils.maskPhone(value);
         }
-        if (value.matches("^\\d{4,8}$")) {
+        if (OTP.matcher(value).matches()) {
             return MaskingUtils.redactOtp();
         }
         if (value.startsWith("Bearer ") || value.length() > 48) {
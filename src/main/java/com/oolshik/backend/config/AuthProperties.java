@@ -12,6 +12,8 @@ public class AuthProperties {
 
     private final Phone phone = new Phone();
     private final Google google = new Google();
+    private final TokenCache tokenCache = new TokenCache();
+    private final ResolvedUserCache resolvedUserCache = new ResolvedUserCache();
 
     public Phone getPhone() {
         return phone;
@@ -21,6 +23,14 @@ public class AuthProperties {
         return google;
     }
 
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    public ResolvedUserCache getResolvedUserCache() {
+        return resolvedUserCache;
+    }
+
     public static class Phone {
         private boolean otpEnabled = true;
 
@@ -38,6 +48,7 @@ public class AuthProperties {
         private boolean requirePhone = true;
         private boolean autoLinkByEmail = false;
         private List<String> allowedClientIds = new ArrayList<>();
+        private long publicKeysRefreshMs = 3_600_000;
 
         public boolean isEnabled() {
             return enabled;
@@ -70,5 +81,86 @@ public class AuthProperties {
         public void setAllowedClientIds(List<String> allowedClientIds) {
             this.allowedClientIds = allowedClientIds == null ? new ArrayList<>() : allowedClientIds;
         }
+
+        public long getPublicKeysRefreshMs() {
+            return publicKeysRefreshMs;
+        }
+
+        public void setPublicKeysRefreshMs(long publicKeysRefreshMs) {
+            this.publicKeysRefreshMs = publicKeysRefreshMs;
+        }
+    }
+
+    // Verified Firebase/Google ID tokens, keyed by digest. An entry never outlives the token's own expiry.
+    public static class TokenCache {
+        private boolean enabled = true;
+        private long ttlSeconds = 300;
+        // Cap applied when Firebase revocation checks are on: it bounds how long a revoked token stays usable.
+        // 0 skips the cache so every request is checked against Firebase.
+        private long checkRevokedTtlSeconds = 0;
+        private int maxEntries = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public void setTtlSeconds(long ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+
+        public long getCheckRevokedTtlSeconds() {
+            return checkRevokedTtlSeconds;
+        }
+
+        public void setCheckRevokedTtlSeconds(long checkRevokedTtlSeconds) {
+            this.checkRevokedTtlSeconds = checkRevokedTtlSeconds;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    // Principal identity -> app_user id, so repeat requests skip the firebase uid/phone/email fallbacks.
+    public static class ResolvedUserCache {
+        private boolean enabled = true;
+        private long ttlSeconds = 60;
+        private int maxEntries = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public void setTtlSeconds(long ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
     }
 }
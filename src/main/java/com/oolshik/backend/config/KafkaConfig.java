@@ -3,6 +3,7 @@ package com.oolshik.backend.config;
 import com.oolshik.backend.transcription.SttJobMessage;
 import com.oolshik.backend.transcription.SttResultMessage;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -65,6 +66,21 @@ public class KafkaConfig {
         return new KafkaTemplate<>(notificationProducerFactory);
     }
 
+    // Notification events go out as raw bytes: NotificationEventCodec output, or the UTF-8 JSON of older rows.
+    @Bean(name = "notificationEventProducerFactory")
+    public ProducerFactory<String, byte[]> notificationEventProducerFactory(KafkaProperties properties) {
+        Map<String, Object> config = new HashMap<>(properties.buildProducerProperties());
+        config.put(org.apache.kafka.clients.producer.ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(org.apache.kafka.clients.producer.ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    @Bean(name = "notificationEventKafkaTemplate")
+    public KafkaTemplate<String, byte[]> notificationEventKafkaTemplate(
+            ProducerFactory<String, byte[]> notificationEventProducerFactory) {
+        return new KafkaTemplate<>(notificationEventProducerFactory);
+    }
+
     @Bean(name = "sttProducerFactory")
     public ProducerFactory<String, SttJobMessage> sttProducerFactory(KafkaProperties properties) {
         Map<String, Object> config = new HashMap<>(properties.buildProducerProperties());
@@ -0,0 +1,31 @@
+package com.oolshik.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// FULL logs every public call under com.oolshik.backend (outside config); SAMPLED logs only the configured scopes and only for a
+// sampleRate share of head calls (failures are always logged); OFF skips the aspect entirely.
+@Component
+@ConfigurationProperties(prefix = "app.logging.aspect")
+public class LoggingAspectProperties {
+
+    public enum Mode { FULL, SAMPLED, OFF }
+
+    public enum Scope { CONTROLLER, SERVICE, REPOSITORY, OTHER }
+
+    private Mode mode = Mode.FULL;
+    private Set<Scope> scopes = EnumSet.of(Scope.CONTROLLER);
+    private double sampleRate = 0.01;
+
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode == null ? Mode.FULL : mode; }
+    public Set<Scope> getScopes() { return scopes; }
+    public void setScopes(Set<Scope> scopes) {
+        this.scopes = scopes == null || scopes.isEmpty() ? EnumSet.noneOf(Scope.class) : EnumSet.copyOf(scopes);
+    }
+    public double getSampleRate() { return sampleRate; }
+    public void setSampleRate(double sampleRate) { this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate)); }
+}
@@ -0,0 +1,23 @@
+package com.oolshik.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.nearby-index")
+public class NearbyIndexProperties {
+
+    private boolean enabled = false;
+    private int cellSizeMeters = 1000;
+    private long refreshIntervalMs = 60000;
+    private int maxCellsPerQuery = 10000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public int getCellSizeMeters() { return cellSizeMeters; }
+    public void setCellSizeMeters(int cellSizeMeters) { this.cellSizeMeters = cellSizeMeters; }
+    public long getRefreshIntervalMs() { return refreshIntervalMs; }
+    public void setRefreshIntervalMs(long refreshIntervalMs) { this.refreshIntervalMs = refreshIntervalMs; }
+    public int getMaxCellsPerQuery() { return maxCellsPerQuery; }
+    public void setMaxCellsPerQuery(int maxCellsPerQuery) { this.maxCellsPerQuery = maxCellsPerQuery; }
+}
@@ -11,6 +11,11 @@ public class NotificationProperties {
     private int outboxPublishIntervalMs = 2000;
     private int outboxBatchSize = 50;
     private int outboxMaxAttempts = 8;
+    private int outboxSendTimeoutMs = 5000;
+    private boolean outboxListenEnabled = false;
+    private int outboxFallbackPollMs = 30000;
+    private boolean cacheInvalidationEnabled = false;
+    private boolean binaryPayloadEnabled = false;
 
     public int getActiveWindowMinutes() {
         return activeWindowMinutes;
@@ -43,4 +48,44 @@ public class NotificationProperties {
     public void setOutboxMaxAttempts(int outboxMaxAttempts) {
         this.outboxMaxAttempts = outboxMaxAttempts;
     }
+
+    public int getOutboxSendTimeoutMs() {
+        return outboxSendTimeoutMs;
+    }
+
+    public void setOutboxSendTimeoutMs(int outboxSendTimeoutMs) {
+        this.outboxSendTimeoutMs = outboxSendTimeoutMs;
+    }
+
+    public boolean isOutboxListenEnabled() {
+        return outboxListenEnabled;
+    }
+
+    public void setOutboxListenEnabled(boolean outboxListenEnabled) {
+        this.outboxListenEnabled = outboxListenEnabled;
+    }
+
+    public int getOutboxFallbackPollMs() {
+        return outboxFallbackPollMs;
+    }
+
+    public void setOutboxFallbackPollMs(int outboxFallbackPollMs) {
+        this.outboxFallbackPollMs = outboxFallbackPollMs;
+    }
+
+    public boolean isCacheInvalidationEnabled() {
+        return cacheInvalidationEnabled;
+    }
+
+    public void setCacheInvalidationEnabled(boolean cacheInvalidationEnabled) {
+        this.cacheInvalidationEnabled = cacheInvalidationEnabled;
+    }
+
+    public boolean isBinaryPayloadEnabled() {
+        return binaryPayloadEnabled;
+    }
+
+    public void setBinaryPayloadEnabled(boolean binaryPayloadEnabled) {
+        this.binaryPayloadEnabled = binaryPayloadEnabled;
+    }
 }
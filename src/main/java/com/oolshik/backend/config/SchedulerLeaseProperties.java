@@ -0,0 +1,29 @@
+package com.oolshik.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.scheduler")
+public class SchedulerLeaseProperties {
+
+    private boolean leaseEnabled = false;
+    private int partitions = 8;
+    private int maxConcurrency = 4;
+    private long minLeaseSeconds = 15;
+    private long memberTtlSeconds = 120;
+    private String instanceId;
+
+    public boolean isLeaseEnabled() { return leaseEnabled; }
+    public void setLeaseEnabled(boolean leaseEnabled) { this.leaseEnabled = leaseEnabled; }
+    public int getPartitions() { return partitions; }
+    public void setPartitions(int partitions) { this.partitions = partitions; }
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+    public long getMinLeaseSeconds() { return minLeaseSeconds; }
+    public void setMinLeaseSeconds(long minLeaseSeconds) { this.minLeaseSeconds = minLeaseSeconds; }
+    public long getMemberTtlSeconds() { return memberTtlSeconds; }
+    public void setMemberTtlSeconds(long memberTtlSeconds) { this.memberTtlSeconds = memberTtlSeconds; }
+    public String getInstanceId() { return instanceId; }
+    public void setInstanceId(String instanceId) { this.instanceId = instanceId; }
+}
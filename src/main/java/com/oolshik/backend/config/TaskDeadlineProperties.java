@@ -0,0 +1,23 @@
+package com.oolshik.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.task-deadlines")
+public class TaskDeadlineProperties {
+
+    private boolean enabled = false;
+    private long tickMs = 1000;
+    private long refreshIntervalMs = 60000;
+    private long reconcileDelayMs = 600000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public long getTickMs() { return tickMs; }
+    public void setTickMs(long tickMs) { this.tickMs = tickMs; }
+    public long getRefreshIntervalMs() { return refreshIntervalMs; }
+    public void setRefreshIntervalMs(long refreshIntervalMs) { this.refreshIntervalMs = refreshIntervalMs; }
+    public long getReconcileDelayMs() { return reconcileDelayMs; }
+    public void setReconcileDelayMs(long reconcileDelayMs) { this.reconcileDelayMs = reconcileDelayMs; }
+}
@@ -16,6 +16,8 @@ public class TaskRecoveryProperties {
     private int maxReassign = 2;
     private int schedulerBatchSize = 100;
     private long schedulerDelayMs = 60000;
+    private boolean schedulerBatchMode = false;
+    private int schedulerMaxBatchesPerRun = 20;
 
     public long getAcceptToStartSlaSeconds() { return acceptToStartSlaSeconds; }
     public void setAcceptToStartSlaSeconds(long acceptToStartSlaSeconds) {
@@ -41,4 +43,10 @@ public class TaskRecoveryProperties {
     public void setSchedulerBatchSize(int schedulerBatchSize) { this.schedulerBatchSize = schedulerBatchSize; }
     public long getSchedulerDelayMs() { return schedulerDelayMs; }
     public void setSchedulerDelayMs(long schedulerDelayMs) { this.schedulerDelayMs = schedulerDelayMs; }
+    public boolean isSchedulerBatchMode() { return schedulerBatchMode; }
+    public void setSchedulerBatchMode(boolean schedulerBatchMode) { this.schedulerBatchMode = schedulerBatchMode; }
+    public int getSchedulerMaxBatchesPerRun() { return schedulerMaxBatchesPerRun; }
+    public void setSchedulerMaxBatchesPerRun(int schedulerMaxBatchesPerRun) {
+        this.schedulerMaxBatchesPerRun = schedulerMaxBatchesPerRun;
+    }
 }
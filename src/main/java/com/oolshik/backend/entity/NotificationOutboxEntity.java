@@ -23,9 +23,13 @@ public class NotificationOutboxEntity {
     @Column(name = "aggregate_id", nullable = false)
     private UUID aggregateId;
 
-    @Column(name = "payload_json", nullable = false, columnDefinition = "TEXT")
+    // Exactly one of payload_json (legacy / binary disabled) and payload_bin (NotificationEventCodec) is set.
+    @Column(name = "payload_json", columnDefinition = "TEXT")
     private String payloadJson;
 
+    @Column(name = "payload_bin")
+    private byte[] payloadBin;
+
     @Column(nullable = false)
     private String status;
 
@@ -98,6 +102,14 @@ public class NotificationOutboxEntity {
         this.payloadJson = payloadJson;
     }
 
+    public byte[] getPayloadBin() {
+        return payloadBin;
+    }
+
+    public void setPayloadBin(byte[] payloadBin) {
+        this.payloadBin = payloadBin;
+    }
+
     public String getStatus() {
         return status;
     }
@@ -36,6 +36,10 @@ public class UserEntity {
     @Column(name = "preferred_language", nullable = false, length = 16)
     private String preferredLanguage;
 
+    // Bumped only through UserRepository.bumpTokenEpoch, so a stale entity save cannot undo a revocation.
+    @Column(name = "token_epoch", nullable = false, insertable = false, updatable = false)
+    private int tokenEpoch;
+
     @Column(nullable = false)
     private OffsetDateTime createdAt;
 
@@ -77,6 +81,7 @@ public class UserEntity {
     public String getRoles() { return roles; }
     public String getLanguages() { return languages; }
     public String getPreferredLanguage() { return preferredLanguage; }
+    public int getTokenEpoch() { return tokenEpoch; }
     public OffsetDateTime getCreatedAt() { return createdAt; }
     public OffsetDateTime getUpdatedAt() { return updatedAt; }
     public void setId(UUID id) { this.id = id; }
@@ -88,6 +93,7 @@ public class UserEntity {
     public void setRoles(String roles) { this.roles = roles; }
     public void setLanguages(String languages) { this.languages = languages; }
     public void setPreferredLanguage(String preferredLanguage) { this.preferredLanguage = preferredLanguage; }
+    public void setTokenEpoch(int tokenEpoch) { this.tokenEpoch = tokenEpoch; }
     public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
     public void setUpdatedAt(OffsetDateTime updatedAt) { this.updatedAt = updatedAt; }
 
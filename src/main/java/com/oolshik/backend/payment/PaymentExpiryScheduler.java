@@ -1,23 +1,36 @@
 package com.oolshik.backend.payment;
 
+import com.oolshik.backend.service.SchedulerLeaseService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 public class PaymentExpiryScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(PaymentExpiryScheduler.class);
     private final PaymentRequestService paymentRequestService;
+    private final SchedulerLeaseService leaseService;
+    private final Duration sweepInterval;
 
-    public PaymentExpiryScheduler(PaymentRequestService paymentRequestService) {
+    public PaymentExpiryScheduler(
+            PaymentRequestService paymentRequestService,
+            SchedulerLeaseService leaseService,
+            @Value("${app.payment.expirySweepIntervalMs:60000}") long sweepIntervalMs
+    ) {
         this.paymentRequestService = paymentRequestService;
+        this.leaseService = leaseService;
+        this.sweepInterval = Duration.ofMillis(sweepIntervalMs);
     }
 
     @Scheduled(fixedDelayString = "${app.payment.expirySweepIntervalMs:60000}")
     public void expirePayments() {
-        int expired = paymentRequestService.expireActiveRequests(50);
+        int expired = leaseService.runExclusive("payment-expiry", sweepInterval,
+                slice -> paymentRequestService.expireActiveRequests(50));
         if (expired > 0) {
             log.info("payment expiry sweep expired={}", expired);
         }
@@ -6,22 +6,89 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface HelpRequestCandidateRepository extends JpaRepository<HelpRequestCandidateEntity, UUID> {
 
-    @Modifying
+    // Seeds candidate and audience rows for every eligible helper in one statement and returns all eligible ids,
+    // including helpers that were already seeded.
     @Query(value = """
-        INSERT INTO help_request_candidate (id, help_request_id, helper_user_id, state, created_at, updated_at)
-        VALUES (:id, :helpRequestId, :helperUserId, :state, now(), now())
-        ON CONFLICT (help_request_id, helper_user_id) DO NOTHING
+        WITH eligible AS (
+          SELECT hl.helper_id
+            FROM helper_location hl
+            JOIN help_request h ON h.id = :helpRequestId
+           WHERE hl.last_seen_at >= :freshness
+             AND ST_DWithin(hl.location, h.location, :radius)
+             AND hl.helper_id <> h.requester_id
+             AND (h.helper_id IS NULL OR hl.helper_id <> h.helper_id)
+        ),
+        candidates AS (
+          INSERT INTO help_request_candidate (id, help_request_id, helper_user_id, state, created_at, updated_at)
+          SELECT gen_random_uuid(), :helpRequestId, e.helper_id, :state, now(), now()
+            FROM eligible e
+          ON CONFLICT (help_request_id, helper_user_id) DO NOTHING
+        ),
+        audience AS (
+          INSERT INTO help_request_notification_audience (id, help_request_id, user_id, notified_for, radius_meters, created_at)
+          SELECT gen_random_uuid(), :helpRequestId, e.helper_id, :notifiedFor, :radiusMeters, now()
+            FROM eligible e
+          ON CONFLICT (help_request_id, user_id, notified_for, radius_meters) DO NOTHING
+        )
+        SELECT e.helper_id
+          FROM eligible e
         """, nativeQuery = true)
-    int insertIgnore(
-            @Param("id") UUID id,
+    List<UUID> seedEligibleHelpers(
             @Param("helpRequestId") UUID helpRequestId,
-            @Param("helperUserId") UUID helperUserId,
-            @Param("state") String state
+            @Param("radius") double radius,
+            @Param("freshness") OffsetDateTime freshness,
+            @Param("state") String state,
+            @Param("notifiedFor") String notifiedFor,
+            @Param("radiusMeters") Integer radiusMeters
+    );
+
+    @Query(value = """
+        WITH eligible AS (
+          SELECT hl.helper_id
+            FROM helper_location hl
+            JOIN help_request h ON h.id = :helpRequestId
+           WHERE hl.last_seen_at >= :freshness
+             AND ST_DWithin(hl.location, h.location, :newRadius)
+             AND (:oldRadius IS NULL OR NOT ST_DWithin(hl.location, h.location, :oldRadius))
+             AND hl.helper_id <> h.requester_id
+             AND (h.helper_id IS NULL OR hl.helper_id <> h.helper_id)
+             AND NOT EXISTS (
+               SELECT 1
+                 FROM help_request_notification_audience a
+                WHERE a.help_request_id = h.id
+                  AND a.user_id = hl.helper_id
+                  AND a.notified_for IN ('TASK_CREATED', 'TASK_RADIUS_EXPANDED')
+             )
+        ),
+        candidates AS (
+          INSERT INTO help_request_candidate (id, help_request_id, helper_user_id, state, created_at, updated_at)
+          SELECT gen_random_uuid(), :helpRequestId, e.helper_id, :state, now(), now()
+            FROM eligible e
+          ON CONFLICT (help_request_id, helper_user_id) DO NOTHING
+        ),
+        audience AS (
+          INSERT INTO help_request_notification_audience (id, help_request_id, user_id, notified_for, radius_meters, created_at)
+          SELECT gen_random_uuid(), :helpRequestId, e.helper_id, :notifiedFor, :radiusMeters, now()
+            FROM eligible e
+          ON CONFLICT (help_request_id, user_id, notified_for, radius_meters) DO NOTHING
+        )
+        SELECT e.helper_id
+          FROM eligible e
+        """, nativeQuery = true)
+    List<UUID> seedNewlyEligibleHelpers(
+            @Param("helpRequestId") UUID helpRequestId,
+            @Param("newRadius") double newRadius,
+            @Param("oldRadius") Double oldRadius,
+            @Param("freshness") OffsetDateTime freshness,
+            @Param("state") String state,
+            @Param("notifiedFor") String notifiedFor,
+            @Param("radiusMeters") Integer radiusMeters
     );
 
     @Query(value = """
@@ -10,9 +10,9 @@ public interface HelpRequestRatingRepository extends JpaRepository<HelpRequestRa
 
     @org.springframework.data.jpa.repository.Query(
             value = """
-                SELECT AVG(r.rating_value)::numeric(3,2)
-                FROM help_request_rating r
-                WHERE r.target_user_id = :targetUserId
+                SELECT s.avg_rating
+                FROM user_rating_summary s
+                WHERE s.user_id = :targetUserId
                 """,
             nativeQuery = true
     )
@@ -31,4 +31,26 @@ public interface HelpRequestRatingRepository extends JpaRepository<HelpRequestRa
             @org.springframework.data.repository.query.Param("requestId") UUID requestId,
             @org.springframework.data.repository.query.Param("raterUserId") UUID raterUserId
     );
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(
+            value = """
+                INSERT INTO user_rating_summary (user_id, rating_sum, rating_count, avg_rating, updated_at)
+                VALUES (:targetUserId, :ratingValue, 1, CAST(:ratingValue AS numeric(3,2)), now())
+                ON CONFLICT (user_id) DO UPDATE
+                SET rating_sum = user_rating_summary.rating_sum + EXCLUDED.rating_sum,
+                    rating_count = user_rating_summary.rating_count + 1,
+                    avg_rating = CAST(
+                        (user_rating_summary.rating_sum + EXCLUDED.rating_sum)
+                            / (user_rating_summary.rating_count + 1)
+                        AS numeric(3,2)
+                    ),
+                    updated_at = now()
+                """,
+            nativeQuery = true
+    )
+    int incrementUserRatingSummary(
+            @org.springframework.data.repository.query.Param("targetUserId") UUID targetUserId,
+            @org.springframework.data.repository.query.Param("ratingValue") java.math.BigDecimal ratingValue
+    );
 }
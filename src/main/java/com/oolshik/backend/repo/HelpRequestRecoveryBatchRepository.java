@@ -0,0 +1,324 @@
+package com.oolshik.backend.repo;
+
+import com.oolshik.backend.entity.HelpRequestEventEntity;
+import com.oolshik.backend.entity.NotificationOutboxEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class HelpRequestRecoveryBatchRepository {
+
+    private static final String CLAIM_COLUMNS = """
+            SELECT
+              h.id,
+              h.requester_id,
+              h.helper_id,
+              h.pending_helper_id,
+              h.radius_meters,
+              h.radius_stage,
+              ST_Y(h.location::geometry) AS latitude,
+              ST_X(h.location::geometry) AS longitude,
+              h.created_at,
+              h.offer_amount,
+              h.offer_currency
+            FROM help_request h
+            """;
+
+    // Stable hash partition of the request id; partitionCount = 1 matches every row.
+    private static final String PARTITION_PREDICATE = """
+              AND (:partitionCount <= 1
+                   OR (hashtext(h.id::text) & 2147483647) % :partitionCount = :partitionIndex)
+            """;
+
+    private static final RowMapper<ClaimedRequest> CLAIM_MAPPER = (rs, rowNum) -> new ClaimedRequest(
+            rs.getObject("id", UUID.class),
+            rs.getObject("requester_id", UUID.class),
+            rs.getObject("helper_id", UUID.class),
+            rs.getObject("pending_helper_id", UUID.class),
+            rs.getInt("radius_meters"),
+            rs.getObject("radius_stage", Integer.class),
+            rs.getObject("latitude", Double.class),
+            rs.getObject("longitude", Double.class),
+            rs.getObject("created_at", OffsetDateTime.class),
+            rs.getBigDecimal("offer_amount"),
+            rs.getString("offer_currency")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public HelpRequestRecoveryBatchRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    public record ClaimedRequest(
+            UUID id,
+            UUID requesterId,
+            UUID helperId,
+            UUID pendingHelperId,
+            int radiusMeters,
+            Integer radiusStage,
+            Double latitude,
+            Double longitude,
+            OffsetDateTime createdAt,
+            BigDecimal offerAmount,
+            String offerCurrency
+    ) {}
+
+    public List<ClaimedRequest> claimExpiredAssignments(OffsetDateTime now, int limit, int partitionIndex, int partitionCount) {
+        return claim("""
+                WHERE h.status = 'ASSIGNED'
+                  AND h.assignment_expires_at IS NOT NULL
+                  AND h.assignment_expires_at <= :now
+                """, "h.assignment_expires_at", now, limit, partitionIndex, partitionCount);
+    }
+
+    public List<ClaimedRequest> claimExpiredPendingAuth(OffsetDateTime now, int limit, int partitionIndex, int partitionCount) {
+        return claim("""
+                WHERE h.status = 'PENDING_AUTH'
+                  AND h.pending_auth_expires_at IS NOT NULL
+                  AND h.pending_auth_expires_at <= :now
+                """, "h.pending_auth_expires_at", now, limit, partitionIndex, partitionCount);
+    }
+
+    public List<ClaimedRequest> claimReminder50Candidates(OffsetDateTime threshold, int limit, int partitionIndex, int partitionCount) {
+        return claim("""
+                WHERE h.status = 'WORK_DONE_PENDING_CONFIRMATION'
+                  AND h.work_done_at IS NOT NULL
+                  AND h.reminder_50_sent = false
+                  AND h.completion_confirmation_expires_at IS NOT NULL
+                  AND h.work_done_at <= :now
+                """, "h.work_done_at", threshold, limit, partitionIndex, partitionCount);
+    }
+
+    public List<ClaimedRequest> claimReminder80Candidates(OffsetDateTime threshold, int limit, int partitionIndex, int partitionCount) {
+        return claim("""
+                WHERE h.status = 'WORK_DONE_PENDING_CONFIRMATION'
+                  AND h.work_done_at IS NOT NULL
+                  AND h.reminder_80_sent = false
+                  AND h.completion_confirmation_expires_at IS NOT NULL
+                  AND h.work_done_at <= :now
+                """, "h.work_done_at", threshold, limit, partitionIndex, partitionCount);
+    }
+
+    public List<ClaimedRequest> claimExpiredCompletionConfirmations(OffsetDateTime now, int limit, int partitionIndex, int partitionCount) {
+        return claim("""
+                WHERE h.status = 'WORK_DONE_PENDING_CONFIRMATION'
+                  AND h.completion_confirmation_expires_at IS NOT NULL
+                  AND h.completion_confirmation_expires_at <= :now
+                """, "h.completion_confirmation_expires_at", now, limit, partitionIndex, partitionCount);
+    }
+
+    public List<UUID> autoReleaseAll(Collection<UUID> ids, OffsetDateTime now, OffsetDateTime nextEscalationAt, String stateReason) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.queryForList("""
+                UPDATE help_request h
+                   SET status = 'OPEN',
+                       helper_id = NULL,
+                       helper_accept_location = NULL,
+                       helper_accepted_at = NULL,
+                       assignment_expires_at = NULL,
+                       accepted_at = NULL,
+                       authorized_at = NULL,
+                       authorized_by = NULL,
+                       reassigned_count = COALESCE(h.reassigned_count, 0) + 1,
+                       next_escalation_at = :nextEscalationAt,
+                       last_state_change_at = :now,
+                       last_state_change_reason = :stateReason,
+                       updated_at = :now
+                 WHERE h.id IN (:ids)
+                   AND h.status = 'ASSIGNED'
+                   AND h.assignment_expires_at IS NOT NULL
+                   AND h.assignment_expires_at <= :now
+                RETURNING h.id
+                """, transitionParams(ids, now, nextEscalationAt, stateReason), UUID.class);
+    }
+
+    public List<UUID> authTimeoutAll(Collection<UUID> ids, OffsetDateTime now, OffsetDateTime nextEscalationAt, String stateReason) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.queryForList("""
+                UPDATE help_request h
+                   SET status = 'OPEN',
+                       helper_id = NULL,
+                       pending_helper_id = NULL,
+                       pending_auth_expires_at = NULL,
+                       helper_accept_location = NULL,
+                       helper_accepted_at = NULL,
+                       assignment_expires_at = NULL,
+                       accepted_at = NULL,
+                       authorized_at = NULL,
+                       authorized_by = NULL,
+                       auth_timeout_count = COALESCE(h.auth_timeout_count, 0) + 1,
+                       next_escalation_at = :nextEscalationAt,
+                       last_state_change_at = :now,
+                       last_state_change_reason = :stateReason,
+                       updated_at = :now
+                 WHERE h.id IN (:ids)
+                   AND h.status = 'PENDING_AUTH'
+                   AND h.pending_auth_expires_at IS NOT NULL
+                   AND h.pending_auth_expires_at <= :now
+                RETURNING h.id
+                """, transitionParams(ids, now, nextEscalationAt, stateReason), UUID.class);
+    }
+
+    public List<UUID> markReminder50SentAll(Collection<UUID> ids, OffsetDateTime now) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.queryForList("""
+                UPDATE help_request h
+                   SET reminder_50_sent = true,
+                       updated_at = :now
+                 WHERE h.id IN (:ids)
+                   AND h.status = 'WORK_DONE_PENDING_CONFIRMATION'
+                   AND h.reminder_50_sent = false
+                RETURNING h.id
+                """, transitionParams(ids, now, null, null), UUID.class);
+    }
+
+    public List<UUID> markReminder80SentAll(Collection<UUID> ids, OffsetDateTime now) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.queryForList("""
+                UPDATE help_request h
+                   SET reminder_80_sent = true,
+                       updated_at = :now
+                 WHERE h.id IN (:ids)
+                   AND h.status = 'WORK_DONE_PENDING_CONFIRMATION'
+                   AND h.reminder_80_sent = false
+                RETURNING h.id
+                """, transitionParams(ids, now, null, null), UUID.class);
+    }
+
+    public List<UUID> autoCompleteAll(Collection<UUID> ids, OffsetDateTime now, String completionMode, String stateReason) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = transitionParams(ids, now, null, stateReason)
+                .addValue("completionMode", completionMode, Types.VARCHAR);
+        return namedJdbcTemplate.queryForList("""
+                UPDATE help_request h
+                   SET status = 'COMPLETED',
+                       completed_at = :now,
+                       completion_mode = :completionMode,
+                       completed_by = NULL,
+                       completion_confirmation_expires_at = NULL,
+                       last_state_change_at = :now,
+                       last_state_change_reason = :stateReason,
+                       updated_at = :now
+                 WHERE h.id IN (:ids)
+                   AND h.status = 'WORK_DONE_PENDING_CONFIRMATION'
+                   AND h.completion_confirmation_expires_at IS NOT NULL
+                   AND h.completion_confirmation_expires_at <= :now
+                RETURNING h.id
+                """, params, UUID.class);
+    }
+
+    public void insertEvents(List<HelpRequestEventEntity> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(events.size());
+        for (HelpRequestEventEntity e : events) {
+            args.add(new Object[] {
+                    e.getId(),
+                    e.getRequestId(),
+                    e.getEventType().name(),
+                    e.getActorUserId(),
+                    e.getActorRole().name(),
+                    e.getReasonCode(),
+                    e.getReasonText(),
+                    e.getCreatedAt(),
+                    e.getMetadata()
+            });
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO help_request_event
+                  (id, request_id, event_type, actor_user_id, actor_role, reason_code, reason_text, created_at, metadata)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb))
+                """, args, new int[] {
+                Types.OTHER, Types.OTHER, Types.VARCHAR, Types.OTHER, Types.VARCHAR,
+                Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP_WITH_TIMEZONE, Types.VARCHAR
+        });
+    }
+
+    public void insertOutbox(List<NotificationOutboxEntity> rows, OffsetDateTime now) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (NotificationOutboxEntity o : rows) {
+            args.add(new Object[] {
+                    o.getId(),
+                    o.getEventType(),
+                    o.getAggregateId(),
+                    o.getPayloadJson(),
+                    o.getPayloadBin(),
+                    o.getStatus(),
+                    o.getAttemptCount(),
+                    o.getNextAttemptAt(),
+                    now,
+                    now
+            });
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO notification_outbox
+                  (id, event_type, aggregate_id, payload_json, payload_bin, status, attempt_count, next_attempt_at, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, args, new int[] {
+                Types.OTHER, Types.VARCHAR, Types.OTHER, Types.VARCHAR, Types.BINARY, Types.VARCHAR,
+                Types.INTEGER, Types.TIMESTAMP_WITH_TIMEZONE, Types.TIMESTAMP_WITH_TIMEZONE, Types.TIMESTAMP_WITH_TIMEZONE
+        });
+    }
+
+    private List<ClaimedRequest> claim(
+            String predicate,
+            String orderBy,
+            OffsetDateTime now,
+            int limit,
+            int partitionIndex,
+            int partitionCount
+    ) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("now", now, Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("limit", limit)
+                .addValue("partitionIndex", partitionIndex)
+                .addValue("partitionCount", partitionCount);
+        return namedJdbcTemplate.query(
+                CLAIM_COLUMNS + predicate + PARTITION_PREDICATE
+                        + "ORDER BY " + orderBy + "\nLIMIT :limit\nFOR UPDATE OF h SKIP LOCKED",
+                params,
+                CLAIM_MAPPER
+        );
+    }
+
+    private MapSqlParameterSource transitionParams(
+            Collection<UUID> ids,
+            OffsetDateTime now,
+            OffsetDateTime nextEscalationAt,
+            String stateReason
+    ) {
+        return new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("now", now, Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("nextEscalationAt", nextEscalationAt, Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("stateReason", stateReason, Types.VARCHAR);
+    }
+}
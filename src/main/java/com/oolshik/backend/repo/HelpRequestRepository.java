@@ -19,11 +19,6 @@ public interface HelpRequestRepository extends JpaRepository<HelpRequestEntity,
 
   @Query(
           value = """
-        WITH user_avg AS (
-          SELECT target_user_id, AVG(rating_value)::numeric(3,2) AS avg_rating
-          FROM help_request_rating
-          GROUP BY target_user_id
-        )
         SELECT
           h.id,
           h.title,
@@ -55,31 +50,11 @@ public interface HelpRequestRepository extends JpaRepository<HelpRequestEntity,
           h.offer_currency                 AS offerCurrency,
           h.offer_updated_at               AS offerUpdatedAt,
           h.voice_url                      AS voiceUrl,
-          COALESCE((
-            SELECT r.rating_value
-            FROM help_request_rating r
-            WHERE r.request_id = h.id
-              AND r.rater_user_id = h.requester_id
-          ), (
-            SELECT r.rating_value
-            FROM help_request_rating r
-            WHERE r.request_id = h.id
-              AND r.rater_user_id = h.helper_id
-          ))                               AS ratingValue,
+          COALESCE(rt.rating_by_requester, rt.rating_by_helper) AS ratingValue,
           ha.avg_rating                    AS helperAvgRating,
           ra.avg_rating                    AS requesterAvgRating,
-          (
-            SELECT r.rating_value
-            FROM help_request_rating r
-            WHERE r.request_id = h.id
-              AND r.rater_user_id = h.requester_id
-          )                                AS ratingByRequester,
-          (
-            SELECT r.rating_value
-            FROM help_request_rating r
-            WHERE r.request_id = h.id
-              AND r.rater_user_id = h.helper_id
-          )                                AS ratingByHelper,
+          rt.rating_by_requester           AS ratingByRequester,
+          rt.rating_by_helper              AS ratingByHelper,
           ST_Distance(
             h.location,
             ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography
@@ -87,8 +62,15 @@ public interface HelpRequestRepository extends JpaRepository<HelpRequestEntity,
         FROM help_request h
         JOIN app_user u ON u.id = h.requester_id
         LEFT JOIN app_user hu ON hu.id = COALESCE(h.helper_id, h.pending_helper_id)
-        LEFT JOIN user_avg ha ON ha.target_user_id = COALESCE(h.helper_id, h.pending_helper_id)
-        LEFT JOIN user_avg ra ON ra.target_user_id = h.requester_id
+        LEFT JOIN LATERAL (
+          SELECT
+            MAX(r.rating_value) FILTER (WHERE r.rater_user_id = h.requester_id) AS rating_by_requester,
+            MAX(r.rating_value) FILTER (WHERE r.rater_user_id = h.helper_id)    AS rating_by_helper
+          FROM help_request_rating r
+          WHERE r.request_id = h.id
+        ) rt ON TRUE
+        LEFT JOIN user_rating_summary ha ON ha.user_id = COALESCE(h.helper_id, h.pending_helper_id)
+        LEFT JOIN user_rating_summary ra ON ra.user_id = h.requester_id
         WHERE
           (COALESCE(:statusesCsv, '') = '' OR h.status::text = ANY(string_to_array(:statusesCsv, ',')))
           AND ST_DWithin(
@@ -121,6 +103,228 @@ public interface HelpRequestRepository extends JpaRepository<HelpRequestEntity,
           Pageable pageable
   );
 
+  @Query(
+          value = """
+        WITH page AS (
+          SELECT c.id, c.created_at, c.distance_mtr
+          FROM (
+            SELECT
+              h.id,
+              h.created_at,
+              ST_Distance(
+                h.location,
+                ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography,
+                false
+              ) AS distance_mtr
+            FROM help_request h
+            WHERE
+              (COALESCE(:statusesCsv, '') = '' OR h.status::text = ANY(string_to_array(:statusesCsv, ',')))
+              AND ST_DWithin(
+                h.location,
+                ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography,
+                :radiusMeters,
+                false
+              )
+          ) c
+          WHERE
+            c.distance_mtr > :afterDistance
+            OR (
+              c.distance_mtr = :afterDistance
+              AND (
+                c.created_at < :afterCreatedAt
+                OR (c.created_at = :afterCreatedAt AND c.id < :afterId)
+              )
+            )
+          ORDER BY c.distance_mtr ASC, c.created_at DESC, c.id DESC
+          LIMIT :limit
+        )
+        SELECT
+          h.id,
+          h.title,
+          h.description,
+          ST_Y(h.location::geometry)       AS latitude,
+          ST_X(h.location::geometry)       AS longitude,
+          h.radius_meters                  AS radiusMeters,
+          h.status,
+          h.requester_id                   AS requesterId,
+          u.display_name                   AS createdByName,
+          u.phone_number                   AS createdByPhoneNumber,
+          hu.phone_number                  AS helperPhoneNumber,
+          h.helper_id                      AS helperId,
+          h.pending_helper_id              AS pendingHelperId,
+          h.created_at                     AS createdAt,
+          h.updated_at                     AS UpdatedAt,
+          h.helper_accepted_at             AS helperAcceptedAt,
+          h.assignment_expires_at          AS assignmentExpiresAt,
+          h.pending_auth_expires_at        AS pendingAuthExpiresAt,
+          h.cancelled_at                   AS cancelledAt,
+          h.work_done_at                   AS workDoneAt,
+          h.completion_confirmation_expires_at AS completionConfirmationExpiresAt,
+          h.reassigned_count               AS reassignedCount,
+          h.released_count                 AS releasedCount,
+          h.radius_stage                   AS radiusStage,
+          h.next_escalation_at             AS nextEscalationAt,
+          h.completion_mode                AS completionMode,
+          h.offer_amount                   AS offerAmount,
+          h.offer_currency                 AS offerCurrency,
+          h.offer_updated_at               AS offerUpdatedAt,
+          h.voice_url                      AS voiceUrl,
+          COALESCE(rt.rating_by_requester, rt.rating_by_helper) AS ratingValue,
+          ha.avg_rating                    AS helperAvgRating,
+          ra.avg_rating                    AS requesterAvgRating,
+          rt.rating_by_requester           AS ratingByRequester,
+          rt.rating_by_helper              AS ratingByHelper,
+          p.distance_mtr                   AS distanceMtr
+        FROM page p
+        JOIN help_request h ON h.id = p.id
+        JOIN app_user u ON u.id = h.requester_id
+        LEFT JOIN app_user hu ON hu.id = COALESCE(h.helper_id, h.pending_helper_id)
+        LEFT JOIN LATERAL (
+          SELECT
+            MAX(r.rating_value) FILTER (WHERE r.rater_user_id = h.requester_id) AS rating_by_requester,
+            MAX(r.rating_value) FILTER (WHERE r.rater_user_id = h.helper_id)    AS rating_by_helper
+          FROM help_request_rating r
+          WHERE r.request_id = h.id
+        ) rt ON TRUE
+        LEFT JOIN user_rating_summary ha ON ha.user_id = COALESCE(h.helper_id, h.pending_helper_id)
+        LEFT JOIN user_rating_summary ra ON ra.user_id = h.requester_id
+        ORDER BY
+          p.distance_mtr ASC,
+          p.created_at DESC,
+          p.id DESC
+        """,
+          nativeQuery = true
+  )
+  List<HelpRequestRow> findNearbyAfter(
+          @Param("lat") double lat,
+          @Param("lng") double lng,
+          @Param("radiusMeters") int radiusMeters,
+          @Param("statusesCsv") String statusesCsv,
+          @Param("afterDistance") double afterDistance,
+          @Param("afterCreatedAt") OffsetDateTime afterCreatedAt,
+          @Param("afterId") UUID afterId,
+          @Param("limit") int limit
+  );
+
+  @Query(
+          value = """
+        SELECT
+          h.id,
+          h.title,
+          h.description,
+          ST_Y(h.location::geometry)       AS latitude,
+          ST_X(h.location::geometry)       AS longitude,
+          h.radius_meters                  AS radiusMeters,
+          h.status,
+          h.requester_id                   AS requesterId,
+          u.display_name                   AS createdByName,
+          u.phone_number                   AS createdByPhoneNumber,
+          hu.phone_number                  AS helperPhoneNumber,
+          h.helper_id                      AS helperId,
+          h.pending_helper_id              AS pendingHelperId,
+          h.created_at                     AS createdAt,
+          h.updated_at                     AS UpdatedAt,
+          h.helper_accepted_at             AS helperAcceptedAt,
+          h.assignment_expires_at          AS assignmentExpiresAt,
+          h.pending_auth_expires_at        AS pendingAuthExpiresAt,
+          h.cancelled_at                   AS cancelledAt,
+          h.work_done_at                   AS workDoneAt,
+          h.completion_confirmation_expires_at AS completionConfirmationExpiresAt,
+          h.reassigned_count               AS reassignedCount,
+          h.released_count                 AS releasedCount,
+          h.radius_stage                   AS radiusStage,
+          h.next_escalation_at             AS nextEscalationAt,
+          h.completion_mode                AS completionMode,
+          h.offer_amount                   AS offerAmount,
+          h.offer_currency                 AS offerCurrency,
+          h.offer_updated_at               AS offerUpdatedAt,
+          h.voice_url                      AS voiceUrl,
+          COALESCE(rt.rating_by_requester, rt.rating_by_helper) AS ratingValue,
+          ha.avg_rating                    AS helperAvgRating,
+          ra.avg_rating                    AS requesterAvgRating,
+          rt.rating_by_requester           AS ratingByRequester,
+          rt.rating_by_helper              AS ratingByHelper,
+          ST_Distance(
+            h.location,
+            ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography,
+            false
+          )                                AS distanceMtr
+        FROM help_request h
+        JOIN app_user u ON u.id = h.requester_id
+        LEFT JOIN app_user hu ON hu.id = COALESCE(h.helper_id, h.pending_helper_id)
+        LEFT JOIN LATERAL (
+          SELECT
+            MAX(r.rating_value) FILTER (WHERE r.rater_user_id = h.requester_id) AS rating_by_requester,
+            MAX(r.rating_value) FILTER (WHERE r.rater_user_id = h.helper_id)    AS rating_by_helper
+          FROM help_request_rating r
+          WHERE r.request_id = h.id
+        ) rt ON TRUE
+        LEFT JOIN user_rating_summary ha ON ha.user_id = COALESCE(h.helper_id, h.pending_helper_id)
+        LEFT JOIN user_rating_summary ra ON ra.user_id = h.requester_id
+        WHERE h.id IN (:ids)
+          AND h.status = 'OPEN'
+        """,
+          nativeQuery = true
+  )
+  List<HelpRequestRow> findOpenRowsByIds(
+          @Param("lat") double lat,
+          @Param("lng") double lng,
+          @Param("ids") Collection<UUID> ids
+  );
+
+  @Query(
+          value = """
+        SELECT
+          h.id                             AS id,
+          ST_Y(h.location::geometry)       AS latitude,
+          ST_X(h.location::geometry)       AS longitude,
+          h.created_at                     AS createdAt
+        FROM help_request h
+        WHERE h.status = 'OPEN'
+        """,
+          nativeQuery = true
+  )
+  List<OpenRequestLocationRow> findOpenRequestLocations();
+
+  @Query(
+          value = """
+        SELECT
+          h.id                                 AS id,
+          h.status                             AS status,
+          h.assignment_expires_at              AS assignmentExpiresAt,
+          h.pending_auth_expires_at            AS pendingAuthExpiresAt,
+          h.work_done_at                       AS workDoneAt,
+          h.reminder_50_sent                   AS reminder50Sent,
+          h.reminder_80_sent                   AS reminder80Sent,
+          h.completion_confirmation_expires_at AS completionConfirmationExpiresAt
+        FROM help_request h
+        WHERE h.status IN ('PENDING_AUTH', 'ASSIGNED', 'WORK_DONE_PENDING_CONFIRMATION')
+        """,
+          nativeQuery = true
+  )
+  List<PendingDeadlineRow> findPendingDeadlines();
+
+  // Rows whose deadlines changed since the watermark; every transition that sets a deadline also stamps
+  // last_state_change_at.
+  @Query(
+          value = """
+        SELECT
+          h.id                                 AS id,
+          h.status                             AS status,
+          h.assignment_expires_at              AS assignmentExpiresAt,
+          h.pending_auth_expires_at            AS pendingAuthExpiresAt,
+          h.work_done_at                       AS workDoneAt,
+          h.reminder_50_sent                   AS reminder50Sent,
+          h.reminder_80_sent                   AS reminder80Sent,
+          h.completion_confirmation_expires_at AS completionConfirmationExpiresAt
+        FROM help_request h
+        WHERE h.status IN ('PENDING_AUTH', 'ASSIGNED', 'WORK_DONE_PENDING_CONFIRMATION')
+          AND h.last_state_change_at > :since
+        """,
+          nativeQuery = true
+  )
+  List<PendingDeadlineRow> findPendingDeadlinesChangedSince(@Param("since") OffsetDateTime since);
+
   @Query(
           value = """
         SELECT COUNT(*)
@@ -178,42 +382,23 @@ public interface HelpRequestRepository extends JpaRepository<HelpRequestEntity,
         h.offer_currency                 AS offerCurrency,
         h.offer_updated_at               AS offerUpdatedAt,
         h.voice_url                      AS voiceUrl,
-        COALESCE((
-          SELECT r.rating_value
-          FROM help_request_rating r
-          WHERE r.request_id = h.id
-            AND r.rater_user_id = h.requester_id
-        ), (
-          SELECT r.rating_value
-          FROM help_request_rating r
-          WHERE r.request_id = h.id
-            AND r.rater_user_id = h.helper_id
-        ))                               AS ratingValue,
-        (
-          SELECT AVG(r.rating_value)::numeric(3,2)
-          FROM help_request_rating r
-          WHERE r.target_user_id = COALESCE(h.helper_id, h.pending_helper_id)
-        )                                AS helperAvgRating,
-        (
-          SELECT AVG(r.rating_value)::numeric(3,2)
-          FROM help_request_rating r
-          WHERE r.target_user_id = h.requester_id
-        )                                AS requesterAvgRating,
-        (
-          SELECT r.rating_value
-          FROM help_request_rating r
-          WHERE r.request_id = h.id
-            AND r.rater_user_id = h.requester_id
-        )                                AS ratingByRequester,
-        (
-          SELECT r.rating_value
-          FROM help_request_rating r
-          WHERE r.request_id = h.id
-            AND r.rater_user_id = h.helper_id
-        )                                AS ratingByHelper
+        COALESCE(rt.rating_by_requester, rt.rating_by_helper) AS ratingValue,
+        ha.avg_rating                    AS helperAvgRating,
+        ra.avg_rating                    AS requesterAvgRating,
+        rt.rating_by_requester           AS ratingByRequester,
+        rt.rating_by_helper              AS ratingByHelper
       FROM help_request h
       JOIN app_user u ON u.id = h.requester_id
       LEFT JOIN app_user hu ON hu.id = COALESCE(h.helper_id, h.pending_helper_id)
+      LEFT JOIN LATERAL (
+        SELECT
+          MAX(r.rating_value) FILTER (WHERE r.rater_user_id = h.requester_id) AS rating_by_requester,
+          MAX(r.rating_value) FILTER (WHERE r.rater_user_id = h.helper_id)    AS rating_by_helper
+        FROM help_request_rating r
+        WHERE r.request_id = h.id
+      ) rt ON TRUE
+      LEFT JOIN user_rating_summary ha ON ha.user_id = COALESCE(h.helper_id, h.pending_helper_id)
+      LEFT JOIN user_rating_summary ra ON ra.user_id = h.requester_id
       WHERE h.id = :taskId
     """,
           nativeQuery = true
@@ -666,17 +851,22 @@ public interface HelpRequestRepository extends JpaRepository<HelpRequestEntity,
           @Param("status") HelpRequestStatus status
   );
 
-  @Query("""
-      select h.id
-        from HelpRequestEntity h
-       where h.status = :status
-         and h.nextEscalationAt is not null
-         and h.nextEscalationAt <= :now
-      """)
+  @Query(value = """
+      SELECT h.id
+        FROM help_request h
+       WHERE h.status = 'OPEN'
+         AND h.next_escalation_at IS NOT NULL
+         AND h.next_escalation_at <= :now
+         AND (:partitionCount <= 1
+              OR (hashtext(h.id::text) & 2147483647) % :partitionCount = :partitionIndex)
+       ORDER BY h.next_escalation_at
+       LIMIT :limit
+      """, nativeQuery = true)
   List<UUID> findRadiusEscalationCandidates(
-          @Param("status") com.oolshik.backend.domain.HelpRequestStatus status,
           @Param("now") OffsetDateTime now,
-          Pageable pageable
+          @Param("partitionIndex") int partitionIndex,
+          @Param("partitionCount") int partitionCount,
+          @Param("limit") int limit
   );
 
   @Query("""
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +18,8 @@ public interface NotificationOutboxRepository extends JpaRepository<Notification
           FROM notification_outbox
          WHERE status IN (:statuses)
            AND next_attempt_at <= :now
+           AND (:partitionCount <= 1
+                OR (hashtext(aggregate_id::text) & 2147483647) % :partitionCount = :partitionIndex)
          ORDER BY created_at
          FOR UPDATE SKIP LOCKED
          LIMIT :limit
@@ -24,25 +27,56 @@ public interface NotificationOutboxRepository extends JpaRepository<Notification
     List<NotificationOutboxEntity> lockNextBatch(
             @Param("statuses") List<String> statuses,
             @Param("now") OffsetDateTime now,
-            @Param("limit") int limit
+            @Param("limit") int limit,
+            @Param("partitionIndex") int partitionIndex,
+            @Param("partitionCount") int partitionCount
     );
 
     @Modifying
-    @Query("""
-        update NotificationOutboxEntity o
-           set o.status = :status,
-               o.attemptCount = :attemptCount,
-               o.nextAttemptAt = :nextAttemptAt,
-               o.lastError = :lastError,
-               o.updatedAt = :updatedAt
-         where o.id = :id
-        """)
-    int updateStatus(
-            @Param("id") UUID id,
-            @Param("status") String status,
-            @Param("attemptCount") int attemptCount,
-            @Param("nextAttemptAt") OffsetDateTime nextAttemptAt,
+    @Query(value = """
+        UPDATE notification_outbox
+           SET status = 'PUBLISHED',
+               attempt_count = attempt_count + 1,
+               next_attempt_at = :now,
+               last_error = NULL,
+               updated_at = :now
+         WHERE id IN (:ids)
+        """, nativeQuery = true)
+    int markPublished(
+            @Param("ids") Collection<UUID> ids,
+            @Param("now") OffsetDateTime now
+    );
+
+    // Backoff mirrors the per-row schedule: min(60, 2^attempt) seconds.
+    @Modifying
+    @Query(value = """
+        UPDATE notification_outbox
+           SET status = 'FAILED',
+               attempt_count = attempt_count + 1,
+               next_attempt_at = :now + make_interval(secs => LEAST(60, GREATEST(1, power(2, attempt_count + 1)))),
+               last_error = :lastError,
+               updated_at = :now
+         WHERE id IN (:ids)
+        """, nativeQuery = true)
+    int markFailed(
+            @Param("ids") Collection<UUID> ids,
+            @Param("lastError") String lastError,
+            @Param("now") OffsetDateTime now
+    );
+
+    @Modifying
+    @Query(value = """
+        UPDATE notification_outbox
+           SET status = 'DEAD',
+               attempt_count = attempt_count + 1,
+               next_attempt_at = :now,
+               last_error = :lastError,
+               updated_at = :now
+         WHERE id IN (:ids)
+        """, nativeQuery = true)
+    int markDead(
+            @Param("ids") Collection<UUID> ids,
             @Param("lastError") String lastError,
-            @Param("updatedAt") OffsetDateTime updatedAt
+            @Param("now") OffsetDateTime now
     );
 }
@@ -0,0 +1,11 @@
+package com.oolshik.backend.repo;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface OpenRequestLocationRow {
+    UUID getId();
+    Double getLatitude();
+    Double getLongitude();
+    Instant getCreatedAt();
+}
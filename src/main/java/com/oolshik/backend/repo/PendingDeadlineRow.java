@@ -0,0 +1,15 @@
+package com.oolshik.backend.repo;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface PendingDeadlineRow {
+    UUID getId();
+    String getStatus();
+    Instant getAssignmentExpiresAt();
+    Instant getPendingAuthExpiresAt();
+    Instant getWorkDoneAt();
+    Boolean getReminder50Sent();
+    Boolean getReminder80Sent();
+    Instant getCompletionConfirmationExpiresAt();
+}
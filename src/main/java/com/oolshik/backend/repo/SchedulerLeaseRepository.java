@@ -0,0 +1,106 @@
+package com.oolshik.backend.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+// Lease timestamps use the database clock so replicas with skewed clocks agree on expiry.
+@Repository
+public class SchedulerLeaseRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public SchedulerLeaseRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    public void heartbeat(String ownerId) {
+        jdbcTemplate.update("""
+                INSERT INTO scheduler_member (owner_id, heartbeat_at)
+                VALUES (?, now())
+                ON CONFLICT (owner_id) DO UPDATE SET heartbeat_at = now()
+                """, ownerId);
+    }
+
+    public int countLiveMembers(long memberTtlSeconds) {
+        Integer count = jdbcTemplate.queryForObject("""
+                SELECT count(*)
+                  FROM scheduler_member
+                 WHERE heartbeat_at > now() - make_interval(secs => CAST(? AS double precision))
+                """, Integer.class, memberTtlSeconds);
+        return count == null ? 0 : count;
+    }
+
+    public List<Integer> renewOwned(String jobName, String ownerId, int partitions, long leaseSeconds) {
+        return namedJdbcTemplate.queryForList("""
+                UPDATE scheduler_lease
+                   SET lease_until = now() + make_interval(secs => CAST(:leaseSeconds AS double precision)),
+                       updated_at = now()
+                 WHERE job_name = :jobName
+                   AND owner_id = :ownerId
+                   AND partition_no < :partitions
+                RETURNING partition_no
+                """, params(jobName, ownerId, partitions, leaseSeconds), Integer.class);
+    }
+
+    public List<Integer> acquireFree(String jobName, String ownerId, int partitions, long leaseSeconds, int wanted) {
+        if (wanted <= 0) {
+            return List.of();
+        }
+        MapSqlParameterSource params = params(jobName, ownerId, partitions, leaseSeconds)
+                .addValue("wanted", wanted);
+        return namedJdbcTemplate.queryForList("""
+                INSERT INTO scheduler_lease (job_name, partition_no, owner_id, lease_until, updated_at)
+                SELECT :jobName, p, :ownerId,
+                       now() + make_interval(secs => CAST(:leaseSeconds AS double precision)), now()
+                  FROM generate_series(0, :partitions - 1) AS p
+                 WHERE NOT EXISTS (
+                         SELECT 1
+                           FROM scheduler_lease l
+                          WHERE l.job_name = :jobName
+                            AND l.partition_no = p
+                            AND l.lease_until > now()
+                       )
+                 ORDER BY random()
+                 LIMIT :wanted
+                ON CONFLICT (job_name, partition_no) DO UPDATE
+                   SET owner_id = EXCLUDED.owner_id,
+                       lease_until = EXCLUDED.lease_until,
+                       updated_at = now()
+                 WHERE scheduler_lease.lease_until <= now()
+                RETURNING partition_no
+                """, params, Integer.class);
+    }
+
+    public void release(String jobName, String ownerId, Collection<Integer> partitionNos) {
+        if (partitionNos.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("jobName", jobName)
+                .addValue("ownerId", ownerId)
+                .addValue("partitionNos", partitionNos);
+        namedJdbcTemplate.update("""
+                UPDATE scheduler_lease
+                   SET lease_until = now(),
+                       updated_at = now()
+                 WHERE job_name = :jobName
+                   AND owner_id = :ownerId
+                   AND partition_no IN (:partitionNos)
+                """, params);
+    }
+
+    private static MapSqlParameterSource params(String jobName, String ownerId, int partitions, long leaseSeconds) {
+        return new MapSqlParameterSource()
+                .addValue("jobName", jobName)
+                .addValue("ownerId", ownerId)
+                .addValue("partitions", partitions)
+                .addValue("leaseSeconds", leaseSeconds);
+    }
+}
@@ -4,13 +4,23 @@ import com.oolshik.backend.entity.UserEntity;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
+
+    interface TokenEpochRow {
+        UUID getId();
+        int getTokenEpoch();
+        Instant getTokenEpochChangedAt();
+    }
+
     Optional<UserEntity> findByFirebaseUid(String firebaseUid);
     Optional<UserEntity> findByPhoneNumber(String phoneNumber);
     Optional<UserEntity> findByEmail(String email);
@@ -24,4 +34,27 @@ public interface UserRepository extends JpaRepository<UserEntity, UUID> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select u from UserEntity u where u.id = :id")
     Optional<UserEntity> findByIdForUpdate(@Param("id") UUID id);
+
+    // Invalidates every access and refresh token issued to the user so far.
+    @Modifying
+    @Query(value = """
+        UPDATE app_user
+           SET token_epoch = token_epoch + 1,
+               token_epoch_changed_at = now()
+         WHERE id = :userId
+        """, nativeQuery = true)
+    int bumpTokenEpoch(@Param("userId") UUID userId);
+
+    @Query(value = "SELECT token_epoch FROM app_user WHERE id = :userId", nativeQuery = true)
+    Optional<Integer> findTokenEpoch(@Param("userId") UUID userId);
+
+    @Query(value = """
+        SELECT id,
+               token_epoch AS tokenEpoch,
+               token_epoch_changed_at AS tokenEpochChangedAt
+          FROM app_user
+         WHERE token_epoch_changed_at > :since
+         ORDER BY token_epoch_changed_at
+        """, nativeQuery = true)
+    List<TokenEpochRow> findTokenEpochsChangedSince(@Param("since") Instant since);
 }
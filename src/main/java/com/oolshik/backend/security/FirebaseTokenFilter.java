@@ -3,6 +3,7 @@ package com.oolshik.backend.security;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.FirebaseToken;
+import com.oolshik.backend.config.AuthProperties;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,6 +16,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -25,11 +27,24 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
     private final FirebaseAuth firebaseAuth;
     private final String projectId;
     private final boolean checkRevoked;
-
-    public FirebaseTokenFilter(FirebaseAuth firebaseAuth, String projectId, boolean checkRevoked) {
+    // With check-revoked on, entries live at most checkRevokedTtlSeconds (default 0: no caching), trading a
+    // Firebase round trip per request for revocations that take effect immediately.
+    private final VerifiedTokenCache<VerifiedIdentity> tokenCache;
+
+    private record VerifiedIdentity(AuthenticatedUserPrincipal principal, Collection<SimpleGrantedAuthority> authorities) {}
+
+    public FirebaseTokenFilter(
+            FirebaseAuth firebaseAuth,
+            String projectId,
+            boolean checkRevoked,
+            AuthProperties.TokenCache tokenCacheProperties
+    ) {
         this.firebaseAuth = Objects.requireNonNull(firebaseAuth);
         this.projectId = Objects.requireNonNull(projectId);
         this.checkRevoked = checkRevoked;
+        this.tokenCache = new VerifiedTokenCache<>(tokenCacheProperties, checkRevoked
+                ? Math.min(tokenCacheProperties.getTtlSeconds(), tokenCacheProperties.getCheckRevokedTtlSeconds())
+                : tokenCacheProperties.getTtlSeconds());
     }
 
     @Override
@@ -49,29 +64,35 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
 
         String idToken = auth.substring(7).trim();
         try {
-            FirebaseToken decoded = checkRevoked
-                    ? firebaseAuth.verifyIdToken(idToken, true)
-                    : firebaseAuth.verifyIdToken(idToken);
-
-            String expectedIss = "https://securetoken.google.com/" + projectId;
-            if (!expectedIss.equals(decoded.getIssuer())) {
-                unauthorized(res, "invalid_issuer");
-                return;
-            }
-            Object aud = decoded.getClaims().get("aud");
-            if (aud == null || !projectId.equals(aud.toString())) {
-                unauthorized(res, "invalid_audience");
-                return;
+            VerifiedIdentity identity = tokenCache.get(idToken);
+            if (identity == null) {
+                FirebaseToken decoded = checkRevoked
+                        ? firebaseAuth.verifyIdToken(idToken, true)
+                        : firebaseAuth.verifyIdToken(idToken);
+
+                String expectedIss = "https://securetoken.google.com/" + projectId;
+                if (!expectedIss.equals(decoded.getIssuer())) {
+                    unauthorized(res, "invalid_issuer");
+                    return;
+                }
+                Object aud = decoded.getClaims().get("aud");
+                if (aud == null || !projectId.equals(aud.toString())) {
+                    unauthorized(res, "invalid_audience");
+                    return;
+                }
+
+                String uid = decoded.getUid();
+                String phone = (String) decoded.getClaims().get("phone_number");
+                String email = decoded.getEmail();
+
+                identity = new VerifiedIdentity(
+                        new AuthenticatedUserPrincipal("firebase", uid, phone, email, null),
+                        extractAuthorities(decoded)
+                );
+                tokenCache.put(idToken, identity, expiresAt(decoded));
             }
 
-            String uid = decoded.getUid();
-            String phone = (String) decoded.getClaims().get("phone_number");
-            String email = decoded.getEmail();
-
-            Collection<SimpleGrantedAuthority> authorities = extractAuthorities(decoded);
-
-            AuthenticatedUserPrincipal principal = new AuthenticatedUserPrincipal("firebase", uid, phone, email, null);
-            var authToken = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+            var authToken = new UsernamePasswordAuthenticationToken(identity.principal(), null, identity.authorities());
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
             SecurityContextHolder.getContext().setAuthentication(authToken);
             chain.doFilter(req, res);
@@ -105,6 +126,11 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
         res.getWriter().write("{\"ok\":false,\"error\":\"" + code + "\"}");
     }
 
+    private static Instant expiresAt(FirebaseToken token) {
+        Object exp = token.getClaims().get("exp");
+        return exp instanceof Number seconds ? Instant.ofEpochSecond(seconds.longValue()) : null;
+    }
+
     @SuppressWarnings("unchecked")
     private Collection<SimpleGrantedAuthority> extractAuthorities(FirebaseToken token) {
         Object roles = token.getClaims().get("roles"); // if you add custom claims later
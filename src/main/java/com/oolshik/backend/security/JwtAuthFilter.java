@@ -7,11 +7,15 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import com.oolshik.backend.repo.UserRepository;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -19,10 +23,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final TokenRevocationRegistry revocations;
 
-    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository) {
+    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository, TokenRevocationRegistry revocations) {
         this.jwtService = jwtService;
         this.userRepository = userRepository;
+        this.revocations = revocations;
     }
 
     @Override
@@ -36,22 +42,35 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 Claims c = jws.getBody();
                 String tokenType = c.get("typ", String.class);
                 if ("access".equals(tokenType) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    var userId = java.util.UUID.fromString(c.getSubject());
-                    userRepository.findById(userId).ifPresent(user -> {
-                        var authorities = user.getRoleSet().stream()
-                                .map(role -> new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_" + role.name()))
-                                .collect(Collectors.toList());
-                        var principal = new AuthenticatedUserPrincipal(
-                                "local",
-                                null,
-                                user.getPhoneNumber(),
-                                user.getEmail(),
-                                user.getId()
-                        );
-                        var auth = new UsernamePasswordAuthenticationToken(principal, null, authorities);
-                        auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(auth);
-                    });
+                    var userId = UUID.fromString(c.getSubject());
+                    int epoch = JwtService.tokenEpoch(c);
+                    List<String> roles = JwtService.roles(c);
+                    if (roles != null && revocations.isLoaded()) {
+                        if (!revocations.isRevoked(userId, epoch)) {
+                            var principal = new AuthenticatedUserPrincipal(
+                                    "local",
+                                    null,
+                                    c.get("phone", String.class),
+                                    c.get("email", String.class),
+                                    userId
+                            );
+                            authenticate(request, principal, roles);
+                        }
+                    } else {
+                        // Tokens issued before roles were embedded, or revocations not loaded yet.
+                        userRepository.findById(userId)
+                                .filter(user -> epoch >= user.getTokenEpoch())
+                                .ifPresent(user -> {
+                                    var principal = new AuthenticatedUserPrincipal(
+                                            "local",
+                                            null,
+                                            user.getPhoneNumber(),
+                                            user.getEmail(),
+                                            user.getId()
+                                    );
+                                    authenticate(request, principal, user.getRoleSet().stream().map(Enum::name).toList());
+                                });
+                    }
                 }
             } catch (Exception ignored) {
                 SecurityContextHolder.clearContext();
@@ -59,4 +78,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         chain.doFilter(request, response);
     }
+
+    private void authenticate(HttpServletRequest request, AuthenticatedUserPrincipal principal, Collection<String> roles) {
+        var authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .collect(Collectors.toList());
+        var auth = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
 }
@@ -1,5 +1,6 @@
 package com.oolshik.backend.security;
 
+import com.oolshik.backend.entity.UserEntity;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,12 +9,15 @@ import java.security.Key;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 @Service
 public class JwtService {
 
+    public static final String ROLES_CLAIM = "roles";
+    public static final String EPOCH_CLAIM = "ver";
+
     private final Key key;
     private final long accessTtlMinutes;
     private final long refreshTtlDays;
@@ -28,15 +32,24 @@ public class JwtService {
         this.refreshTtlDays = refreshTtlDays;
     }
 
-    public String generateAccessToken(UUID userId, String phone) {
+    // Roles, contact details and the user's token epoch travel in the token so requests authenticate without
+    // reading app_user; TokenRevocationRegistry rejects tokens minted before the epoch was last bumped.
+    public String generateAccessToken(UserEntity user) {
         Instant now = Instant.now();
         Map<String, Object> claims = new HashMap<>();
         claims.put("typ", "access");
+        claims.put(EPOCH_CLAIM, user.getTokenEpoch());
+        claims.put(ROLES_CLAIM, user.getRoleSet().stream().map(Enum::name).sorted().toList());
+        String phone = user.getPhoneNumber();
         if (phone != null && !phone.isBlank()) {
             claims.put("phone", phone);
         }
+        String email = user.getEmail();
+        if (email != null && !email.isBlank()) {
+            claims.put("email", email);
+        }
         return Jwts.builder()
-                .setSubject(userId.toString())
+                .setSubject(user.getId().toString())
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusSeconds(accessTtlMinutes * 60)))
                 .addClaims(claims)
@@ -44,13 +57,13 @@ public class JwtService {
                 .compact();
     }
 
-    public String generateRefreshToken(UUID userId) {
+    public String generateRefreshToken(UserEntity user) {
         Instant now = Instant.now();
         return Jwts.builder()
-                .setSubject(userId.toString())
+                .setSubject(user.getId().toString())
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusSeconds(refreshTtlDays * 86400)))
-                .addClaims(Map.of("typ", "refresh"))
+                .addClaims(Map.of("typ", "refresh", EPOCH_CLAIM, user.getTokenEpoch()))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -58,4 +71,16 @@ public class JwtService {
     public Jws<Claims> parse(String token) {
         return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
     }
+
+    // Tokens issued before epochs existed count as epoch 0.
+    public static int tokenEpoch(Claims claims) {
+        Integer epoch = claims.get(EPOCH_CLAIM, Integer.class);
+        return epoch == null ? 0 : epoch;
+    }
+
+    // Null for tokens issued before roles were embedded.
+    public static List<String> roles(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        return roles == null ? null : roles.stream().map(String::valueOf).toList();
+    }
 }
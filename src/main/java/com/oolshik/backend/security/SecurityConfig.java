@@ -4,6 +4,7 @@ import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.auth.FirebaseAuth;
+import com.oolshik.backend.config.AuthProperties;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -30,6 +31,10 @@ public class SecurityConfig {
     @Value("${firebase.check-revoked:false}")
     private boolean checkRevoked;
 
+    // Lets Prometheus scrape without a bearer token; only enable where /actuator is not reachable publicly.
+    @Value("${app.metrics.prometheusPublic:false}")
+    private boolean prometheusPublic;
+
     @Bean
     @Conditional(FirebaseIdentityCondition.class)
     public FirebaseAuth firebaseAuth() throws IOException {
@@ -44,8 +49,8 @@ public class SecurityConfig {
 
     @Bean
     @Conditional(FirebaseIdentityCondition.class)
-    public FirebaseTokenFilter firebaseTokenFilter(FirebaseAuth firebaseAuth) {
-        return new FirebaseTokenFilter(firebaseAuth, firebaseProjectId, checkRevoked);
+    public FirebaseTokenFilter firebaseTokenFilter(FirebaseAuth firebaseAuth, AuthProperties authProperties) {
+        return new FirebaseTokenFilter(firebaseAuth, firebaseProjectId, checkRevoked, authProperties.getTokenCache());
     }
 
     @Bean
@@ -64,21 +69,24 @@ public class SecurityConfig {
                         .accessDeniedHandler((request, response, accessDeniedException) ->
                                 response.sendError(HttpStatus.FORBIDDEN.value(), "Forbidden"))
                 )
-                .authorizeHttpRequests(reg -> reg
-                        .requestMatchers(
-                                "/actuator/health/**",
-                                "/swagger/**",
-                                "/v3/api-docs/**",
-                                "/api/public/**",
-                                "/api/auth/echo",
-                                "/api/auth/otp/**",
-                                "/api/auth/google",
-                                "/api/auth/login",
-                                "/api/auth/refresh",
-                                "/error"
-                        ).permitAll()
-                        .anyRequest().authenticated()
-                )
+                .authorizeHttpRequests(reg -> {
+                    if (prometheusPublic) {
+                        reg.requestMatchers("/actuator/prometheus").permitAll();
+                    }
+                    reg.requestMatchers(
+                                    "/actuator/health/**",
+                                    "/swagger/**",
+                                    "/v3/api-docs/**",
+                                    "/api/public/**",
+                                    "/api/auth/echo",
+                                    "/api/auth/otp/**",
+                                    "/api/auth/google",
+                                    "/api/auth/login",
+                                    "/api/auth/refresh",
+                                    "/error"
+                            ).permitAll()
+                            .anyRequest().authenticated();
+                })
                 .cors(Customizer.withDefaults());
 
         FirebaseTokenFilter firebaseTokenFilter = firebaseTokenFilterProvider.getIfAvailable();
@@ -0,0 +1,108 @@
+package com.oolshik.backend.security;
+
+import com.oolshik.backend.repo.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory copy of the lowest accepted token epoch per user, so JwtAuthFilter can reject revoked tokens
+// without touching app_user. Only revocations younger than the access token TTL are held: any access token
+// issued before an older revocation has already expired. Other instances pick up a revocation on their next
+// refresh, so it takes effect everywhere within app.jwt.revocationRefreshMs.
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    // now() is the transaction start time, so a slow revoking transaction can commit a row older than the
+    // watermark; re-reading a short overlap catches it.
+    private static final long WATERMARK_OVERLAP_SECONDS = 60;
+
+    private record Revocation(int minEpoch, Instant changedAt) {
+        private Revocation merge(Revocation other) {
+            return new Revocation(
+                    Math.max(minEpoch, other.minEpoch),
+                    changedAt.isAfter(other.changedAt) ? changedAt : other.changedAt
+            );
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final Duration retention;
+    private final Map<UUID, Revocation> revocations = new ConcurrentHashMap<>();
+    private volatile Instant watermark;
+    private volatile boolean loaded;
+
+    public TokenRevocationRegistry(
+            UserRepository userRepository,
+            @Value("${app.jwt.accessTokenTtlMinutes}") long accessTtlMinutes
+    ) {
+        this.userRepository = userRepository;
+        this.retention = Duration.ofMinutes(accessTtlMinutes).plusSeconds(WATERMARK_OVERLAP_SECONDS);
+    }
+
+    // Until the first refresh succeeds the filter falls back to reading the user row.
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean isRevoked(UUID userId, int tokenEpoch) {
+        Revocation revocation = revocations.get(userId);
+        return revocation != null && tokenEpoch < revocation.minEpoch();
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocationRefreshMs:30000}")
+    public void refresh() {
+        Instant horizon = Instant.now().minus(retention);
+        Instant current = watermark;
+        Instant since = current == null || current.minusSeconds(WATERMARK_OVERLAP_SECONDS).isBefore(horizon)
+                ? horizon
+                : current.minusSeconds(WATERMARK_OVERLAP_SECONDS);
+        try {
+            Instant latest = current;
+            for (UserRepository.TokenEpochRow row : userRepository.findTokenEpochsChangedSince(since)) {
+                Instant changedAt = row.getTokenEpochChangedAt();
+                revocations.merge(row.getId(), new Revocation(row.getTokenEpoch(), changedAt), Revocation::merge);
+                if (latest == null || changedAt.isAfter(latest)) {
+                    latest = changedAt;
+                }
+            }
+            watermark = latest;
+            loaded = true;
+        } catch (RuntimeException ex) {
+            log.warn("token revocation refresh failed: {}", ex.toString());
+        }
+        revocations.values().removeIf(revocation -> revocation.changedAt().isBefore(horizon));
+    }
+
+    // Invalidates every token issued to the user so far; they must sign in again.
+    @Transactional
+    public void revoke(UUID userId) {
+        if (userRepository.bumpTokenEpoch(userId) == 0) {
+            return;
+        }
+        int epoch = userRepository.findTokenEpoch(userId).orElse(0);
+        Runnable apply = () -> revocations.merge(userId, new Revocation(epoch, Instant.now()), Revocation::merge);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+}
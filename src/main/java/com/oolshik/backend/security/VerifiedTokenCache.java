@@ -0,0 +1,87 @@
+package com.oolshik.backend.security;
+
+import com.oolshik.backend.config.AuthProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU of tokens that already passed signature (and revocation) checks, so each token is verified once.
+// Keys are SHA-256 digests, so raw bearer tokens are never retained. An entry expires at the earlier of the
+// token's own exp and the configured TTL; failed verifications are never cached.
+public class VerifiedTokenCache<T> {
+
+    private record Entry<T>(T value, long expiresAtMillis) {}
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final Map<String, Entry<T>> entries;
+
+    public VerifiedTokenCache(AuthProperties.TokenCache properties) {
+        this(properties, properties.getTtlSeconds());
+    }
+
+    public VerifiedTokenCache(AuthProperties.TokenCache properties, long ttlSeconds) {
+        this.enabled = properties.isEnabled() && properties.getMaxEntries() > 0 && ttlSeconds > 0;
+        this.ttlMillis = ttlSeconds * 1000L;
+        int maxEntries = Math.max(1, properties.getMaxEntries());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public T get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        String key = digest(token);
+        synchronized (entries) {
+            Entry<T> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    public void put(String token, T value, Instant tokenExpiresAt) {
+        if (!enabled || tokenExpiresAt == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(tokenExpiresAt.toEpochMilli(), now + ttlMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        String key = digest(token);
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, expiresAt));
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
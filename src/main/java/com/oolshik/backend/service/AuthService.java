@@ -4,6 +4,7 @@ import com.oolshik.backend.domain.Role;
 import com.oolshik.backend.entity.UserEntity;
 import com.oolshik.backend.repo.UserRepository;
 import com.oolshik.backend.security.JwtService;
+import com.oolshik.backend.security.TokenRevocationRegistry;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.DependsOn;
@@ -25,11 +26,18 @@ public class AuthService implements UserDetailsService {
     private final UserRepository userRepository;
     private final PasswordEncoder encoder;
     private final JwtService jwtService;
+    private final TokenRevocationRegistry revocations;
 
-    public AuthService(UserRepository userRepository, PasswordEncoder encoder, JwtService jwtService) {
+    public AuthService(
+            UserRepository userRepository,
+            PasswordEncoder encoder,
+            JwtService jwtService,
+            TokenRevocationRegistry revocations
+    ) {
         this.userRepository = userRepository;
         this.encoder = encoder;
         this.jwtService = jwtService;
+        this.revocations = revocations;
     }
 
     @Value("${ADMIN_EMAIL:}")
@@ -80,8 +88,8 @@ public class AuthService implements UserDetailsService {
         if (ue.getPasswordHash() == null || !encoder.matches(password, ue.getPasswordHash())) {
             throw new IllegalArgumentException("Invalid credentials");
         }
-        String access = jwtService.generateAccessToken(ue.getId(), ue.getPhoneNumber());
-        String refresh = jwtService.generateRefreshToken(ue.getId());
+        String access = jwtService.generateAccessToken(ue);
+        String refresh = jwtService.generateRefreshToken(ue);
         return Map.of("userId", ue.getId(), "accessToken", access, "refreshToken", refresh);
     }
 
@@ -91,6 +99,11 @@ public class AuthService implements UserDetailsService {
         if (!"refresh".equals(typ)) throw new IllegalArgumentException("Not a refresh token");
         UUID userId = UUID.fromString(jws.getBody().getSubject());
         UserEntity ue = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User missing"));
-        return jwtService.generateAccessToken(ue.getId(), ue.getPhoneNumber());
+        if (JwtService.tokenEpoch(jws.getBody()) < ue.getTokenEpoch()) throw new IllegalArgumentException("Refresh token revoked");
+        return jwtService.generateAccessToken(ue);
+    }
+
+    public void revokeTokens(UUID userId) {
+        revocations.revoke(userId);
     }
 }
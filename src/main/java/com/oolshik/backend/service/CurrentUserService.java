@@ -1,17 +1,46 @@
 package com.oolshik.backend.service;
 
+import com.oolshik.backend.config.AuthProperties;
 import com.oolshik.backend.entity.UserEntity;
 import com.oolshik.backend.repo.UserRepository;
 import com.oolshik.backend.security.AuthenticatedUserPrincipal;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+// Resolved users are kept for the current request, and the principal -> user id mapping for a short TTL across
+// requests, so a typical call does a single findById. Only ids are shared between requests, never entities.
+// UserService and profile updates evict a user's mappings; other instances rely on the TTL.
 @Service
 public class CurrentUserService {
 
+    private static final String REQUEST_CACHE_ATTRIBUTE = CurrentUserService.class.getName() + ".resolved";
+
+    private record CachedId(UUID userId, long expiresAtNanos) {}
+
     private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<String, CachedId> userIds;
 
-    public CurrentUserService(UserRepository userRepository) {
+    public CurrentUserService(UserRepository userRepository, AuthProperties authProperties) {
         this.userRepository = userRepository;
+        AuthProperties.ResolvedUserCache cache = authProperties.getResolvedUserCache();
+        this.enabled = cache.isEnabled() && cache.getMaxEntries() > 0 && cache.getTtlSeconds() > 0;
+        this.ttlNanos = Math.max(1, cache.getTtlSeconds()) * 1_000_000_000L;
+        int maxEntries = Math.max(1, cache.getMaxEntries());
+        this.userIds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedId> eldest) {
+                return size() > maxEntries;
+            }
+        };
     }
 
     public UserEntity require(AuthenticatedUserPrincipal principal) {
@@ -24,6 +53,46 @@ public class CurrentUserService {
 
     public UserEntity resolve(AuthenticatedUserPrincipal principal) {
         if (principal == null) return null;
+        String key = identityKey(principal);
+        Map<String, UserEntity> resolved = requestCache();
+        if (resolved != null) {
+            UserEntity user = resolved.get(key);
+            if (user != null) return user;
+        }
+        UserEntity user = lookup(principal, key);
+        if (user != null && resolved != null) {
+            resolved.put(key, user);
+        }
+        return user;
+    }
+
+    // Drops every cached mapping to the user; call after changing the user's firebase uid, phone or email.
+    public void evict(UUID userId) {
+        if (userId == null) return;
+        synchronized (userIds) {
+            userIds.values().removeIf(cached -> userId.equals(cached.userId()));
+        }
+        Map<String, UserEntity> resolved = requestCache();
+        if (resolved != null) {
+            resolved.values().removeIf(user -> userId.equals(user.getId()));
+        }
+    }
+
+    private UserEntity lookup(AuthenticatedUserPrincipal principal, String key) {
+        UUID cachedId = cachedUserId(key);
+        if (cachedId != null) {
+            var byCachedId = userRepository.findById(cachedId);
+            if (byCachedId.isPresent()) return byCachedId.get();
+            evict(cachedId);
+        }
+        UserEntity user = findUser(principal);
+        if (user != null && principal.userId() == null) {
+            remember(key, user.getId());
+        }
+        return user;
+    }
+
+    private UserEntity findUser(AuthenticatedUserPrincipal principal) {
         if (principal.userId() != null) {
             var byId = userRepository.findById(principal.userId());
             if (byId.isPresent()) return byId.get();
@@ -41,4 +110,45 @@ public class CurrentUserService {
         }
         return null;
     }
+
+    private UUID cachedUserId(String key) {
+        if (!enabled) return null;
+        synchronized (userIds) {
+            CachedId cached = userIds.get(key);
+            if (cached == null) return null;
+            if (cached.expiresAtNanos() - System.nanoTime() <= 0) {
+                userIds.remove(key);
+                return null;
+            }
+            return cached.userId();
+        }
+    }
+
+    private void remember(String key, UUID userId) {
+        if (!enabled || userId == null) return;
+        synchronized (userIds) {
+            userIds.put(key, new CachedId(userId, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, UserEntity> requestCache() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return null;
+        Object cache = attributes.getAttribute(REQUEST_CACHE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cache == null) {
+            cache = new HashMap<String, UserEntity>();
+            attributes.setAttribute(REQUEST_CACHE_ATTRIBUTE, cache, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<String, UserEntity>) cache;
+    }
+
+    private static String identityKey(AuthenticatedUserPrincipal principal) {
+        return String.join("|",
+                Objects.toString(principal.identityProvider(), ""),
+                Objects.toString(principal.providerUserId(), ""),
+                Objects.toString(principal.phone(), ""),
+                Objects.toString(principal.email(), ""),
+                Objects.toString(principal.userId(), ""));
+    }
 }
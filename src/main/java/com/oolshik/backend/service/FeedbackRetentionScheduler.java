@@ -15,16 +15,18 @@ public class FeedbackRetentionScheduler {
     private static final Logger log = LoggerFactory.getLogger(FeedbackRetentionScheduler.class);
 
     private final FeedbackEventRepository feedbackRepo;
+    private final SchedulerMetrics metrics;
 
-    public FeedbackRetentionScheduler(FeedbackEventRepository feedbackRepo) {
+    public FeedbackRetentionScheduler(FeedbackEventRepository feedbackRepo, SchedulerMetrics metrics) {
         this.feedbackRepo = feedbackRepo;
+        this.metrics = metrics;
     }
 
     @Scheduled(fixedDelayString = "${app.feedback.retentionPurgeIntervalMs:86400000}")
     @Transactional
     public void purgeExpired() {
         OffsetDateTime cutoff = OffsetDateTime.now();
-        int deleted = feedbackRepo.deleteExpired(cutoff);
+        int deleted = metrics.record("feedback-retention", () -> feedbackRepo.deleteExpired(cutoff));
         if (deleted > 0) {
             log.info("feedback.retention.purge deleted={}", deleted);
         }
@@ -54,8 +54,8 @@ public class GoogleAuthService {
                 .map(identity -> attachExisting(identity, claims, phoneHint))
                 .orElseGet(() -> createLinkOrReject(claims, phoneHint));
 
-        String accessToken = jwtService.generateAccessToken(user.getId(), user.getPhoneNumber());
-        String refreshToken = jwtService.generateRefreshToken(user.getId());
+        String accessToken = jwtService.generateAccessToken(user);
+        String refreshToken = jwtService.generateRefreshToken(user);
         return new TokenResponse(accessToken, refreshToken);
     }
 
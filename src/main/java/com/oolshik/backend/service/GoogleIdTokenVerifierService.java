@@ -2,13 +2,19 @@ package com.oolshik.backend.service;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.oolshik.backend.config.AuthProperties;
+import com.oolshik.backend.security.VerifiedTokenCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
@@ -18,9 +24,14 @@ import java.util.stream.Collectors;
 @Service
 public class GoogleIdTokenVerifierService {
 
+    private static final Logger log = LoggerFactory.getLogger(GoogleIdTokenVerifierService.class);
+
     private static final Set<String> VALID_ISSUERS = Set.of("https://accounts.google.com", "accounts.google.com");
 
+    // Shared with the verifier; refreshed in the background so a login never waits on the certs endpoint.
+    private final GooglePublicKeysManager publicKeys;
     private final GoogleIdTokenVerifier verifier;
+    private final VerifiedTokenCache<GoogleIdentityClaims> tokenCache;
     private final Set<String> allowedClientIds;
     private final AuthProperties authProperties;
 
@@ -30,9 +41,25 @@ public class GoogleIdTokenVerifierService {
                 .map(value -> value == null ? null : value.trim())
                 .filter(value -> value != null && !value.isBlank())
                 .collect(Collectors.toUnmodifiableSet());
-        this.verifier = new GoogleIdTokenVerifier.Builder(new NetHttpTransport(), JacksonFactory.getDefaultInstance())
+        this.publicKeys = new GooglePublicKeysManager.Builder(new NetHttpTransport(), JacksonFactory.getDefaultInstance())
+                .build();
+        this.verifier = new GoogleIdTokenVerifier.Builder(publicKeys)
                 .setAudience(this.allowedClientIds.isEmpty() ? null : List.copyOf(this.allowedClientIds))
                 .build();
+        this.tokenCache = new VerifiedTokenCache<>(authProperties.getTokenCache());
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.google.publicKeysRefreshMs:3600000}")
+    public void refreshPublicKeys() {
+        if (!authProperties.getGoogle().isEnabled() || allowedClientIds.isEmpty()) {
+            return;
+        }
+        try {
+            publicKeys.refresh();
+        } catch (GeneralSecurityException | IOException ex) {
+            // The verifier still refreshes lazily once the cached keys expire.
+            log.warn("google public key refresh failed: {}", ex.toString());
+        }
     }
 
     public GoogleIdentityClaims verify(String idToken) {
@@ -45,6 +72,10 @@ public class GoogleIdTokenVerifierService {
         if (idToken == null || idToken.isBlank()) {
             throw new IllegalArgumentException("errors.auth.googleIdTokenInvalid");
         }
+        GoogleIdentityClaims cached = tokenCache.get(idToken);
+        if (cached != null) {
+            return cached;
+        }
         try {
             GoogleIdToken verified = verifier.verify(idToken);
             if (verified == null) {
@@ -60,12 +91,15 @@ public class GoogleIdTokenVerifierService {
             if (subject == null || subject.isBlank() || email == null || !emailVerified) {
                 throw new IllegalArgumentException("errors.auth.googleEmailNotVerified");
             }
-            return new GoogleIdentityClaims(
+            GoogleIdentityClaims claims = new GoogleIdentityClaims(
                     subject,
                     email,
                     true,
                     asString(payload.get("name"))
             );
+            Long exp = payload.getExpirationTimeSeconds();
+            tokenCache.put(idToken, claims, exp == null ? null : Instant.ofEpochSecond(exp));
+            return claims;
         } catch (IllegalArgumentException ex) {
             throw ex;
         } catch (GeneralSecurityException | IOException ex) {
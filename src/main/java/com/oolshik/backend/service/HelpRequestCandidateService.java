@@ -5,8 +5,6 @@ import com.oolshik.backend.entity.HelpRequestEntity;
 import com.oolshik.backend.notification.CandidateState;
 import com.oolshik.backend.notification.NotificationEventType;
 import com.oolshik.backend.repo.HelpRequestCandidateRepository;
-import com.oolshik.backend.repo.HelpRequestNotificationAudienceRepository;
-import com.oolshik.backend.repo.HelperLocationRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,20 +15,14 @@ import java.util.UUID;
 @Service
 public class HelpRequestCandidateService {
 
-    private final HelperLocationRepository helperLocationRepository;
     private final HelpRequestCandidateRepository candidateRepository;
-    private final HelpRequestNotificationAudienceRepository audienceRepository;
     private final NotificationProperties properties;
 
     public HelpRequestCandidateService(
-            HelperLocationRepository helperLocationRepository,
             HelpRequestCandidateRepository candidateRepository,
-            HelpRequestNotificationAudienceRepository audienceRepository,
             NotificationProperties properties
     ) {
-        this.helperLocationRepository = helperLocationRepository;
         this.candidateRepository = candidateRepository;
-        this.audienceRepository = audienceRepository;
         this.properties = properties;
     }
 
@@ -40,22 +32,14 @@ public class HelpRequestCandidateService {
             return List.of();
         }
         OffsetDateTime freshness = now.minusMinutes(properties.getActiveWindowMinutes());
-        List<UUID> helperIds = helperLocationRepository.findEligibleHelpersForRequest(
+        return candidateRepository.seedEligibleHelpers(
                 task.getId(),
                 (double) task.getRadiusMeters(),
-                freshness
+                freshness,
+                CandidateState.PENDING.name(),
+                NotificationEventType.TASK_CREATED.name(),
+                task.getRadiusMeters()
         );
-        for (UUID helperId : helperIds) {
-            candidateRepository.insertIgnore(UUID.randomUUID(), task.getId(), helperId, CandidateState.PENDING.name());
-            audienceRepository.insertIgnore(
-                    UUID.randomUUID(),
-                    task.getId(),
-                    helperId,
-                    NotificationEventType.TASK_CREATED.name(),
-                    task.getRadiusMeters()
-            );
-        }
-        return helperIds;
     }
 
     @Transactional
@@ -69,22 +53,14 @@ public class HelpRequestCandidateService {
             return List.of();
         }
         OffsetDateTime freshness = now.minusMinutes(properties.getActiveWindowMinutes());
-        List<UUID> helperIds = helperLocationRepository.findNewlyEligibleHelpersForRequest(
+        return candidateRepository.seedNewlyEligibleHelpers(
                 task.getId(),
                 (double) newRadius,
                 (double) previousRadius,
-                freshness
+                freshness,
+                CandidateState.PENDING.name(),
+                NotificationEventType.TASK_RADIUS_EXPANDED.name(),
+                newRadius
         );
-        for (UUID helperId : helperIds) {
-            candidateRepository.insertIgnore(UUID.randomUUID(), task.getId(), helperId, CandidateState.PENDING.name());
-            audienceRepository.insertIgnore(
-                    UUID.randomUUID(),
-                    task.getId(),
-                    helperId,
-                    NotificationEventType.TASK_RADIUS_EXPANDED.name(),
-                    newRadius
-            );
-        }
-        return helperIds;
     }
 }
@@ -2,8 +2,10 @@ package com.oolshik.backend.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oolshik.backend.config.NotificationProperties;
 import com.oolshik.backend.entity.HelpRequestEntity;
 import com.oolshik.backend.entity.NotificationOutboxEntity;
+import com.oolshik.backend.notification.NotificationEventCodec;
 import com.oolshik.backend.notification.NotificationEventContext;
 import com.oolshik.backend.notification.NotificationEventPayload;
 import com.oolshik.backend.notification.NotificationEventType;
@@ -20,16 +22,30 @@ public class HelpRequestNotificationService {
 
     private final NotificationOutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
+    private final NotificationProperties properties;
 
-    public HelpRequestNotificationService(NotificationOutboxRepository outboxRepository, ObjectMapper objectMapper) {
+    public HelpRequestNotificationService(
+            NotificationOutboxRepository outboxRepository,
+            ObjectMapper objectMapper,
+            NotificationProperties properties
+    ) {
         this.outboxRepository = outboxRepository;
         this.objectMapper = objectMapper;
+        this.properties = properties;
     }
 
     public void enqueueTaskEvent(
             NotificationEventType eventType,
             HelpRequestEntity task,
             NotificationEventContext context
+    ) {
+        outboxRepository.save(buildTaskEvent(eventType, task, context));
+    }
+
+    public NotificationOutboxEntity buildTaskEvent(
+            NotificationEventType eventType,
+            HelpRequestEntity task,
+            NotificationEventContext context
     ) {
         OffsetDateTime occurredAt = context.getOccurredAt() != null
                 ? context.getOccurredAt()
@@ -57,17 +73,19 @@ public class HelpRequestNotificationService {
         payload.setOfferAmount(task.getOfferAmount());
         payload.setOfferCurrency(task.getOfferCurrency());
 
-        String json = toJson(payload);
-
         NotificationOutboxEntity outbox = new NotificationOutboxEntity();
         outbox.setId(eventId);
         outbox.setEventType(eventType.name());
         outbox.setAggregateId(task.getId());
-        outbox.setPayloadJson(json);
+        if (properties.isBinaryPayloadEnabled()) {
+            outbox.setPayloadBin(NotificationEventCodec.encode(payload));
+        } else {
+            outbox.setPayloadJson(toJson(payload));
+        }
         outbox.setStatus(NotificationOutboxStatus.PENDING.name());
         outbox.setAttemptCount(0);
         outbox.setNextAttemptAt(occurredAt);
-        outboxRepository.save(outbox);
+        return outbox;
     }
 
     private NotificationEventPayload.Geo toGeo(Point location) {
@@ -1,13 +1,13 @@
 package com.oolshik.backend.service;
 
 import com.oolshik.backend.config.RadiusExpansionProperties;
-import com.oolshik.backend.domain.HelpRequestStatus;
 import com.oolshik.backend.repo.HelpRequestRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
@@ -21,33 +21,39 @@ public class HelpRequestRadiusExpansionScheduler {
     private final HelpRequestRepository requestRepo;
     private final HelpRequestRadiusExpansionService expansionService;
     private final RadiusExpansionProperties properties;
+    private final SchedulerLeaseService leaseService;
 
     public HelpRequestRadiusExpansionScheduler(
             HelpRequestRepository requestRepo,
             HelpRequestRadiusExpansionService expansionService,
-            RadiusExpansionProperties properties
+            RadiusExpansionProperties properties,
+            SchedulerLeaseService leaseService
     ) {
         this.requestRepo = requestRepo;
         this.expansionService = expansionService;
         this.properties = properties;
+        this.leaseService = leaseService;
     }
 
     @Scheduled(fixedDelayString = "#{${app.radius-expansion.jobIntervalSeconds:30} * 1000}")
     public void run() {
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        List<UUID> candidates = requestRepo.findRadiusEscalationCandidates(
-                HelpRequestStatus.OPEN,
-                now,
-                org.springframework.data.domain.PageRequest.of(0, properties.getBatchSize())
+        int expanded = leaseService.runPartitioned(
+                "radius-expansion",
+                Duration.ofSeconds(properties.getJobIntervalSeconds()),
+                slice -> {
+                    List<UUID> candidates = requestRepo.findRadiusEscalationCandidates(
+                            now,
+                            slice.index(),
+                            slice.count(),
+                            properties.getBatchSize()
+                    );
+                    for (UUID requestId : candidates) {
+                        expansionService.expandRadiusIfDue(requestId);
+                    }
+                    return candidates.size();
+                }
         );
-        if (candidates.isEmpty()) {
-            return;
-        }
-        int expanded = 0;
-        for (UUID requestId : candidates) {
-            expansionService.expandRadiusIfDue(requestId);
-            expanded++;
-        }
         if (expanded > 0) {
             log.info("Radius expansion processed {} candidates", expanded);
         }
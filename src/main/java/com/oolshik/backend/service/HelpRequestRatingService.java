@@ -45,11 +45,16 @@ public class HelpRequestRatingService {
                 ? null
                 : repo.findRatingForRequestAndRater(requestId, helperId);
         UUID helperTargetId = helperId != null ? helperId : pendingHelperId;
-        BigDecimal helperAvg = helperTargetId == null ? null : repo.findAvgRatingForUser(helperTargetId);
-        BigDecimal requesterAvg = requesterId == null ? null : repo.findAvgRatingForUser(requesterId);
+        BigDecimal helperAvg = findAvgRatingForUser(helperTargetId);
+        BigDecimal requesterAvg = findAvgRatingForUser(requesterId);
         return new RatingSummary(ratingByRequester, ratingByHelper, requesterAvg, helperAvg);
     }
 
+    @Transactional(readOnly = true)
+    public BigDecimal findAvgRatingForUser(UUID userId) {
+        return userId == null ? null : repo.findAvgRatingForUser(userId);
+    }
+
     @Transactional
     public HelpRequestRatingEntity createRating(
             UUID requestId,
@@ -83,7 +88,9 @@ public class HelpRequestRatingService {
         e.setRatingValue(normalized);
 
         try {
-            return repo.save(e);
+            HelpRequestRatingEntity saved = repo.saveAndFlush(e);
+            repo.incrementUserRatingSummary(targetUserId, normalized);
+            return saved;
         } catch (DataIntegrityViolationException ex) {
             throw new BadRequestException("errors.rating.alreadySubmitted");
         }
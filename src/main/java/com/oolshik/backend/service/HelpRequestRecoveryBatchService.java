@@ -0,0 +1,270 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.config.TaskRecoveryProperties;
+import com.oolshik.backend.domain.HelpRequestActorRole;
+import com.oolshik.backend.domain.HelpRequestCompletionMode;
+import com.oolshik.backend.domain.HelpRequestEventType;
+import com.oolshik.backend.domain.HelpRequestStatus;
+import com.oolshik.backend.entity.HelpRequestEntity;
+import com.oolshik.backend.entity.HelpRequestEventEntity;
+import com.oolshik.backend.entity.NotificationOutboxEntity;
+import com.oolshik.backend.notification.AssignmentChange;
+import com.oolshik.backend.notification.NotificationEventContext;
+import com.oolshik.backend.notification.NotificationEventType;
+import com.oolshik.backend.repo.HelpRequestRecoveryBatchRepository;
+import com.oolshik.backend.repo.HelpRequestRecoveryBatchRepository.ClaimedRequest;
+import com.oolshik.backend.service.SchedulerLeaseService.PartitionSlice;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Set-based variants of the per-row recovery transitions in HelpRequestService.
+// Each call claims one batch with SKIP LOCKED and commits it as a single transaction.
+@Service
+public class HelpRequestRecoveryBatchService {
+
+    private static final GeometryFactory GEOMETRY_FACTORY =
+            new GeometryFactory(new PrecisionModel(), 4326);
+
+    private final HelpRequestRecoveryBatchRepository batchRepository;
+    private final HelpRequestRadiusExpansionService radiusExpansionService;
+    private final HelpRequestNotificationService notificationService;
+    private final TaskRecoveryProperties recoveryProperties;
+    private final OpenRequestSpatialIndex openRequestIndex;
+
+    public HelpRequestRecoveryBatchService(
+            HelpRequestRecoveryBatchRepository batchRepository,
+            HelpRequestRadiusExpansionService radiusExpansionService,
+            HelpRequestNotificationService notificationService,
+            TaskRecoveryProperties recoveryProperties,
+            OpenRequestSpatialIndex openRequestIndex
+    ) {
+        this.batchRepository = batchRepository;
+        this.radiusExpansionService = radiusExpansionService;
+        this.notificationService = notificationService;
+        this.recoveryProperties = recoveryProperties;
+        this.openRequestIndex = openRequestIndex;
+    }
+
+    @Transactional
+    public int autoReleaseExpired(OffsetDateTime now, int limit, PartitionSlice slice) {
+        List<ClaimedRequest> claimed = batchRepository.claimExpiredAssignments(
+                now, limit, slice.index(), slice.count());
+        Set<UUID> released = new HashSet<>();
+        for (Map.Entry<OffsetDateTime, List<UUID>> group : groupByNextEscalation(claimed, now).entrySet()) {
+            released.addAll(batchRepository.autoReleaseAll(
+                    group.getValue(), now, group.getKey(), HelpRequestEventType.TIMEOUT.name()));
+        }
+        List<HelpRequestEventEntity> events = new ArrayList<>();
+        List<NotificationOutboxEntity> outbox = new ArrayList<>();
+        for (ClaimedRequest row : claimed) {
+            if (!released.contains(row.id())) {
+                continue;
+            }
+            events.add(event(row.id(), HelpRequestEventType.TIMEOUT, "TIMEOUT", null, now));
+            outbox.add(notificationService.buildTaskEvent(
+                    NotificationEventType.TASK_TIMEOUT,
+                    snapshot(row),
+                    context(HelpRequestStatus.ASSIGNED, HelpRequestStatus.OPEN, AssignmentChange.UNASSIGNED,
+                            row.helperId(), null, now)
+            ));
+            openRequestIndex.track(row.id(), location(row), row.createdAt());
+        }
+        flush(events, outbox, now);
+        return released.size();
+    }
+
+    @Transactional
+    public int autoExpirePendingAuth(OffsetDateTime now, int limit, PartitionSlice slice) {
+        List<ClaimedRequest> claimed = batchRepository.claimExpiredPendingAuth(
+                now, limit, slice.index(), slice.count());
+        Set<UUID> reopened = new HashSet<>();
+        for (Map.Entry<OffsetDateTime, List<UUID>> group : groupByNextEscalation(claimed, now).entrySet()) {
+            reopened.addAll(batchRepository.authTimeoutAll(
+                    group.getValue(), now, group.getKey(), HelpRequestEventType.AUTH_TIMEOUT.name()));
+        }
+        List<HelpRequestEventEntity> events = new ArrayList<>();
+        List<NotificationOutboxEntity> outbox = new ArrayList<>();
+        for (ClaimedRequest row : claimed) {
+            if (!reopened.contains(row.id())) {
+                continue;
+            }
+            String metadata = row.pendingHelperId() == null
+                    ? null
+                    : String.format("{\"pendingHelperId\":\"%s\"}", row.pendingHelperId());
+            events.add(event(row.id(), HelpRequestEventType.AUTH_TIMEOUT, null, metadata, now));
+            outbox.add(notificationService.buildTaskEvent(
+                    NotificationEventType.TASK_AUTH_TIMEOUT,
+                    snapshot(row),
+                    context(HelpRequestStatus.PENDING_AUTH, HelpRequestStatus.OPEN, AssignmentChange.UNASSIGNED,
+                            row.pendingHelperId(), null, now)
+            ));
+            openRequestIndex.track(row.id(), location(row), row.createdAt());
+        }
+        flush(events, outbox, now);
+        return reopened.size();
+    }
+
+    @Transactional
+    public int sendCompletionReminder50(OffsetDateTime now, int limit, PartitionSlice slice) {
+        OffsetDateTime threshold = now.minusSeconds(HelpRequestService.reminderOffsetSeconds(
+                recoveryProperties, recoveryProperties.getReminder50Percent()));
+        List<ClaimedRequest> claimed = batchRepository.claimReminder50Candidates(
+                threshold, limit, slice.index(), slice.count());
+        Set<UUID> marked = new HashSet<>(batchRepository.markReminder50SentAll(ids(claimed), now));
+        return enqueueReminders(claimed, marked, NotificationEventType.COMPLETION_REMINDER_50, now);
+    }
+
+    @Transactional
+    public int sendCompletionReminder80(OffsetDateTime now, int limit, PartitionSlice slice) {
+        OffsetDateTime threshold = now.minusSeconds(HelpRequestService.reminderOffsetSeconds(
+                recoveryProperties, recoveryProperties.getReminder80Percent()));
+        List<ClaimedRequest> claimed = batchRepository.claimReminder80Candidates(
+                threshold, limit, slice.index(), slice.count());
+        Set<UUID> marked = new HashSet<>(batchRepository.markReminder80SentAll(ids(claimed), now));
+        return enqueueReminders(claimed, marked, NotificationEventType.COMPLETION_REMINDER_80, now);
+    }
+
+    @Transactional
+    public int autoCompletePendingConfirmation(OffsetDateTime now, int limit, PartitionSlice slice) {
+        List<ClaimedRequest> claimed = batchRepository.claimExpiredCompletionConfirmations(
+                now, limit, slice.index(), slice.count());
+        Set<UUID> completed = new HashSet<>(batchRepository.autoCompleteAll(
+                ids(claimed),
+                now,
+                HelpRequestCompletionMode.AUTO_TIMEOUT.name(),
+                HelpRequestEventType.AUTO_COMPLETED_BY_TIMEOUT.name()
+        ));
+        List<HelpRequestEventEntity> events = new ArrayList<>();
+        List<NotificationOutboxEntity> outbox = new ArrayList<>();
+        for (ClaimedRequest row : claimed) {
+            if (!completed.contains(row.id())) {
+                continue;
+            }
+            events.add(event(row.id(), HelpRequestEventType.AUTO_COMPLETED_BY_TIMEOUT, "TIMEOUT", null, now));
+            outbox.add(notificationService.buildTaskEvent(
+                    NotificationEventType.AUTO_COMPLETED_BY_TIMEOUT,
+                    snapshot(row),
+                    context(HelpRequestStatus.WORK_DONE_PENDING_CONFIRMATION, HelpRequestStatus.COMPLETED,
+                            AssignmentChange.NONE, row.helperId(), row.helperId(), now)
+            ));
+        }
+        flush(events, outbox, now);
+        return completed.size();
+    }
+
+    private int enqueueReminders(
+            List<ClaimedRequest> claimed,
+            Set<UUID> marked,
+            NotificationEventType eventType,
+            OffsetDateTime now
+    ) {
+        List<NotificationOutboxEntity> outbox = new ArrayList<>();
+        for (ClaimedRequest row : claimed) {
+            if (!marked.contains(row.id())) {
+                continue;
+            }
+            outbox.add(notificationService.buildTaskEvent(
+                    eventType,
+                    snapshot(row),
+                    context(HelpRequestStatus.WORK_DONE_PENDING_CONFIRMATION,
+                            HelpRequestStatus.WORK_DONE_PENDING_CONFIRMATION,
+                            AssignmentChange.NONE, row.helperId(), row.helperId(), now)
+            ));
+        }
+        batchRepository.insertOutbox(outbox, now);
+        return marked.size();
+    }
+
+    private Map<OffsetDateTime, List<UUID>> groupByNextEscalation(List<ClaimedRequest> claimed, OffsetDateTime now) {
+        Map<OffsetDateTime, List<UUID>> groups = new LinkedHashMap<>();
+        for (ClaimedRequest row : claimed) {
+            int nextStage = (row.radiusStage() == null ? 0 : row.radiusStage()) + 1;
+            OffsetDateTime nextEscalationAt = radiusExpansionService
+                    .findNextRadius(row.radiusMeters())
+                    .map(r -> radiusExpansionService.nextEscalationAtForStage(now, nextStage))
+                    .orElse(null);
+            groups.computeIfAbsent(nextEscalationAt, k -> new ArrayList<>()).add(row.id());
+        }
+        return groups;
+    }
+
+    private void flush(List<HelpRequestEventEntity> events, List<NotificationOutboxEntity> outbox, OffsetDateTime now) {
+        batchRepository.insertEvents(events);
+        batchRepository.insertOutbox(outbox, now);
+    }
+
+    private static List<UUID> ids(List<ClaimedRequest> claimed) {
+        return claimed.stream().map(ClaimedRequest::id).toList();
+    }
+
+    private static HelpRequestEventEntity event(
+            UUID requestId,
+            HelpRequestEventType eventType,
+            String reasonCode,
+            String metadataJson,
+            OffsetDateTime now
+    ) {
+        HelpRequestEventEntity event = new HelpRequestEventEntity();
+        event.setId(UUID.randomUUID());
+        event.setRequestId(requestId);
+        event.setEventType(eventType);
+        event.setActorRole(HelpRequestActorRole.SYSTEM);
+        event.setReasonCode(reasonCode);
+        event.setMetadata(metadataJson);
+        event.setCreatedAt(now);
+        return event;
+    }
+
+    // Pre-transition view of the row, matching what the per-row path hands to the notification payload.
+    private static HelpRequestEntity snapshot(ClaimedRequest row) {
+        HelpRequestEntity task = new HelpRequestEntity();
+        task.setId(row.id());
+        task.setRequesterId(row.requesterId());
+        task.setHelperId(row.helperId());
+        task.setPendingHelperId(row.pendingHelperId());
+        task.setRadiusMeters(row.radiusMeters());
+        task.setLocation(location(row));
+        task.setCreatedAt(row.createdAt());
+        task.setOfferAmount(row.offerAmount());
+        task.setOfferCurrency(row.offerCurrency());
+        return task;
+    }
+
+    private static Point location(ClaimedRequest row) {
+        if (row.latitude() == null || row.longitude() == null) {
+            return null;
+        }
+        return GEOMETRY_FACTORY.createPoint(new Coordinate(row.longitude(), row.latitude()));
+    }
+
+    private static NotificationEventContext context(
+            HelpRequestStatus previousStatus,
+            HelpRequestStatus newStatus,
+            AssignmentChange assignmentChange,
+            UUID previousHelperId,
+            UUID newHelperId,
+            OffsetDateTime occurredAt
+    ) {
+        NotificationEventContext context = new NotificationEventContext();
+        context.setPreviousStatus(previousStatus.name());
+        context.setNewStatus(newStatus.name());
+        context.setAssignmentChange(assignmentChange);
+        context.setPreviousHelperId(previousHelperId);
+        context.setNewHelperId(newHelperId);
+        context.setOccurredAt(occurredAt);
+        return context;
+    }
+}
@@ -1,134 +1,211 @@
 package com.oolshik.backend.service;
 
+import com.oolshik.backend.config.TaskDeadlineProperties;
 import com.oolshik.backend.config.TaskRecoveryProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.IntUnaryOperator;
 
 @Component
 public class HelpRequestRecoveryScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(HelpRequestRecoveryScheduler.class);
+    // With the deadline wheel on, this sweep only reconciles deadlines the wheel missed.
+    private static final String SWEEP_DELAY = "#{${app.task-deadlines.enabled:false}"
+            + " ? ${app.task-deadlines.reconcileDelayMs:600000}"
+            + " : ${app.task-recovery.schedulerDelayMs:60000}}";
 
     private final HelpRequestService helpRequestService;
+    private final HelpRequestRecoveryBatchService batchService;
     private final TaskRecoveryProperties recoveryProperties;
+    private final SchedulerLeaseService leaseService;
+    private final TaskDeadlineProperties deadlineProperties;
 
     public HelpRequestRecoveryScheduler(
             HelpRequestService helpRequestService,
-            TaskRecoveryProperties recoveryProperties
+            HelpRequestRecoveryBatchService batchService,
+            TaskRecoveryProperties recoveryProperties,
+            SchedulerLeaseService leaseService,
+            TaskDeadlineProperties deadlineProperties
     ) {
         this.helpRequestService = helpRequestService;
+        this.batchService = batchService;
         this.recoveryProperties = recoveryProperties;
+        this.leaseService = leaseService;
+        this.deadlineProperties = deadlineProperties;
     }
 
-    @Scheduled(fixedDelayString = "${app.task-recovery.schedulerDelayMs:60000}")
+    @Scheduled(fixedDelayString = SWEEP_DELAY)
     public void autoReleaseExpiredAssignments() {
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        List<UUID> expired = helpRequestService.findExpiredAssignments(
-                now,
-                recoveryProperties.getSchedulerBatchSize()
-        );
-        if (expired.isEmpty()) {
+        if (recoveryProperties.isSchedulerBatchMode()) {
+            int processed = leaseService.runPartitioned("task-recovery.auto-release", interval(), slice ->
+                    drainBatches(limit -> batchService.autoReleaseExpired(now, limit, slice)));
+            if (processed > 0) {
+                log.info("Auto-released {} expired assignments (batch mode)", processed);
+            }
             return;
         }
-        int released = 0;
-        for (UUID id : expired) {
-            if (helpRequestService.autoReleaseExpired(id)) {
-                released++;
+        // The per-row finders are not partitioned, so only the lease holder sweeps.
+        int released = leaseService.runExclusive("task-recovery.auto-release", interval(), slice -> {
+            List<UUID> ids = helpRequestService.findExpiredAssignments(
+                    now,
+                    recoveryProperties.getSchedulerBatchSize()
+            );
+            int transitioned = 0;
+            for (UUID id : ids) {
+                if (helpRequestService.autoReleaseExpired(id)) {
+                    transitioned++;
+                }
             }
-        }
+            return transitioned;
+        });
         if (released > 0) {
             log.info("Auto-released {} expired assignments", released);
         }
     }
 
-    @Scheduled(fixedDelayString = "${app.task-recovery.schedulerDelayMs:60000}")
+    @Scheduled(fixedDelayString = SWEEP_DELAY)
     public void autoExpirePendingAuthorizations() {
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        List<UUID> expired = helpRequestService.findExpiredPendingAuth(
-                now,
-                recoveryProperties.getSchedulerBatchSize()
-        );
-        if (expired.isEmpty()) {
+        if (recoveryProperties.isSchedulerBatchMode()) {
+            int processed = leaseService.runPartitioned("task-recovery.auth-timeout", interval(), slice ->
+                    drainBatches(limit -> batchService.autoExpirePendingAuth(now, limit, slice)));
+            if (processed > 0) {
+                log.info("Auto-expired {} pending authorizations (batch mode)", processed);
+            }
             return;
         }
-        int reopened = 0;
-        for (UUID id : expired) {
-            if (helpRequestService.autoExpirePendingAuth(id)) {
-                reopened++;
+        int reopened = leaseService.runExclusive("task-recovery.auth-timeout", interval(), slice -> {
+            List<UUID> ids = helpRequestService.findExpiredPendingAuth(
+                    now,
+                    recoveryProperties.getSchedulerBatchSize()
+            );
+            int transitioned = 0;
+            for (UUID id : ids) {
+                if (helpRequestService.autoExpirePendingAuth(id)) {
+                    transitioned++;
+                }
             }
-        }
+            return transitioned;
+        });
         if (reopened > 0) {
             log.info("Auto-expired {} pending authorizations", reopened);
         }
     }
 
-    @Scheduled(fixedDelayString = "${app.task-recovery.schedulerDelayMs:60000}")
+    @Scheduled(fixedDelayString = SWEEP_DELAY)
     public void sendCompletionReminder50() {
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        List<UUID> candidates = helpRequestService.findCompletionReminder50Candidates(
-                now,
-                recoveryProperties.getSchedulerBatchSize()
-        );
-        if (candidates.isEmpty()) {
+        if (recoveryProperties.isSchedulerBatchMode()) {
+            int processed = leaseService.runPartitioned("task-recovery.reminder-50", interval(), slice ->
+                    drainBatches(limit -> batchService.sendCompletionReminder50(now, limit, slice)));
+            if (processed > 0) {
+                log.info("Sent {} completion reminder-50 notifications (batch mode)", processed);
+            }
             return;
         }
-        int reminded = 0;
-        for (UUID id : candidates) {
-            if (helpRequestService.sendCompletionReminder50(id)) {
-                reminded++;
+        int reminded = leaseService.runExclusive("task-recovery.reminder-50", interval(), slice -> {
+            List<UUID> ids = helpRequestService.findCompletionReminder50Candidates(
+                    now,
+                    recoveryProperties.getSchedulerBatchSize()
+            );
+            int transitioned = 0;
+            for (UUID id : ids) {
+                if (helpRequestService.sendCompletionReminder50(id)) {
+                    transitioned++;
+                }
             }
-        }
+            return transitioned;
+        });
         if (reminded > 0) {
             log.info("Sent {} completion reminder-50 notifications", reminded);
         }
     }
 
-    @Scheduled(fixedDelayString = "${app.task-recovery.schedulerDelayMs:60000}")
+    @Scheduled(fixedDelayString = SWEEP_DELAY)
     public void sendCompletionReminder80() {
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        List<UUID> candidates = helpRequestService.findCompletionReminder80Candidates(
-                now,
-                recoveryProperties.getSchedulerBatchSize()
-        );
-        if (candidates.isEmpty()) {
+        if (recoveryProperties.isSchedulerBatchMode()) {
+            int processed = leaseService.runPartitioned("task-recovery.reminder-80", interval(), slice ->
+                    drainBatches(limit -> batchService.sendCompletionReminder80(now, limit, slice)));
+            if (processed > 0) {
+                log.info("Sent {} completion reminder-80 notifications (batch mode)", processed);
+            }
             return;
         }
-        int reminded = 0;
-        for (UUID id : candidates) {
-            if (helpRequestService.sendCompletionReminder80(id)) {
-                reminded++;
+        int reminded = leaseService.runExclusive("task-recovery.reminder-80", interval(), slice -> {
+            List<UUID> ids = helpRequestService.findCompletionReminder80Candidates(
+                    now,
+                    recoveryProperties.getSchedulerBatchSize()
+            );
+            int transitioned = 0;
+            for (UUID id : ids) {
+                if (helpRequestService.sendCompletionReminder80(id)) {
+                    transitioned++;
+                }
             }
-        }
+            return transitioned;
+        });
         if (reminded > 0) {
             log.info("Sent {} completion reminder-80 notifications", reminded);
         }
     }
 
-    @Scheduled(fixedDelayString = "${app.task-recovery.schedulerDelayMs:60000}")
+    @Scheduled(fixedDelayString = SWEEP_DELAY)
     public void autoCompleteExpiredConfirmations() {
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        List<UUID> expired = helpRequestService.findExpiredCompletionConfirmations(
-                now,
-                recoveryProperties.getSchedulerBatchSize()
-        );
-        if (expired.isEmpty()) {
+        if (recoveryProperties.isSchedulerBatchMode()) {
+            int processed = leaseService.runPartitioned("task-recovery.auto-complete", interval(), slice ->
+                    drainBatches(limit -> batchService.autoCompletePendingConfirmation(now, limit, slice)));
+            if (processed > 0) {
+                log.info("Auto-completed {} pending confirmations (batch mode)", processed);
+            }
             return;
         }
-        int completed = 0;
-        for (UUID id : expired) {
-            if (helpRequestService.autoCompletePendingConfirmation(id)) {
-                completed++;
+        int completed = leaseService.runExclusive("task-recovery.auto-complete", interval(), slice -> {
+            List<UUID> ids = helpRequestService.findExpiredCompletionConfirmations(
+                    now,
+                    recoveryProperties.getSchedulerBatchSize()
+            );
+            int transitioned = 0;
+            for (UUID id : ids) {
+                if (helpRequestService.autoCompletePendingConfirmation(id)) {
+                    transitioned++;
+                }
             }
-        }
+            return transitioned;
+        });
         if (completed > 0) {
             log.info("Auto-completed {} pending confirmations", completed);
         }
     }
+
+    private Duration interval() {
+        return Duration.ofMillis(deadlineProperties.isEnabled()
+                ? deadlineProperties.getReconcileDelayMs()
+                : recoveryProperties.getSchedulerDelayMs());
+    }
+
+    private int drainBatches(IntUnaryOperator batch) {
+        int batchSize = recoveryProperties.getSchedulerBatchSize();
+        int maxBatches = Math.max(1, recoveryProperties.getSchedulerMaxBatchesPerRun());
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int processed = batch.applyAsInt(batchSize);
+            total += processed;
+            if (processed < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
 }
@@ -31,6 +31,7 @@ import io.micrometer.core.instrument.Metrics;
 import org.apache.coyote.BadRequestException;
 import org.locationtech.jts.geom.Point;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -40,13 +41,19 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
 @Service
 public class HelpRequestService {
 
+    private static final int MAX_NEARBY_SLICE_SIZE = 100;
+    public static final int MAX_NEARBY_RADIUS_METERS = 50_000;
+
     private final HelpRequestRepository repo;
     private final UserRepository userRepo;
     private final HelpRequestEventService eventService;
@@ -58,6 +65,8 @@ public class HelpRequestService {
     private final HelpRequestCandidateService candidateService;
     private final HelpRequestOfferEventRepository offerEventRepository;
     private final ActiveRequestCapConfigService activeRequestCapConfigService;
+    private final OpenRequestSpatialIndex openRequestIndex;
+    private final TaskDeadlineWheel deadlineWheel;
 
     public HelpRequestService(
             HelpRequestRepository repo,
@@ -70,7 +79,9 @@ public class HelpRequestService {
             HelpRequestRatingService ratingService,
             HelpRequestCandidateService candidateService,
             HelpRequestOfferEventRepository offerEventRepository,
-            ActiveRequestCapConfigService activeRequestCapConfigService
+            ActiveRequestCapConfigService activeRequestCapConfigService,
+            OpenRequestSpatialIndex openRequestIndex,
+            TaskDeadlineWheel deadlineWheel
     ) {
         this.repo = repo;
         this.userRepo = userRepo;
@@ -83,6 +94,8 @@ public class HelpRequestService {
         this.candidateService = candidateService;
         this.offerEventRepository = offerEventRepository;
         this.activeRequestCapConfigService = activeRequestCapConfigService;
+        this.openRequestIndex = openRequestIndex;
+        this.deadlineWheel = deadlineWheel;
     }
 
     @Transactional
@@ -143,6 +156,7 @@ public class HelpRequestService {
 
         HelpRequestEntity saved = repo.save(e);
         if (saved.getStatus() == HelpRequestStatus.OPEN) {
+            openRequestIndex.track(saved.getId(), saved.getLocation(), saved.getCreatedAt());
             candidateService.seedCandidatesForNewRequest(saved, now);
             NotificationEventContext context = buildContext(
                     requesterId,
@@ -168,10 +182,73 @@ public class HelpRequestService {
         String statusesCsv = (statuses == null || statuses.isEmpty())
                 ? ""  // value ignored when statusesEmpty = true
                 : String.join(",", statuses);
+        if (openRequestIndex.canServe(statuses, lat, lng, radiusMeters)) {
+            List<OpenRequestSpatialIndex.Hit> hits = openRequestIndex.within(lat, lng, radiusMeters);
+            int from = (int) Math.min(pageable.getOffset(), hits.size());
+            int to = Math.min(from + pageable.getPageSize(), hits.size());
+            return new PageImpl<>(hydrateOpenRows(lat, lng, hits.subList(from, to)), pageable, hits.size());
+        }
         // call repo:
         return repo.findNearbyPaged(lat, lng, radiusMeters, statusesCsv, pageable);
     }
 
+    public NearbySlice nearbyAfter(
+            double lat, double lng, int radiusMeters,
+            List<String> statuses, String cursor, int size
+    ) {
+        String statusesCsv = (statuses == null || statuses.isEmpty())
+                ? ""
+                : String.join(",", statuses);
+        NearbyCursor after = NearbyCursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size, MAX_NEARBY_SLICE_SIZE));
+        radiusMeters = clampRadius(radiusMeters);
+        if (openRequestIndex.canServe(statuses, lat, lng, radiusMeters)) {
+            List<OpenRequestSpatialIndex.Hit> hits = openRequestIndex.after(lat, lng, radiusMeters, after, limit + 1);
+            if (hits.size() <= limit) {
+                return new NearbySlice(hydrateOpenRows(lat, lng, hits), null);
+            }
+            OpenRequestSpatialIndex.Hit last = hits.get(limit - 1);
+            String next = new NearbyCursor(last.distanceMtr(), last.createdAt(), last.id()).encode();
+            return new NearbySlice(hydrateOpenRows(lat, lng, hits.subList(0, limit)), next);
+        }
+        List<HelpRequestRow> rows = repo.findNearbyAfter(
+                lat, lng, radiusMeters, statusesCsv,
+                after.distanceMtr(),
+                after.createdAt().atOffset(ZoneOffset.UTC),
+                after.id(),
+                limit + 1
+        );
+        if (rows.size() <= limit) {
+            return new NearbySlice(rows, null);
+        }
+        List<HelpRequestRow> page = rows.subList(0, limit);
+        HelpRequestRow last = page.get(limit - 1);
+        String next = new NearbyCursor(last.getDistanceMtr(), last.getCreatedAt(), last.getId()).encode();
+        return new NearbySlice(List.copyOf(page), next);
+    }
+
+    private static int clampRadius(int radiusMeters) {
+        return Math.max(0, Math.min(radiusMeters, MAX_NEARBY_RADIUS_METERS));
+    }
+
+    private List<HelpRequestRow> hydrateOpenRows(double lat, double lng, List<OpenRequestSpatialIndex.Hit> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, HelpRequestRow> byId = new HashMap<>();
+        for (HelpRequestRow row : repo.findOpenRowsByIds(lat, lng, hits.stream().map(OpenRequestSpatialIndex.Hit::id).toList())) {
+            byId.put(row.getId(), row);
+        }
+        List<HelpRequestRow> ordered = new ArrayList<>(hits.size());
+        for (OpenRequestSpatialIndex.Hit hit : hits) {
+            HelpRequestRow row = byId.get(hit.id());
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
     public HelpRequestRow findTaskByTaskId(
             UUID taskId
     ) {
@@ -214,6 +291,8 @@ public class HelpRequestService {
                 null,
                 null
         );
+        openRequestIndex.untrack(requestId);
+        deadlineWheel.schedule(requestId, TaskDeadlineWheel.Kind.AUTH_EXPIRY, expiresAt);
         helperLocationService.upsert(helperId, acceptorPoint);
         NotificationEventContext context = buildContext(
                 helperId,
@@ -261,6 +340,7 @@ public class HelpRequestService {
                 null,
                 null
         );
+        deadlineWheel.schedule(requestId, TaskDeadlineWheel.Kind.ASSIGNMENT_EXPIRY, expiresAt);
         NotificationEventContext context = buildContext(
                 requesterId,
                 HelpRequestStatus.PENDING_AUTH,
@@ -323,6 +403,7 @@ public class HelpRequestService {
                 reasonText,
                 null
         );
+        openRequestIndex.track(requestId, existing.getLocation(), existing.getCreatedAt());
         NotificationEventContext context = buildContext(
                 requesterId,
                 HelpRequestStatus.PENDING_AUTH,
@@ -375,6 +456,7 @@ public class HelpRequestService {
                 null,
                 null
         );
+        deadlineWheel.scheduleCompletion(requestId, now, expiresAt);
         NotificationEventContext context = buildContext(
                 helperId,
                 HelpRequestStatus.ASSIGNED,
@@ -577,6 +659,7 @@ public class HelpRequestService {
                 reasonText,
                 null
         );
+        openRequestIndex.untrack(requestId);
         UUID previousHelperId = helperId != null ? helperId : pendingHelperId;
         AssignmentChange change = previousHelperId == null ? AssignmentChange.NONE : AssignmentChange.UNASSIGNED;
         NotificationEventContext context = buildContext(
@@ -639,6 +722,7 @@ public class HelpRequestService {
                 reasonText,
                 null
         );
+        openRequestIndex.track(requestId, existing.getLocation(), existing.getCreatedAt());
         NotificationEventContext context = buildContext(
                 helperId,
                 HelpRequestStatus.ASSIGNED,
@@ -702,6 +786,7 @@ public class HelpRequestService {
                 null,
                 null
         );
+        openRequestIndex.track(requestId, existing.getLocation(), existing.getCreatedAt());
         NotificationEventContext context = buildContext(
                 requesterId,
                 HelpRequestStatus.ASSIGNED,
@@ -749,6 +834,7 @@ public class HelpRequestService {
                 null,
                 null
         );
+        openRequestIndex.track(requestId, existing.getLocation(), existing.getCreatedAt());
         NotificationEventContext context = buildContext(
                 null,
                 HelpRequestStatus.ASSIGNED,
@@ -769,6 +855,9 @@ public class HelpRequestService {
         HelpRequestEntity existing = repo.findById(requestId)
                 .orElseThrow(() -> new IllegalArgumentException("Request not found"));
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        if (!completionReminderDue(existing, now, recoveryProperties.getReminder50Percent())) {
+            return false;
+        }
         int updated = repo.markReminder50Sent(
                 requestId,
                 now,
@@ -797,6 +886,9 @@ public class HelpRequestService {
         HelpRequestEntity existing = repo.findById(requestId)
                 .orElseThrow(() -> new IllegalArgumentException("Request not found"));
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        if (!completionReminderDue(existing, now, recoveryProperties.getReminder80Percent())) {
+            return false;
+        }
         int updated = repo.markReminder80Sent(
                 requestId,
                 now,
@@ -895,6 +987,7 @@ public class HelpRequestService {
                 null,
                 metadata
         );
+        openRequestIndex.track(requestId, existing.getLocation(), existing.getCreatedAt());
         NotificationEventContext context = buildContext(
                 null,
                 HelpRequestStatus.PENDING_AUTH,
@@ -1139,12 +1232,27 @@ public class HelpRequestService {
         return offerCurrency.trim().toUpperCase();
     }
 
+    // The deadline wheel can fire for a superseded work-done cycle; the sweep finders already filter on this.
+    private boolean completionReminderDue(HelpRequestEntity task, OffsetDateTime now, double percent) {
+        return task.getWorkDoneAt() != null
+                && !task.getWorkDoneAt().isAfter(now.minusSeconds(reminderOffsetSeconds(percent)));
+    }
+
     private long reminderOffsetSeconds(double percent) {
+        return reminderOffsetSeconds(recoveryProperties, percent);
+    }
+
+    static long reminderOffsetSeconds(TaskRecoveryProperties recoveryProperties, double percent) {
         double bounded = Math.max(0d, Math.min(1d, percent));
         long ttlSeconds = recoveryProperties.getCompletionConfirmationTtlHours() * 3600L;
         return Math.max(0L, Math.round(ttlSeconds * bounded));
     }
 
+    public record NearbySlice(
+            List<HelpRequestRow> rows,
+            String nextCursor
+    ) {}
+
     public record OfferUpdateOutcome(
             HelpRequestEntity task,
             boolean notificationSuppressed,
@@ -0,0 +1,101 @@
+package com.oolshik.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// Hashed timing wheel with cascading levels. Level 0 slots are one tick wide, each higher level's slots
+// span a full rotation of the level below; anything past the top level waits in an overflow list.
+// Not thread-safe; callers serialize access.
+final class HierarchicalTimingWheel<T> {
+
+    private record Timer<T>(long dueTick, T value) {}
+
+    private final long tickMillis;
+    private final int slots;
+    private final long[] levelSpan;
+    private final List<ArrayDeque<Timer<T>>[]> levels = new ArrayList<>();
+    private final List<Timer<T>> overflow = new ArrayList<>();
+    private final List<T> expired = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(long tickMillis, int slots, int levelCount, long startMillis) {
+        this.tickMillis = Math.max(1, tickMillis);
+        this.slots = Math.max(2, slots);
+        this.levelSpan = new long[Math.max(1, levelCount)];
+        long span = 1;
+        for (int level = 0; level < levelSpan.length; level++) {
+            levelSpan[level] = span;
+            ArrayDeque<Timer<T>>[] buckets = new ArrayDeque[this.slots];
+            for (int i = 0; i < this.slots; i++) {
+                buckets[i] = new ArrayDeque<>();
+            }
+            levels.add(buckets);
+            span *= this.slots;
+        }
+        this.currentTick = Math.floorDiv(startMillis, this.tickMillis);
+    }
+
+    void add(long dueMillis, T value) {
+        long dueTick = Math.floorDiv(dueMillis + tickMillis - 1, tickMillis);
+        place(new Timer<>(dueTick, value));
+        size++;
+    }
+
+    // Moves the wheel to nowMillis and returns everything whose deadline has passed.
+    List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> due = new ArrayList<>(expired);
+        expired.clear();
+        while (currentTick < targetTick) {
+            currentTick++;
+            long topRotation = levelSpan[levelSpan.length - 1] * slots;
+            if (currentTick % topRotation == 0 && !overflow.isEmpty()) {
+                List<Timer<T>> pending = new ArrayList<>(overflow);
+                overflow.clear();
+                pending.forEach(this::place);
+            }
+            for (int level = levelSpan.length - 1; level >= 1; level--) {
+                if (currentTick % levelSpan[level] == 0) {
+                    ArrayDeque<Timer<T>> bucket = levels.get(level)[slotOf(currentTick, level)];
+                    List<Timer<T>> cascading = new ArrayList<>(bucket);
+                    bucket.clear();
+                    cascading.forEach(this::place);
+                }
+            }
+            ArrayDeque<Timer<T>> bucket = levels.get(0)[slotOf(currentTick, 0)];
+            while (!bucket.isEmpty()) {
+                expired.add(bucket.poll().value());
+            }
+            due.addAll(expired);
+            expired.clear();
+        }
+        size -= due.size();
+        return due;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.dueTick() - currentTick;
+        if (delta <= 0) {
+            expired.add(timer.value());
+            return;
+        }
+        for (int level = 0; level < levelSpan.length; level++) {
+            if (delta < levelSpan[level] * slots) {
+                levels.get(level)[slotOf(timer.dueTick(), level)].add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    private int slotOf(long tick, int level) {
+        return (int) Math.floorMod(tick / levelSpan[level], (long) slots);
+    }
+}
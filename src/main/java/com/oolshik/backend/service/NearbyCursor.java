@@ -0,0 +1,40 @@
+package com.oolshik.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+// Last (distance, created_at, id) a client received from the nearby feed; opaque to clients.
+public record NearbyCursor(double distanceMtr, Instant createdAt, UUID id) {
+
+    private static final String VERSION = "v1";
+
+    public static final NearbyCursor START = new NearbyCursor(-1d, Instant.EPOCH, new UUID(0L, 0L));
+
+    public String encode() {
+        String raw = VERSION + "|" + distanceMtr + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static NearbyCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("errors.nearby.invalidCursor");
+            }
+            return new NearbyCursor(
+                    Double.parseDouble(parts[1]),
+                    Instant.parse(parts[2]),
+                    UUID.fromString(parts[3])
+            );
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("errors.nearby.invalidCursor", ex);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.config.NotificationProperties;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Holds a dedicated connection (outside the Hikari pool) on LISTEN notification_outbox. The V29 trigger
+// notifies once per inserting statement, delivered on commit, and each notification wakes the publisher.
+@Component
+@ConditionalOnProperty(name = "app.messaging.kafka.enabled", havingValue = "true")
+public class NotificationOutboxListener {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxListener.class);
+    private static final String CHANNEL = "notification_outbox";
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long MAX_RECONNECT_BACKOFF_MS = 30_000;
+
+    private final NotificationOutboxPublisher publisher;
+    private final NotificationProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+    private volatile boolean running;
+    private Thread thread;
+
+    public NotificationOutboxListener(
+            NotificationOutboxPublisher publisher,
+            NotificationProperties properties,
+            DataSourceProperties dataSourceProperties
+    ) {
+        this.publisher = publisher;
+        this.properties = properties;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!properties.isOutboxListenEnabled() || thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listenLoop, "notification-outbox-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listenLoop() {
+        long backoffMs = 1000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for notification outbox inserts");
+                backoffMs = 1000;
+                // Rows inserted while we were not listening.
+                publisher.wakeUp();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        publisher.wakeUp();
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Notification outbox listener disconnected, retrying in {}ms: {}", backoffMs, ex.toString());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_RECONNECT_BACKOFF_MS);
+            }
+        }
+    }
+}
@@ -5,95 +5,231 @@ import com.oolshik.backend.config.NotificationProperties;
 import com.oolshik.backend.entity.NotificationOutboxEntity;
 import com.oolshik.backend.notification.NotificationOutboxStatus;
 import com.oolshik.backend.repo.NotificationOutboxRepository;
+import com.oolshik.backend.service.SchedulerLeaseService.PartitionSlice;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @ConditionalOnProperty(name = "app.messaging.kafka.enabled", havingValue = "true")
 public class NotificationOutboxPublisher {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationOutboxPublisher.class);
+    private static final int MAX_DRAIN_ROUNDS = 100;
+    // In listen mode the poll is only a fallback for missed notifications.
+    private static final String POLL_DELAY = "#{${app.notification.outboxListenEnabled:false}"
+            + " ? ${app.notification.outboxFallbackPollMs:30000}"
+            + " : ${app.notification.outboxPublishIntervalMs:2000}}";
 
     private final NotificationOutboxRepository outboxRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
     private final KafkaTopicProperties topics;
     private final NotificationProperties properties;
+    private final SchedulerLeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer batchLatency;
+    private final Timer publishLag;
+    private final DistributionSummary batchSize;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final AtomicBoolean wakeupQueued = new AtomicBoolean(false);
+    private final ExecutorService wakeupExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-outbox-wakeup");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public NotificationOutboxPublisher(
             NotificationOutboxRepository outboxRepository,
-            @Qualifier("notificationKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+            @Qualifier("notificationEventKafkaTemplate") KafkaTemplate<String, byte[]> kafkaTemplate,
             KafkaTopicProperties topics,
-            NotificationProperties properties
+            NotificationProperties properties,
+            SchedulerLeaseService leaseService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
     ) {
         this.outboxRepository = outboxRepository;
         this.kafkaTemplate = kafkaTemplate;
         this.topics = topics;
         this.properties = properties;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchLatency = meterRegistry.timer("notification.outbox.batch.latency");
+        this.publishLag = meterRegistry.timer("notification.outbox.publish.lag");
+        this.batchSize = meterRegistry.summary("notification.outbox.batch.size");
+        this.publishedCounter = meterRegistry.counter("notification.outbox.events", "outcome", "published");
+        this.failedCounter = meterRegistry.counter("notification.outbox.events", "outcome", "failed");
+        this.deadCounter = meterRegistry.counter("notification.outbox.events", "outcome", "dead");
     }
 
-    @Scheduled(fixedDelayString = "${app.notification.outboxPublishIntervalMs:2000}")
-    @Transactional
+    @Scheduled(fixedDelayString = POLL_DELAY)
     public void publishPending() {
+        publishOnce();
+    }
+
+    // Called by NotificationOutboxListener. Wakeups arriving during a run collapse into one follow-up run.
+    public void wakeUp() {
+        if (!wakeupQueued.compareAndSet(false, true)) {
+            return;
+        }
+        wakeupExecutor.execute(() -> {
+            wakeupQueued.set(false);
+            try {
+                int rounds = 0;
+                int published;
+                do {
+                    published = publishOnce();
+                } while (published > 0 && ++rounds < MAX_DRAIN_ROUNDS);
+            } catch (RuntimeException ex) {
+                log.warn("notification outbox wakeup publish failed: {}", ex.toString());
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        wakeupExecutor.shutdownNow();
+    }
+
+    private int publishOnce() {
+        int pollMs = properties.isOutboxListenEnabled()
+                ? properties.getOutboxFallbackPollMs()
+                : properties.getOutboxPublishIntervalMs();
+        return leaseService.runPartitioned(
+                "notification-outbox",
+                Duration.ofMillis(pollMs),
+                slice -> transactionTemplate.execute(status -> publishBatch(slice))
+        );
+    }
+
+    private int publishBatch(PartitionSlice slice) {
         OffsetDateTime now = OffsetDateTime.now();
         List<NotificationOutboxEntity> batch = outboxRepository.lockNextBatch(
                 List.of(NotificationOutboxStatus.PENDING.name(), NotificationOutboxStatus.FAILED.name()),
                 now,
-                properties.getOutboxBatchSize()
+                properties.getOutboxBatchSize(),
+                slice.index(),
+                slice.count()
         );
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long started = System.nanoTime();
+
+        // Hand the whole batch to the producer first so sends share linger/batching, then wait once.
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
         for (NotificationOutboxEntity outbox : batch) {
-            try {
-                kafkaTemplate
-                        .send(topics.getNotificationEvents(), outbox.getId().toString(), outbox.getPayloadJson())
-                        .get(5, TimeUnit.SECONDS);
-                outboxRepository.updateStatus(
-                        outbox.getId(),
-                        NotificationOutboxStatus.PUBLISHED.name(),
-                        outbox.getAttemptCount() + 1,
-                        now,
-                        null,
-                        now
-                );
-            } catch (Exception ex) {
-                int attempts = outbox.getAttemptCount() + 1;
-                NotificationOutboxStatus status = attempts >= properties.getOutboxMaxAttempts()
-                        ? NotificationOutboxStatus.DEAD
-                        : NotificationOutboxStatus.FAILED;
-                OffsetDateTime nextAttempt = attempts >= properties.getOutboxMaxAttempts()
-                        ? now
-                        : now.plusSeconds(backoffSeconds(attempts));
-                outboxRepository.updateStatus(
-                        outbox.getId(),
-                        status.name(),
-                        attempts,
-                        nextAttempt,
-                        safeMessage(ex),
-                        now
-                );
-                if (status == NotificationOutboxStatus.DEAD) {
-                    log.error("notification outbox dead id={} attempts={}", outbox.getId(), attempts);
-                } else {
-                    log.warn("notification outbox publish failed id={} attempts={}", outbox.getId(), attempts);
+            sends.add(send(outbox));
+        }
+        awaitAll(sends, properties.getOutboxSendTimeoutMs());
+
+        List<UUID> published = new ArrayList<>();
+        Map<String, List<UUID>> failed = new LinkedHashMap<>();
+        Map<String, List<UUID>> dead = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            NotificationOutboxEntity outbox = batch.get(i);
+            CompletableFuture<?> send = sends.get(i);
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                published.add(outbox.getId());
+                if (outbox.getCreatedAt() != null) {
+                    publishLag.record(Duration.between(outbox.getCreatedAt(), now).abs());
                 }
+                continue;
+            }
+            int attempts = outbox.getAttemptCount() + 1;
+            String error = safeMessage(send);
+            if (attempts >= properties.getOutboxMaxAttempts()) {
+                dead.computeIfAbsent(error, k -> new ArrayList<>()).add(outbox.getId());
+                log.error("notification outbox dead id={} attempts={}", outbox.getId(), attempts);
+            } else {
+                failed.computeIfAbsent(error, k -> new ArrayList<>()).add(outbox.getId());
+                log.warn("notification outbox publish failed id={} attempts={}", outbox.getId(), attempts);
             }
         }
+
+        if (!published.isEmpty()) {
+            outboxRepository.markPublished(published, now);
+            publishedCounter.increment(published.size());
+        }
+        failed.forEach((error, ids) -> {
+            outboxRepository.markFailed(ids, error, now);
+            failedCounter.increment(ids.size());
+        });
+        dead.forEach((error, ids) -> {
+            outboxRepository.markDead(ids, error, now);
+            deadCounter.increment(ids.size());
+        });
+
+        batchSize.record(batch.size());
+        batchLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return batch.size();
+    }
+
+    private CompletableFuture<?> send(NotificationOutboxEntity outbox) {
+        try {
+            return kafkaTemplate.send(
+                    topics.getNotificationEvents(),
+                    outbox.getId().toString(),
+                    outbox.getPayloadBin() != null
+                            ? outbox.getPayloadBin()
+                            : outbox.getPayloadJson().getBytes(StandardCharsets.UTF_8)
+            );
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
     }
 
-    private long backoffSeconds(int attempt) {
-        long base = Math.min(60, (long) Math.pow(2, attempt));
-        return Math.max(1, base);
+    private static void awaitAll(List<CompletableFuture<?>> sends, long timeoutMs) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            // Individual outcomes are read from each future below.
+        }
     }
 
-    private String safeMessage(Exception ex) {
+    private String safeMessage(CompletableFuture<?> send) {
+        if (!send.isDone()) {
+            return "send timed out";
+        }
+        Throwable ex;
+        try {
+            ex = send.exceptionNow();
+        } catch (IllegalStateException notFailed) {
+            return "send cancelled";
+        }
+        if (ex instanceof ExecutionException && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
         String message = ex.getMessage();
         if (message == null) {
             return ex.getClass().getSimpleName();
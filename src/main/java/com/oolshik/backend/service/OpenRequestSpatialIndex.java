@@ -0,0 +1,287 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.config.NearbyIndexProperties;
+import com.oolshik.backend.domain.HelpRequestStatus;
+import com.oolshik.backend.repo.HelpRequestRepository;
+import com.oolshik.backend.repo.OpenRequestLocationRow;
+import org.locationtech.jts.geom.Point;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Grid index of OPEN requests for the id + distance phase of the nearby feed.
+// Writes from this instance are applied after commit; the periodic rebuild picks up other replicas.
+// Lookups that would walk more than maxCellsPerQuery cells are left to the PostGIS query.
+// Distances are great-circle on PostGIS's mean-radius sphere, matching the cursor queries (use_spheroid = false),
+// so a cursor walk keeps its order when lookups switch paths. The offset /nearby query measures on the spheroid,
+// so its distances can differ from the index's by up to ~0.5% and pages may shift if the path changes mid-walk.
+@Component
+public class OpenRequestSpatialIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenRequestSpatialIndex.class);
+    private static final double EARTH_RADIUS_METERS = 6_371_008.771;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    public static final Comparator<Hit> NEARBY_ORDER = Comparator
+            .comparingDouble(Hit::distanceMtr)
+            .thenComparing(Hit::createdAt, Comparator.reverseOrder())
+            .thenComparing(Hit::id, OpenRequestSpatialIndex::compareUuidDesc);
+
+    private final HelpRequestRepository repo;
+    private final NearbyIndexProperties properties;
+    private final double cellDegrees;
+    private final Object mutationLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean ready = false;
+    private boolean rebuilding = false;
+    private final List<Entry> pendingUpserts = new ArrayList<>();
+    private final List<UUID> pendingRemovals = new ArrayList<>();
+
+    public OpenRequestSpatialIndex(HelpRequestRepository repo, NearbyIndexProperties properties) {
+        this.repo = repo;
+        this.properties = properties;
+        this.cellDegrees = Math.max(100, properties.getCellSizeMeters()) / METERS_PER_DEGREE;
+    }
+
+    public record Hit(UUID id, double distanceMtr, Instant createdAt) {}
+
+    private record Entry(UUID id, double lat, double lng, Instant createdAt, long cell) {}
+
+    private record CellRange(long minLat, long maxLat, long minLng, long maxLng) {
+        long cells() {
+            return (maxLat - minLat + 1) * (maxLng - minLng + 1);
+        }
+    }
+
+    private static final class Snapshot {
+        final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+        final Map<Long, Set<UUID>> cells = new ConcurrentHashMap<>();
+    }
+
+    public boolean canServe(List<String> statuses, double lat, double lng, int radiusMeters) {
+        return properties.isEnabled()
+                && ready
+                && statuses != null
+                && statuses.size() == 1
+                && HelpRequestStatus.OPEN.name().equals(statuses.get(0))
+                && cellRange(lat, lng, radiusMeters).cells() <= properties.getMaxCellsPerQuery();
+    }
+
+    public void track(UUID id, Point location, OffsetDateTime createdAt) {
+        if (!properties.isEnabled() || id == null || location == null) {
+            return;
+        }
+        Instant created = createdAt == null ? Instant.now() : createdAt.toInstant();
+        Entry entry = new Entry(id, location.getY(), location.getX(), created, cellKey(location.getY(), location.getX()));
+        afterCommit(() -> applyUpsert(entry));
+    }
+
+    public void untrack(UUID id) {
+        if (!properties.isEnabled() || id == null) {
+            return;
+        }
+        afterCommit(() -> applyRemove(id));
+    }
+
+    public List<Hit> within(double lat, double lng, int radiusMeters) {
+        CellRange range = cellRange(lat, lng, radiusMeters);
+        if (range.cells() > properties.getMaxCellsPerQuery()) {
+            throw new IllegalArgumentException("Radius too large for the nearby index: " + radiusMeters);
+        }
+        Snapshot current = snapshot;
+        List<Hit> hits = new ArrayList<>();
+        for (long i = range.minLat(); i <= range.maxLat(); i++) {
+            for (long j = range.minLng(); j <= range.maxLng(); j++) {
+                Set<UUID> ids = current.cells.get(pack(i, j));
+                if (ids == null) {
+                    continue;
+                }
+                for (UUID id : ids) {
+                    Entry e = current.entries.get(id);
+                    if (e == null) {
+                        continue;
+                    }
+                    double distance = haversineMeters(lat, lng, e.lat(), e.lng());
+                    if (distance <= radiusMeters) {
+                        hits.add(new Hit(e.id(), distance, e.createdAt()));
+                    }
+                }
+            }
+        }
+        hits.sort(NEARBY_ORDER);
+        return hits;
+    }
+
+    public List<Hit> after(double lat, double lng, int radiusMeters, NearbyCursor cursor, int limit) {
+        Hit position = new Hit(cursor.id(), cursor.distanceMtr(), cursor.createdAt());
+        return within(lat, lng, radiusMeters).stream()
+                .filter(hit -> NEARBY_ORDER.compare(hit, position) > 0)
+                .limit(limit)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.nearby-index.refreshIntervalMs:60000}",
+            initialDelayString = "${app.nearby-index.refreshIntervalMs:60000}"
+    )
+    public void refresh() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    void rebuild() {
+        synchronized (mutationLock) {
+            rebuilding = true;
+            pendingUpserts.clear();
+            pendingRemovals.clear();
+        }
+        Snapshot fresh = new Snapshot();
+        try {
+            for (OpenRequestLocationRow row : repo.findOpenRequestLocations()) {
+                if (row.getLatitude() == null || row.getLongitude() == null) {
+                    continue;
+                }
+                Instant created = row.getCreatedAt() == null ? Instant.EPOCH : row.getCreatedAt();
+                put(fresh, new Entry(
+                        row.getId(),
+                        row.getLatitude(),
+                        row.getLongitude(),
+                        created,
+                        cellKey(row.getLatitude(), row.getLongitude())
+                ));
+            }
+        } catch (RuntimeException ex) {
+            synchronized (mutationLock) {
+                rebuilding = false;
+            }
+            log.warn("Open request index rebuild failed: {}", ex.toString());
+            return;
+        }
+        synchronized (mutationLock) {
+            pendingUpserts.forEach(e -> put(fresh, e));
+            pendingRemovals.forEach(id -> remove(fresh, id));
+            snapshot = fresh;
+            rebuilding = false;
+            ready = true;
+        }
+        log.debug("Open request index rebuilt size={}", fresh.entries.size());
+    }
+
+    int size() {
+        return snapshot.entries.size();
+    }
+
+    private void applyUpsert(Entry entry) {
+        synchronized (mutationLock) {
+            put(snapshot, entry);
+            if (rebuilding) {
+                pendingRemovals.remove(entry.id());
+                pendingUpserts.add(entry);
+            }
+        }
+    }
+
+    private void applyRemove(UUID id) {
+        synchronized (mutationLock) {
+            remove(snapshot, id);
+            if (rebuilding) {
+                pendingUpserts.removeIf(e -> e.id().equals(id));
+                pendingRemovals.add(id);
+            }
+        }
+    }
+
+    private static void put(Snapshot target, Entry entry) {
+        remove(target, entry.id());
+        target.entries.put(entry.id(), entry);
+        target.cells.computeIfAbsent(entry.cell(), k -> ConcurrentHashMap.newKeySet()).add(entry.id());
+    }
+
+    private static void remove(Snapshot target, UUID id) {
+        Entry previous = target.entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        target.cells.computeIfPresent(previous.cell(), (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private CellRange cellRange(double lat, double lng, int radiusMeters) {
+        double radius = Math.max(0, radiusMeters);
+        double latDelta = radius / METERS_PER_DEGREE;
+        double lngDelta = Math.min(180.0,
+                radius / (METERS_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(lat)))));
+        return new CellRange(
+                cellIndex(Math.max(-90.0, lat - latDelta)),
+                cellIndex(Math.min(90.0, lat + latDelta)),
+                cellIndex(lng - lngDelta),
+                cellIndex(lng + lngDelta)
+        );
+    }
+
+    private long cellKey(double lat, double lng) {
+        return pack(cellIndex(lat), cellIndex(lng));
+    }
+
+    private long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long pack(long latIndex, long lngIndex) {
+        return (latIndex << 32) | (lngIndex & 0xffffffffL);
+    }
+
+    private static double haversineMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // Matches Postgres uuid ordering (unsigned bytes), descending.
+    private static int compareUuidDesc(UUID a, UUID b) {
+        int cmp = Long.compareUnsigned(b.getMostSignificantBits(), a.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(b.getLeastSignificantBits(), a.getLeastSignificantBits());
+    }
+}
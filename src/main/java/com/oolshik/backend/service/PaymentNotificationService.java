@@ -2,8 +2,10 @@ package com.oolshik.backend.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oolshik.backend.config.NotificationProperties;
 import com.oolshik.backend.entity.NotificationOutboxEntity;
 import com.oolshik.backend.notification.AssignmentChange;
+import com.oolshik.backend.notification.NotificationEventCodec;
 import com.oolshik.backend.notification.NotificationEventPayload;
 import com.oolshik.backend.notification.NotificationEventType;
 import com.oolshik.backend.notification.NotificationOutboxStatus;
@@ -20,10 +22,16 @@ public class PaymentNotificationService {
 
     private final NotificationOutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
+    private final NotificationProperties properties;
 
-    public PaymentNotificationService(NotificationOutboxRepository outboxRepository, ObjectMapper objectMapper) {
+    public PaymentNotificationService(
+            NotificationOutboxRepository outboxRepository,
+            ObjectMapper objectMapper,
+            NotificationProperties properties
+    ) {
         this.outboxRepository = outboxRepository;
         this.objectMapper = objectMapper;
+        this.properties = properties;
     }
 
     public void enqueuePaymentEvent(
@@ -63,7 +71,11 @@ public class PaymentNotificationService {
         outbox.setId(eventId);
         outbox.setEventType(eventType.name());
         outbox.setAggregateId(payment.getId());
-        outbox.setPayloadJson(toJson(payload));
+        if (properties.isBinaryPayloadEnabled()) {
+            outbox.setPayloadBin(NotificationEventCodec.encode(payload));
+        } else {
+            outbox.setPayloadJson(toJson(payload));
+        }
         outbox.setStatus(NotificationOutboxStatus.PENDING.name());
         outbox.setAttemptCount(0);
         outbox.setNextAttemptAt(occurredAt);
@@ -0,0 +1,159 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.config.SchedulerLeaseProperties;
+import com.oolshik.backend.repo.SchedulerLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+// Splits scheduled sweeps across replicas. Each job has a fixed number of hash partitions; a replica
+// leases roughly partitions / liveReplicas of them and runs its share on virtual threads.
+@Service
+public class SchedulerLeaseService {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulerLeaseService.class);
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final SchedulerLeaseProperties properties;
+    private final SchedulerMetrics metrics;
+    private final String ownerId;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SchedulerLeaseService(
+            SchedulerLeaseRepository leaseRepository,
+            SchedulerLeaseProperties properties,
+            SchedulerMetrics metrics
+    ) {
+        this.leaseRepository = leaseRepository;
+        this.properties = properties;
+        this.metrics = metrics;
+        String configured = properties.getInstanceId();
+        this.ownerId = configured == null || configured.isBlank() ? UUID.randomUUID().toString() : configured;
+        this.permits = new Semaphore(Math.max(1, properties.getMaxConcurrency()));
+    }
+
+    public record PartitionSlice(int index, int count) {
+        public static final PartitionSlice ALL = new PartitionSlice(0, 1);
+    }
+
+    @FunctionalInterface
+    public interface PartitionTask {
+        int run(PartitionSlice slice);
+    }
+
+    public int runPartitioned(String jobName, Duration interval, PartitionTask task) {
+        return run(jobName, Math.max(1, properties.getPartitions()), interval, task);
+    }
+
+    // Single-partition lease: at most one replica runs the job at a time.
+    public int runExclusive(String jobName, Duration interval, PartitionTask task) {
+        return run(jobName, 1, interval, task);
+    }
+
+    String ownerId() {
+        return ownerId;
+    }
+
+    // Runs that lease nothing are not recorded: they swept nothing, and counting them as successes would hide the
+    // owner's timings behind a stream of zero-row samples from every other replica.
+    private int run(String jobName, int partitions, Duration interval, PartitionTask task) {
+        if (!properties.isLeaseEnabled()) {
+            return metrics.record(jobName, () -> task.run(PartitionSlice.ALL));
+        }
+        long startNanos = System.nanoTime();
+        List<Integer> owned;
+        try {
+            owned = claimShare(jobName, partitions, leaseSeconds(interval));
+        } catch (RuntimeException ex) {
+            log.warn("Scheduler lease claim failed job={}: {}", jobName, ex.toString());
+            metrics.recordFailure(jobName, startNanos);
+            return 0;
+        }
+        if (owned.isEmpty()) {
+            return 0;
+        }
+        if (owned.size() == 1) {
+            int processed;
+            try {
+                processed = task.run(new PartitionSlice(owned.get(0), partitions));
+            } catch (RuntimeException ex) {
+                metrics.recordFailure(jobName, startNanos);
+                throw ex;
+            }
+            metrics.recordSuccess(jobName, startNanos, processed);
+            return processed;
+        }
+        List<Future<Integer>> futures = new ArrayList<>(owned.size());
+        for (Integer partition : owned) {
+            PartitionSlice slice = new PartitionSlice(partition, partitions);
+            futures.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return task.run(slice);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        int total = 0;
+        boolean failed = false;
+        for (Future<Integer> future : futures) {
+            try {
+                total += future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                failed = true;
+                break;
+            } catch (ExecutionException ex) {
+                log.warn("Scheduler partition failed job={}: {}", jobName, ex.getCause().toString());
+                failed = true;
+            }
+        }
+        if (failed) {
+            metrics.recordFailure(jobName, startNanos);
+        } else {
+            metrics.recordSuccess(jobName, startNanos, total);
+        }
+        return total;
+    }
+
+    private List<Integer> claimShare(String jobName, int partitions, long leaseSeconds) {
+        leaseRepository.heartbeat(ownerId);
+        int members = Math.max(1, leaseRepository.countLiveMembers(properties.getMemberTtlSeconds()));
+        int share = (partitions + members - 1) / members;
+
+        TreeSet<Integer> held = new TreeSet<>(leaseRepository.renewOwned(jobName, ownerId, partitions, leaseSeconds));
+        if (held.size() > share) {
+            List<Integer> surplus = new ArrayList<>();
+            while (held.size() > share) {
+                surplus.add(held.pollLast());
+            }
+            leaseRepository.release(jobName, ownerId, surplus);
+        } else if (held.size() < share) {
+            held.addAll(leaseRepository.acquireFree(jobName, ownerId, partitions, leaseSeconds, share - held.size()));
+        }
+        return new ArrayList<>(held);
+    }
+
+    private long leaseSeconds(Duration interval) {
+        return Math.max(properties.getMinLeaseSeconds(), interval.multipliedBy(3).toSeconds());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,101 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.config.TaskDeadlineProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Ticks the deadline wheel on its own thread so timeouts fire within a tick of their deadline,
+// independent of the shared scheduler pool. HelpRequestRecoveryScheduler remains as a slow reconcile.
+@Component
+public class TaskDeadlineDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskDeadlineDispatcher.class);
+
+    private final TaskDeadlineWheel wheel;
+    private final HelpRequestService helpRequestService;
+    private final TaskDeadlineProperties properties;
+    private ScheduledExecutorService ticker;
+
+    public TaskDeadlineDispatcher(
+            TaskDeadlineWheel wheel,
+            HelpRequestService helpRequestService,
+            TaskDeadlineProperties properties
+    ) {
+        this.wheel = wheel;
+        this.helpRequestService = helpRequestService;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void onApplicationReady() {
+        if (!properties.isEnabled() || ticker != null) {
+            return;
+        }
+        wheel.reload();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-deadline-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMs = Math.max(50, properties.getTickMs());
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.task-deadlines.refreshIntervalMs:60000}",
+            initialDelayString = "${app.task-deadlines.refreshIntervalMs:60000}"
+    )
+    public void refresh() {
+        if (properties.isEnabled()) {
+            wheel.reload();
+        }
+    }
+
+    void tick() {
+        List<TaskDeadlineWheel.Deadline> due;
+        try {
+            due = wheel.pollDue(Instant.now());
+        } catch (RuntimeException ex) {
+            log.warn("Task deadline tick failed: {}", ex.toString());
+            return;
+        }
+        for (TaskDeadlineWheel.Deadline deadline : due) {
+            try {
+                if (fire(deadline)) {
+                    log.debug("Task deadline fired kind={} requestId={}", deadline.kind(), deadline.requestId());
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Task deadline failed kind={} requestId={}: {}",
+                        deadline.kind(), deadline.requestId(), ex.toString());
+            }
+        }
+    }
+
+    private boolean fire(TaskDeadlineWheel.Deadline deadline) {
+        return switch (deadline.kind()) {
+            case AUTH_EXPIRY -> helpRequestService.autoExpirePendingAuth(deadline.requestId());
+            case ASSIGNMENT_EXPIRY -> helpRequestService.autoReleaseExpired(deadline.requestId());
+            case REMINDER_50 -> helpRequestService.sendCompletionReminder50(deadline.requestId());
+            case REMINDER_80 -> helpRequestService.sendCompletionReminder80(deadline.requestId());
+            case CONFIRMATION_EXPIRY -> helpRequestService.autoCompletePendingConfirmation(deadline.requestId());
+        };
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.config.TaskDeadlineProperties;
+import com.oolshik.backend.config.TaskRecoveryProperties;
+import com.oolshik.backend.repo.HelpRequestRepository;
+import com.oolshik.backend.repo.PendingDeadlineRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// In-memory deadlines for the task recovery transitions. Each (request, kind) keeps only its most recently
+// offered deadline, earlier or later; superseded timers are dropped when they fire. The guarded updates in
+// HelpRequestService stay the source of truth, so a stale or duplicate fire is a no-op.
+@Component
+public class TaskDeadlineWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskDeadlineWheel.class);
+    private static final int SLOTS_PER_LEVEL = 64;
+    private static final int LEVELS = 3;
+    // Covers transactions that stamped last_state_change_at before the previous reload but committed after it.
+    private static final Duration RELOAD_OVERLAP = Duration.ofSeconds(60);
+
+    public enum Kind {
+        AUTH_EXPIRY,
+        ASSIGNMENT_EXPIRY,
+        REMINDER_50,
+        REMINDER_80,
+        CONFIRMATION_EXPIRY
+    }
+
+    public record Deadline(UUID requestId, Kind kind, long dueAtMillis) {}
+
+    private record Key(UUID requestId, Kind kind) {}
+
+    private final HelpRequestRepository repo;
+    private final TaskDeadlineProperties properties;
+    private final TaskRecoveryProperties recoveryProperties;
+    private final HierarchicalTimingWheel<Deadline> wheel;
+    private final Map<Key, Long> latest = new HashMap<>();
+    private volatile Instant watermark;
+
+    public TaskDeadlineWheel(
+            HelpRequestRepository repo,
+            TaskDeadlineProperties properties,
+            TaskRecoveryProperties recoveryProperties
+    ) {
+        this.repo = repo;
+        this.properties = properties;
+        this.recoveryProperties = recoveryProperties;
+        this.wheel = new HierarchicalTimingWheel<>(
+                properties.getTickMs(), SLOTS_PER_LEVEL, LEVELS, System.currentTimeMillis());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public void schedule(UUID requestId, Kind kind, OffsetDateTime dueAt) {
+        if (!properties.isEnabled() || requestId == null || dueAt == null) {
+            return;
+        }
+        Deadline deadline = new Deadline(requestId, kind, dueAt.toInstant().toEpochMilli());
+        afterCommit(() -> offer(deadline));
+    }
+
+    public void scheduleCompletion(UUID requestId, OffsetDateTime workDoneAt, OffsetDateTime confirmationExpiresAt) {
+        if (workDoneAt == null) {
+            return;
+        }
+        schedule(requestId, Kind.REMINDER_50,
+                workDoneAt.plusSeconds(reminderOffset(recoveryProperties.getReminder50Percent())));
+        schedule(requestId, Kind.REMINDER_80,
+                workDoneAt.plusSeconds(reminderOffset(recoveryProperties.getReminder80Percent())));
+        schedule(requestId, Kind.CONFIRMATION_EXPIRY, confirmationExpiresAt);
+    }
+
+    // The first call loads every pending deadline; later calls only merge rows whose state changed since the
+    // previous successful load, picking up transitions made on other replicas.
+    public void reload() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant startedAt = Instant.now();
+        Instant since = watermark;
+        List<Deadline> loaded = new ArrayList<>();
+        try {
+            List<PendingDeadlineRow> rows = since == null
+                    ? repo.findPendingDeadlines()
+                    : repo.findPendingDeadlinesChangedSince(since.minus(RELOAD_OVERLAP).atOffset(ZoneOffset.UTC));
+            for (PendingDeadlineRow row : rows) {
+                collect(row, loaded);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Task deadline reload failed: {}", ex.toString());
+            return;
+        }
+        loaded.forEach(this::offer);
+        watermark = startedAt;
+        log.debug("Task deadlines reloaded full={} rows={} pending={}", since == null, loaded.size(), size());
+    }
+
+    public List<Deadline> pollDue(Instant now) {
+        synchronized (wheel) {
+            List<Deadline> due = new ArrayList<>();
+            for (Deadline deadline : wheel.advance(now.toEpochMilli())) {
+                Key key = new Key(deadline.requestId(), deadline.kind());
+                Long current = latest.get(key);
+                if (current != null && current == deadline.dueAtMillis()) {
+                    latest.remove(key);
+                    due.add(deadline);
+                }
+            }
+            return due;
+        }
+    }
+
+    int size() {
+        synchronized (wheel) {
+            return latest.size();
+        }
+    }
+
+    void offer(Deadline deadline) {
+        synchronized (wheel) {
+            Key key = new Key(deadline.requestId(), deadline.kind());
+            Long current = latest.get(key);
+            if (current != null && current == deadline.dueAtMillis()) {
+                return;
+            }
+            latest.put(key, deadline.dueAtMillis());
+            wheel.add(deadline.dueAtMillis(), deadline);
+        }
+    }
+
+    private void collect(PendingDeadlineRow row, List<Deadline> out) {
+        switch (row.getStatus()) {
+            case "PENDING_AUTH" -> add(out, row.getId(), Kind.AUTH_EXPIRY, row.getPendingAuthExpiresAt());
+            case "ASSIGNED" -> add(out, row.getId(), Kind.ASSIGNMENT_EXPIRY, row.getAssignmentExpiresAt());
+            case "WORK_DONE_PENDING_CONFIRMATION" -> {
+                Instant workDoneAt = row.getWorkDoneAt();
+                if (workDoneAt != null && !Boolean.TRUE.equals(row.getReminder50Sent())) {
+                    add(out, row.getId(), Kind.REMINDER_50,
+                            workDoneAt.plusSeconds(reminderOffset(recoveryProperties.getReminder50Percent())));
+                }
+                if (workDoneAt != null && !Boolean.TRUE.equals(row.getReminder80Sent())) {
+                    add(out, row.getId(), Kind.REMINDER_80,
+                            workDoneAt.plusSeconds(reminderOffset(recoveryProperties.getReminder80Percent())));
+                }
+                add(out, row.getId(), Kind.CONFIRMATION_EXPIRY, row.getCompletionConfirmationExpiresAt());
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void add(List<Deadline> out, UUID id, Kind kind, Instant dueAt) {
+        if (dueAt != null) {
+            out.add(new Deadline(id, kind, dueAt.toEpochMilli()));
+        }
+    }
+
+    private long reminderOffset(double percent) {
+        return HelpRequestService.reminderOffsetSeconds(recoveryProperties, percent);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.config.NotificationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+// Tells notification-worker replicas to drop their cached devices/locale for a user.
+// Best effort: a lost message is bounded by the worker cache TTL.
+@Service
+public class UserCacheInvalidationPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCacheInvalidationPublisher.class);
+
+    private final ObjectProvider<KafkaTemplate<String, String>> kafkaTemplate;
+    private final NotificationProperties properties;
+    private final String topic;
+
+    public UserCacheInvalidationPublisher(
+            @Qualifier("notificationKafkaTemplate") ObjectProvider<KafkaTemplate<String, String>> kafkaTemplate,
+            NotificationProperties properties,
+            @Value("${app.kafka.topics.userCacheInvalidation:user.cache.invalidation}") String topic
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.properties = properties;
+        this.topic = topic;
+    }
+
+    public void userChanged(UUID userId) {
+        if (!properties.isCacheInvalidationEnabled() || userId == null) {
+            return;
+        }
+        KafkaTemplate<String, String> template = kafkaTemplate.getIfAvailable();
+        if (template == null) {
+            return;
+        }
+        Runnable send = () -> template.send(topic, userId.toString(), userId.toString())
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("user cache invalidation failed userId={}: {}", userId, ex.toString());
+                    }
+                });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send.run();
+                }
+            });
+        } else {
+            send.run();
+        }
+    }
+}
@@ -20,9 +20,11 @@ public class UserDeviceService {
             Pattern.compile("^(ExponentPushToken|ExpoPushToken)\\[[^\\]]+\\]$");
 
     private final UserDeviceRepository repository;
+    private final UserCacheInvalidationPublisher cacheInvalidation;
 
-    public UserDeviceService(UserDeviceRepository repository) {
+    public UserDeviceService(UserDeviceRepository repository, UserCacheInvalidationPublisher cacheInvalidation) {
         this.repository = repository;
+        this.cacheInvalidation = cacheInvalidation;
     }
 
     @Transactional
@@ -35,6 +37,7 @@ public class UserDeviceService {
         }
         String hash = sha256(token);
         UserDeviceEntity entity = repository.findByTokenHash(hash).orElseGet(UserDeviceEntity::new);
+        UUID previousUserId = entity.getUserId();
         entity.setUserId(userId);
         entity.setProvider("EXPO");
         entity.setPlatform(platform == null || platform.isBlank() ? null : platform.toUpperCase());
@@ -43,6 +46,10 @@ public class UserDeviceService {
         entity.setActive(true);
         entity.setLastSeenAt(OffsetDateTime.now());
         repository.save(entity);
+        cacheInvalidation.userChanged(userId);
+        if (previousUserId != null && !previousUserId.equals(userId)) {
+            cacheInvalidation.userChanged(previousUserId);
+        }
     }
 
     @Transactional
@@ -59,6 +66,7 @@ public class UserDeviceService {
                 if (entity.isActive()) {
                     entity.setActive(false);
                     repository.save(entity);
+                    cacheInvalidation.userChanged(userId);
                 }
             }
         });
@@ -16,9 +16,11 @@ import java.util.*;
 public class UserService {
 
     private final UserRepository usersRepo;
+    private final CurrentUserService currentUserService;
 
-    public UserService(UserRepository usersRepo) {
+    public UserService(UserRepository usersRepo, CurrentUserService currentUserService) {
         this.usersRepo = usersRepo;
+        this.currentUserService = currentUserService;
     }
 
     @Transactional
@@ -29,7 +31,7 @@ public class UserService {
         if (byPhone.isPresent()) {
             UserEntity existing = byPhone.get();
             applyProfileHints(existing, displayName, normalizedEmail);
-            return usersRepo.save(existing);
+            return saveExisting(existing);
         }
 
         if (normalizedEmail != null) {
@@ -40,7 +42,7 @@ public class UserService {
                     existing.setPhoneNumber(phone);
                 }
                 applyProfileHints(existing, displayName, normalizedEmail);
-                return usersRepo.save(existing);
+                return saveExisting(existing);
             }
         }
 
@@ -59,7 +61,7 @@ public class UserService {
             if (byUid.isPresent()) {
                 UserEntity existing = byUid.get();
                 applyProfileHints(existing, displayNameHint, normalizeEmail(emailHint));
-                return usersRepo.save(existing);
+                return saveExisting(existing);
             }
         }
 
@@ -75,7 +77,7 @@ public class UserService {
                     existing.setPhoneNumber(normalizePhone(p.phone()));
                 }
                 applyProfileHints(existing, displayNameHint, normalizedEmail);
-                return usersRepo.save(existing);
+                return saveExisting(existing);
             }
         }
 
@@ -88,7 +90,7 @@ public class UserService {
                     existing.setFirebaseUid(p.providerUserId());
                 }
                 applyProfileHints(existing, displayNameHint, normalizedEmail);
-                return usersRepo.save(existing);
+                return saveExisting(existing);
             }
         }
 
@@ -107,6 +109,13 @@ public class UserService {
         return usersRepo.save(u);
     }
 
+    // Profile hints may link a firebase uid, phone or email, so resolved-user mappings to this user are dropped.
+    private UserEntity saveExisting(UserEntity existing) {
+        UserEntity saved = usersRepo.save(existing);
+        currentUserService.evict(saved.getId());
+        return saved;
+    }
+
     private String normalizePhone(String ph) {
         if (ph == null) return null;
         // store E.164 without spaces
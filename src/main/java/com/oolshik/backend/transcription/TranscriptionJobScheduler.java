@@ -1,10 +1,13 @@
 package com.oolshik.backend.transcription;
 
+import com.oolshik.backend.service.SchedulerLeaseService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.List;
 
 @Component
@@ -14,22 +17,32 @@ public class TranscriptionJobScheduler {
 
     private final TranscriptionJobRepository repository;
     private final TranscriptionJobPublisher publisher;
+    private final SchedulerLeaseService leaseService;
+    private final Duration republishInterval;
 
     public TranscriptionJobScheduler(TranscriptionJobRepository repository,
-                                     TranscriptionJobPublisher publisher) {
+                                     TranscriptionJobPublisher publisher,
+                                     SchedulerLeaseService leaseService,
+                                     @Value("${app.transcription.republishDelayMs:30000}") long republishDelayMs) {
         this.repository = repository;
         this.publisher = publisher;
+        this.leaseService = leaseService;
+        this.republishInterval = Duration.ofMillis(republishDelayMs);
     }
 
+    // Exclusive so that replicas do not republish the same pending jobs concurrently.
     @Scheduled(fixedDelayString = "${app.transcription.republishDelayMs:30000}")
     public void republishPendingJobs() {
-        List<TranscriptionJobEntity> pending = repository
-                .findTop50ByStatusOrderByUpdatedAtAsc(TranscriptionStatus.PENDING);
-        if (pending.isEmpty()) return;
-
-        log.info("Republishing {} pending transcription jobs", pending.size());
-        for (TranscriptionJobEntity job : pending) {
-            publisher.publishJob(job);
-        }
+        leaseService.runExclusive("transcription-republish", republishInterval, slice -> {
+            List<TranscriptionJobEntity> pending = repository
+                    .findTop50ByStatusOrderByUpdatedAtAsc(TranscriptionStatus.PENDING);
+            if (pending.isEmpty()) return 0;
+
+            log.info("Republishing {} pending transcription jobs", pending.size());
+            for (TranscriptionJobEntity job : pending) {
+                publisher.publishJob(job);
+            }
+            return pending.size();
+        });
     }
 }
@@ -7,6 +7,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.oolshik.backend.domain.HelpRequestStatus;
 import com.oolshik.backend.entity.HelpRequestEntity;
 import com.oolshik.backend.repo.HelpRequestRepository;
+import com.oolshik.backend.service.OpenRequestSpatialIndex;
 
 @Service
 public class TranscriptionResultService {
@@ -15,11 +16,14 @@ public class TranscriptionResultService {
 
     private final TranscriptionJobRepository repository;
     private final HelpRequestRepository helpRequestRepository;
+    private final OpenRequestSpatialIndex openRequestIndex;
 
     public TranscriptionResultService(TranscriptionJobRepository repository,
-                                      HelpRequestRepository helpRequestRepository) {
+                                      HelpRequestRepository helpRequestRepository,
+                                      OpenRequestSpatialIndex openRequestIndex) {
         this.repository = repository;
         this.helpRequestRepository = helpRequestRepository;
+        this.openRequestIndex = openRequestIndex;
     }
 
     @Transactional
@@ -93,10 +97,14 @@ public class TranscriptionResultService {
         if (descriptionMissing) {
             task.setDescription(transcript);
         }
-        if (task.getStatus() == HelpRequestStatus.DRAFT) {
+        boolean opened = task.getStatus() == HelpRequestStatus.DRAFT;
+        if (opened) {
             task.setStatus(HelpRequestStatus.OPEN);
         }
         helpRequestRepository.save(task);
+        if (opened) {
+            openRequestIndex.track(task.getId(), task.getLocation(), task.getCreatedAt());
+        }
         log.info("Updated help request from transcript taskId={} status={}", taskId, task.getStatus());
     }
 
@@ -10,6 +10,7 @@ import com.oolshik.backend.service.AuthService;
 import com.oolshik.backend.service.CurrentUserService;
 import com.oolshik.backend.service.GoogleAuthService;
 import com.oolshik.backend.service.OtpService;
+import com.oolshik.backend.service.UserCacheInvalidationPublisher;
 import com.oolshik.backend.service.UserService;
 import com.oolshik.backend.web.dto.AuthDtos.*;
 import jakarta.validation.Valid;
@@ -38,6 +39,7 @@ public class AuthController {
     private final CurrentUserService currentUserService;
     private final MessageSource messageSource;
     private final AuthProperties authProperties;
+    private final UserCacheInvalidationPublisher cacheInvalidation;
 
     public AuthController(
             OtpService otp,
@@ -48,7 +50,8 @@ public class AuthController {
             GoogleAuthService googleAuthService,
             CurrentUserService currentUserService,
             MessageSource messageSource,
-            AuthProperties authProperties
+            AuthProperties authProperties,
+            UserCacheInvalidationPublisher cacheInvalidation
     ) {
         this.otp = otp;
         this.userService = userService;
@@ -59,6 +62,7 @@ public class AuthController {
         this.currentUserService = currentUserService;
         this.messageSource = messageSource;
         this.authProperties = authProperties;
+        this.cacheInvalidation = cacheInvalidation;
     }
 
     @PostMapping("/otp/request")
@@ -88,8 +92,8 @@ public class AuthController {
             ));
         }
         var user = userService.getOrCreateByPhone(req.phone(), req.displayName(), req.email());
-        String access = jwt.generateAccessToken(user.getId(), user.getPhoneNumber());
-        String refresh = jwt.generateRefreshToken(user.getId());
+        String access = jwt.generateAccessToken(user);
+        String refresh = jwt.generateRefreshToken(user);
         return ResponseEntity.ok(new TokenResponse(access, refresh));
     }
 
@@ -127,6 +131,14 @@ public class AuthController {
         return ResponseEntity.ok(Map.of("accessToken", access));
     }
 
+    // Signs the caller out everywhere: every access and refresh token issued so far stops working.
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@AuthenticationPrincipal AuthenticatedUserPrincipal principal) {
+        UserEntity u = requireCurrentUser(principal);
+        authService.revokeTokens(u.getId());
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/me")
     public ResponseEntity<?> me(@AuthenticationPrincipal AuthenticatedUserPrincipal principal) {
         UserEntity u = requireCurrentUser(principal);
@@ -150,6 +162,8 @@ public class AuthController {
             @RequestBody Map<String, Object> patch
     ) {
         UserEntity u = requireCurrentUser(principal);
+        String previousLanguage = u.getPreferredLanguage();
+        String previousEmail = u.getEmail();
         if (patch.containsKey("displayName")) u.setDisplayName(String.valueOf(patch.get("displayName")));
         if (patch.containsKey("languages")) u.setLanguages(String.valueOf(patch.get("languages")));
         if (patch.containsKey("preferredLanguage")) {
@@ -175,6 +189,12 @@ public class AuthController {
             u.setPreferredLanguage(LocaleSupport.EN_IN_TAG);
         }
         userRepository.save(u);
+        if (!Objects.equals(previousEmail, u.getEmail())) {
+            currentUserService.evict(u.getId());
+        }
+        if (!Objects.equals(previousLanguage, u.getPreferredLanguage())) {
+            cacheInvalidation.userChanged(u.getId());
+        }
         return ResponseEntity.ok(Map.of(
                 "message", messageSource.getMessage(
                         "response.updated",
@@ -205,8 +225,12 @@ public class AuthController {
         String preferredLanguage = LocaleSupport.normalizeTag(
                 body == null ? null : String.valueOf(body.get("preferredLanguage"))
         );
+        boolean changed = !preferredLanguage.equals(u.getPreferredLanguage());
         u.setPreferredLanguage(preferredLanguage);
         userRepository.save(u);
+        if (changed) {
+            cacheInvalidation.userChanged(u.getId());
+        }
         return ResponseEntity.ok(Map.of(
                 "message", messageSource.getMessage(
                         "response.updated",
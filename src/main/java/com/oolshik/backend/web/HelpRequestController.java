@@ -23,6 +23,8 @@ import com.oolshik.backend.web.dto.HelpRequestDtos.ReportIssueRequest;
 import com.oolshik.backend.web.dto.HelpRequestDtos.OfferUpdateRequest;
 import com.oolshik.backend.web.dto.HelpRequestDtos.OfferUpdateResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import org.apache.coyote.BadRequestException;
 import org.locationtech.jts.geom.Coordinate;
@@ -142,6 +144,24 @@ public class HelpRequestController {
                 .map(row -> view(row, viewerId));
     }
 
+    @GetMapping("/nearby/cursor")
+    public NearbyCursorPage nearbyCursor(
+        @AuthenticationPrincipal AuthenticatedUserPrincipal principal,
+        @RequestParam double lat,
+        @RequestParam double lng,
+        @RequestParam @Min(1) @Max(HelpRequestService.MAX_NEARBY_RADIUS_METERS) int radiusMeters,
+        @RequestParam(required = false) List<String> statuses,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int size
+    ) {
+        UUID viewerId = resolveViewerId(principal);
+        var slice = service.nearbyAfter(lat, lng, radiusMeters, statuses, cursor, size);
+        return new NearbyCursorPage(
+                slice.rows().stream().map(row -> view(row, viewerId)).toList(),
+                slice.nextCursor()
+        );
+    }
+
     @GetMapping("/active-summary")
     public ActiveRequestSummaryResponse activeSummary(
             @AuthenticationPrincipal AuthenticatedUserPrincipal principal
@@ -436,6 +456,11 @@ public class HelpRequestController {
     public static class RatePayload { @NotNull
     public BigDecimal rating; public String feedback; }
 
+    public record NearbyCursorPage(
+            List<HelpRequestRowView> items,
+            String nextCursor
+    ) {}
+
     public record HelpRequestRowView(
             UUID id,
             String title,
@@ -0,0 +1,25 @@
+CREATE TABLE IF NOT EXISTS public.user_rating_summary (
+    user_id uuid NOT NULL,
+    rating_sum numeric(12,1) NOT NULL DEFAULT 0,
+    rating_count integer NOT NULL DEFAULT 0,
+    avg_rating numeric(3,2),
+    updated_at timestamp with time zone DEFAULT now() NOT NULL,
+    CONSTRAINT user_rating_summary_pkey PRIMARY KEY (user_id),
+    CONSTRAINT user_rating_summary_user_id_fkey FOREIGN KEY (user_id)
+        REFERENCES public.app_user(id)
+);
+
+INSERT INTO public.user_rating_summary (user_id, rating_sum, rating_count, avg_rating, updated_at)
+SELECT
+    r.target_user_id,
+    SUM(r.rating_value),
+    COUNT(*),
+    AVG(r.rating_value)::numeric(3,2),
+    now()
+FROM public.help_request_rating r
+GROUP BY r.target_user_id
+ON CONFLICT (user_id) DO UPDATE
+SET rating_sum = EXCLUDED.rating_sum,
+    rating_count = EXCLUDED.rating_count,
+    avg_rating = EXCLUDED.avg_rating,
+    updated_at = EXCLUDED.updated_at;
@@ -0,0 +1,17 @@
+CREATE TABLE IF NOT EXISTS public.scheduler_member (
+    owner_id varchar(128) NOT NULL,
+    heartbeat_at timestamp with time zone DEFAULT now() NOT NULL,
+    CONSTRAINT scheduler_member_pkey PRIMARY KEY (owner_id)
+);
+
+CREATE TABLE IF NOT EXISTS public.scheduler_lease (
+    job_name varchar(64) NOT NULL,
+    partition_no integer NOT NULL,
+    owner_id varchar(128) NOT NULL,
+    lease_until timestamp with time zone NOT NULL,
+    updated_at timestamp with time zone DEFAULT now() NOT NULL,
+    CONSTRAINT scheduler_lease_pkey PRIMARY KEY (job_name, partition_no)
+);
+
+CREATE INDEX IF NOT EXISTS idx_scheduler_lease_owner
+    ON public.scheduler_lease (owner_id, job_name);
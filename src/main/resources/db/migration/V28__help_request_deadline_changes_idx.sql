@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS idx_help_request_pending_state_change
+    ON public.help_request (last_state_change_at)
+    WHERE status IN ('PENDING_AUTH', 'ASSIGNED', 'WORK_DONE_PENDING_CONFIRMATION');
@@ -0,0 +1,16 @@
+CREATE OR REPLACE FUNCTION public.notify_notification_outbox()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    PERFORM pg_notify('notification_outbox', '');
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS notification_outbox_notify ON public.notification_outbox;
+
+CREATE TRIGGER notification_outbox_notify
+    AFTER INSERT ON public.notification_outbox
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION public.notify_notification_outbox();
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_help_request_notification_audience_keyset
+    ON public.help_request_notification_audience (help_request_id, notified_for, radius_meters, user_id);
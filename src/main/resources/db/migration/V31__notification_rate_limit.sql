@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS public.notification_rate_limit (
+    user_id uuid NOT NULL,
+    window_start timestamp with time zone NOT NULL,
+    sent_count integer NOT NULL,
+    digest_count integer DEFAULT 0 NOT NULL,
+    updated_at timestamp with time zone NOT NULL,
+    CONSTRAINT notification_rate_limit_pkey PRIMARY KEY (user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_rate_limit_window
+    ON public.notification_rate_limit (window_start);
@@ -0,0 +1,9 @@
+ALTER TABLE public.notification_outbox
+    ADD COLUMN IF NOT EXISTS payload_bin bytea;
+
+ALTER TABLE public.notification_outbox
+    ALTER COLUMN payload_json DROP NOT NULL;
+
+ALTER TABLE public.notification_outbox
+    ADD CONSTRAINT notification_outbox_payload_present
+    CHECK ((payload_json IS NULL) <> (payload_bin IS NULL));
@@ -0,0 +1,9 @@
+ALTER TABLE public.app_user
+    ADD COLUMN IF NOT EXISTS token_epoch INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE public.app_user
+    ADD COLUMN IF NOT EXISTS token_epoch_changed_at TIMESTAMPTZ;
+
+CREATE INDEX IF NOT EXISTS idx_app_user_token_epoch_changed_at
+    ON public.app_user (token_epoch_changed_at)
+    WHERE token_epoch_changed_at IS NOT NULL;
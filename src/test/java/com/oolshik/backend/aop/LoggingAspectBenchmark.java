@@ -0,0 +1,114 @@
+package com.oolshik.backend.aop;
+
+import com.oolshik.backend.config.LoggingAspectProperties;
+import com.oolshik.backend.web.dto.AuthDtos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Controller;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Per-call cost of LoggingAspect. Not a test; after `mvn test-compile`, run main() with the test classpath.
+// FULL mode is represented by fullModeArgumentRendering, the work sampling skips; the log I/O itself depends on
+// the appender and is left out.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingAspectBenchmark {
+
+    private Target direct;
+    private Target off;
+    private Target sampledOutOfScope;
+    private Target sampledNotSampled;
+    private LoggingAspect fullAspect;
+    private Method submit;
+    private Object[] args;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        direct = new Target();
+        off = proxy(properties(LoggingAspectProperties.Mode.OFF, Set.of(), 0.0));
+        sampledOutOfScope = proxy(properties(
+                LoggingAspectProperties.Mode.SAMPLED, Set.of(LoggingAspectProperties.Scope.SERVICE), 1.0));
+        sampledNotSampled = proxy(properties(
+                LoggingAspectProperties.Mode.SAMPLED, Set.of(LoggingAspectProperties.Scope.CONTROLLER), 0.0));
+        fullAspect = new LoggingAspect(properties(LoggingAspectProperties.Mode.FULL, Set.of(), 0.0));
+        submit = Target.class.getMethod("submit", AuthDtos.OtpVerify.class, UUID.class);
+        args = new Object[] {
+                new AuthDtos.OtpVerify("+919876543210", "123456", "Nitin", "n@example.com"),
+                UUID.randomUUID()
+        };
+    }
+
+    @Benchmark
+    public int directCall() {
+        return direct.submit((AuthDtos.OtpVerify) args[0], (UUID) args[1]);
+    }
+
+    @Benchmark
+    public int offMode() {
+        return off.submit((AuthDtos.OtpVerify) args[0], (UUID) args[1]);
+    }
+
+    @Benchmark
+    public int sampledModeOutOfScope() {
+        return sampledOutOfScope.submit((AuthDtos.OtpVerify) args[0], (UUID) args[1]);
+    }
+
+    @Benchmark
+    public int sampledModeNotSampled() {
+        return sampledNotSampled.submit((AuthDtos.OtpVerify) args[0], (UUID) args[1]);
+    }
+
+    @Benchmark
+    public String fullModeArgumentRendering() {
+        return fullAspect.renderArguments(submit, args);
+    }
+
+    private static Target proxy(LoggingAspectProperties properties) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Target());
+        factory.addAspect(new LoggingAspect(properties));
+        return factory.getProxy();
+    }
+
+    private static LoggingAspectProperties properties(
+            LoggingAspectProperties.Mode mode,
+            Set<LoggingAspectProperties.Scope> scopes,
+            double sampleRate
+    ) {
+        LoggingAspectProperties properties = new LoggingAspectProperties();
+        properties.setMode(mode);
+        properties.setScopes(scopes);
+        properties.setSampleRate(sampleRate);
+        return properties;
+    }
+
+    @Controller
+    public static class Target {
+        public int submit(AuthDtos.OtpVerify request, UUID userId) {
+            return request.code().length();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LoggingAspectBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,145 @@
+package com.oolshik.backend.repo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Seeding one task's candidates and audience with `helpers` fresh helpers inside the radius: the eligible query
+// plus two insertIgnore calls per helper that the service used to run, against the single seedEligibleHelpers
+// statement it runs now. Each invocation rolls back, so every run seeds into empty tables. Not a test; needs
+// Docker. After `mvn test-compile`, run main() with the test classpath.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CandidateSeedingBenchmark {
+
+    private static final double LAT = 19.076;
+    private static final double LNG = 72.8777;
+    private static final int RADIUS_METERS = 1000;
+
+    private static final String ELIGIBLE = """
+            SELECT hl.helper_id
+              FROM helper_location hl
+              JOIN help_request h ON h.id = :requestId
+             WHERE hl.last_seen_at >= :freshness
+               AND ST_DWithin(hl.location, h.location, :radius)
+               AND hl.helper_id <> h.requester_id
+               AND (h.helper_id IS NULL OR hl.helper_id <> h.helper_id)
+            """;
+
+    private static final String INSERT_CANDIDATE = """
+            INSERT INTO help_request_candidate (id, help_request_id, helper_user_id, state, created_at, updated_at)
+            VALUES (:id, :helpRequestId, :helperUserId, :state, now(), now())
+            ON CONFLICT (help_request_id, helper_user_id) DO NOTHING
+            """;
+
+    private static final String INSERT_AUDIENCE = """
+            INSERT INTO help_request_notification_audience (id, help_request_id, user_id, notified_for, radius_meters, created_at)
+            VALUES (:id, :helpRequestId, :userId, :notifiedFor, :radiusMeters, now())
+            ON CONFLICT (help_request_id, user_id, notified_for, radius_meters) DO NOTHING
+            """;
+
+    @Param({"100", "1000", "5000"})
+    public int helpers;
+
+    private PostgisDatabase db;
+    private TransactionTemplate rollback;
+    private String seed;
+    private UUID task;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = PostgisDatabase.start();
+        rollback = new TransactionTemplate(new DataSourceTransactionManager(db.dataSource()));
+        seed = PostgisDatabase.nativeQuery(HelpRequestCandidateRepository.class, "seedEligibleHelpers");
+        task = db.insertRequest(db.insertUser(), null, "OPEN", LAT, LNG);
+        // Within ~550 m of the task, so every helper is eligible.
+        db.jdbc().update("""
+                INSERT INTO helper_location (helper_id, location, last_seen_at)
+                SELECT gen_random_uuid(),
+                       ST_SetSRID(ST_MakePoint(:lng + random() * 0.005, :lat + random() * 0.005), 4326)::geography,
+                       now()
+                  FROM generate_series(1, :helpers)
+                """, new MapSqlParameterSource()
+                .addValue("lat", LAT)
+                .addValue("lng", LNG)
+                .addValue("helpers", helpers));
+        db.jdbc().getJdbcTemplate().execute("ANALYZE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public List<UUID> perHelperInserts() {
+        return rollback.execute(status -> {
+            status.setRollbackOnly();
+            List<UUID> eligible = db.jdbc().queryForList(ELIGIBLE, new MapSqlParameterSource()
+                    .addValue("requestId", task)
+                    .addValue("freshness", freshness())
+                    .addValue("radius", (double) RADIUS_METERS), UUID.class);
+            for (UUID helperId : eligible) {
+                db.jdbc().update(INSERT_CANDIDATE, new MapSqlParameterSource()
+                        .addValue("id", UUID.randomUUID())
+                        .addValue("helpRequestId", task)
+                        .addValue("helperUserId", helperId)
+                        .addValue("state", "PENDING"));
+                db.jdbc().update(INSERT_AUDIENCE, new MapSqlParameterSource()
+                        .addValue("id", UUID.randomUUID())
+                        .addValue("helpRequestId", task)
+                        .addValue("userId", helperId)
+                        .addValue("notifiedFor", "TASK_CREATED")
+                        .addValue("radiusMeters", RADIUS_METERS));
+            }
+            return eligible;
+        });
+    }
+
+    @Benchmark
+    public List<UUID> seedEligibleHelpers() {
+        return rollback.execute(status -> {
+            status.setRollbackOnly();
+            return db.jdbc().queryForList(seed, new MapSqlParameterSource()
+                    .addValue("helpRequestId", task)
+                    .addValue("radius", (double) RADIUS_METERS)
+                    .addValue("freshness", freshness())
+                    .addValue("state", "PENDING")
+                    .addValue("notifiedFor", "TASK_CREATED")
+                    .addValue("radiusMeters", RADIUS_METERS), UUID.class);
+        });
+    }
+
+    private static OffsetDateTime freshness() {
+        return OffsetDateTime.now().minusMinutes(10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CandidateSeedingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
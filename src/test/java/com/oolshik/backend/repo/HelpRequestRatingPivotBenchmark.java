@@ -0,0 +1,137 @@
+package com.oolshik.backend.repo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Rating hydration over `rows` requests: the four correlated subqueries the row queries used to run against the
+// LATERAL FILTER pivot they run now, plus the shipped findOpenRowsByIds for the whole row. Divide by `rows` for
+// the per-row cost. Not a test; needs Docker. After `mvn test-compile`, run main() with the test classpath.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HelpRequestRatingPivotBenchmark {
+
+    private static final String CORRELATED = """
+            SELECT
+              h.id,
+              COALESCE((
+                SELECT r.rating_value
+                FROM help_request_rating r
+                WHERE r.request_id = h.id
+                  AND r.rater_user_id = h.requester_id
+              ), (
+                SELECT r.rating_value
+                FROM help_request_rating r
+                WHERE r.request_id = h.id
+                  AND r.rater_user_id = h.helper_id
+              ))                               AS ratingValue,
+              (
+                SELECT r.rating_value
+                FROM help_request_rating r
+                WHERE r.request_id = h.id
+                  AND r.rater_user_id = h.requester_id
+              )                                AS ratingByRequester,
+              (
+                SELECT r.rating_value
+                FROM help_request_rating r
+                WHERE r.request_id = h.id
+                  AND r.rater_user_id = h.helper_id
+              )                                AS ratingByHelper
+            FROM help_request h
+            WHERE h.id IN (:ids)
+            """;
+
+    private static final String PIVOT = """
+            SELECT
+              h.id,
+              COALESCE(rt.rating_by_requester, rt.rating_by_helper) AS ratingValue,
+              rt.rating_by_requester           AS ratingByRequester,
+              rt.rating_by_helper              AS ratingByHelper
+            FROM help_request h
+            LEFT JOIN LATERAL (
+              SELECT
+                MAX(r.rating_value) FILTER (WHERE r.rater_user_id = h.requester_id) AS rating_by_requester,
+                MAX(r.rating_value) FILTER (WHERE r.rater_user_id = h.helper_id)    AS rating_by_helper
+              FROM help_request_rating r
+              WHERE r.request_id = h.id
+            ) rt ON TRUE
+            WHERE h.id IN (:ids)
+            """;
+
+    @Param({"50", "500"})
+    public int rows;
+
+    private PostgisDatabase db;
+    private String openRows;
+    private Map<String, Object> params;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = PostgisDatabase.start();
+        openRows = PostgisDatabase.nativeQuery(HelpRequestRepository.class, "findOpenRowsByIds");
+        List<UUID> ids = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            UUID requester = db.insertUser();
+            UUID helper = db.insertUser();
+            UUID task = db.insertRequest(requester, helper, "OPEN", 19.076 + i * 1e-4, 72.8777);
+            // A quarter each of unrated, requester-only, helper-only and both.
+            if (i % 4 == 1 || i % 4 == 3) {
+                db.insertRating(task, requester, helper, "REQUESTER", new BigDecimal("4.0"));
+            }
+            if (i % 4 >= 2) {
+                db.insertRating(task, helper, requester, "HELPER", new BigDecimal("3.5"));
+            }
+            ids.add(task);
+        }
+        db.jdbc().getJdbcTemplate().execute("ANALYZE");
+        params = Map.of("ids", ids, "lat", 19.076, "lng", 72.8777);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> correlatedSubqueries() {
+        return db.jdbc().queryForList(CORRELATED, params);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> lateralPivot() {
+        return db.jdbc().queryForList(PIVOT, params);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> findOpenRowsByIds() {
+        return db.jdbc().queryForList(openRows, params);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HelpRequestRatingPivotBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.oolshik.backend.repo;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Testcontainers(disabledWithoutDocker = true)
+class HelpRequestRatingPivotQueryTest {
+
+    private static final BigDecimal BY_REQUESTER = new BigDecimal("4.0");
+    private static final BigDecimal BY_HELPER = new BigDecimal("3.5");
+
+    private static PostgisDatabase db;
+    private static UUID requester;
+    private static UUID helper;
+
+    @BeforeAll
+    static void startDatabase() {
+        db = PostgisDatabase.start();
+        requester = db.insertUser();
+        helper = db.insertUser();
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        db.close();
+    }
+
+    @Test
+    void requesterOnlyRatingIsTheRatingValue() {
+        UUID task = task(true, false);
+
+        assertRatings(task, BY_REQUESTER, BY_REQUESTER, null);
+    }
+
+    @Test
+    void helperOnlyRatingIsTheRatingValue() {
+        UUID task = task(false, true);
+
+        assertRatings(task, BY_HELPER, null, BY_HELPER);
+    }
+
+    @Test
+    void requesterRatingWinsWhenBothRated() {
+        UUID task = task(true, true);
+
+        assertRatings(task, BY_REQUESTER, BY_REQUESTER, BY_HELPER);
+    }
+
+    @Test
+    void unratedTaskHasNoRatings() {
+        UUID task = task(false, false);
+
+        assertRatings(task, null, null, null);
+    }
+
+    private static UUID task(boolean ratedByRequester, boolean ratedByHelper) {
+        UUID task = db.insertRequest(requester, helper, "OPEN", 19.076, 72.8777);
+        if (ratedByRequester) {
+            db.insertRating(task, requester, helper, "REQUESTER", BY_REQUESTER);
+        }
+        if (ratedByHelper) {
+            db.insertRating(task, helper, requester, "HELPER", BY_HELPER);
+        }
+        return task;
+    }
+
+    private static void assertRatings(UUID task, BigDecimal value, BigDecimal byRequester, BigDecimal byHelper) {
+        Map<String, Object> detail = db.jdbc().queryForMap(
+                PostgisDatabase.nativeQuery(HelpRequestRepository.class, "findTaskByTaskId"),
+                Map.of("taskId", task));
+        List<Map<String, Object>> hydrated = db.jdbc().queryForList(
+                PostgisDatabase.nativeQuery(HelpRequestRepository.class, "findOpenRowsByIds"),
+                Map.of("lat", 19.076, "lng", 72.8777, "ids", List.of(task)));
+
+        assertEquals(1, hydrated.size());
+        for (Map<String, Object> row : List.of(detail, hydrated.get(0))) {
+            assertEquals(value, row.get("ratingValue"));
+            assertEquals(byRequester, row.get("ratingByRequester"));
+            assertEquals(byHelper, row.get("ratingByHelper"));
+        }
+    }
+}
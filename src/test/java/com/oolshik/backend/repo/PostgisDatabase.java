@@ -0,0 +1,109 @@
+package com.oolshik.backend.repo;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Throwaway PostGIS (the docker-compose image) migrated with the Flyway scripts, for query-level tests and the
+// repository benchmarks. Queries are read from the repository annotations so both run exactly what ships.
+final class PostgisDatabase implements AutoCloseable {
+
+    private static final DockerImageName IMAGE =
+            DockerImageName.parse("postgis/postgis:16-3.4").asCompatibleSubstituteFor("postgres");
+
+    private final PostgreSQLContainer<?> container;
+    private final DataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    private PostgisDatabase(PostgreSQLContainer<?> container) {
+        this.container = container;
+        this.dataSource = new DriverManagerDataSource(
+                container.getJdbcUrl(), container.getUsername(), container.getPassword());
+        this.jdbc = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    static PostgisDatabase start() {
+        PostgreSQLContainer<?> container = new PostgreSQLContainer<>(IMAGE);
+        container.start();
+        PostgisDatabase database = new PostgisDatabase(container);
+        Flyway.configure()
+                .dataSource(database.dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        return database;
+    }
+
+    static String nativeQuery(Class<?> repository, String methodName) {
+        for (Method method : repository.getMethods()) {
+            Query query = method.getAnnotation(Query.class);
+            if (method.getName().equals(methodName) && query != null && query.nativeQuery()) {
+                return query.value();
+            }
+        }
+        throw new IllegalArgumentException("No native query " + repository.getSimpleName() + "." + methodName);
+    }
+
+    DataSource dataSource() {
+        return dataSource;
+    }
+
+    NamedParameterJdbcTemplate jdbc() {
+        return jdbc;
+    }
+
+    UUID insertUser() {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO app_user (id, phone_number, display_name, roles)
+                VALUES (:id, :phone, 'Bench', 'KARYAKARTA')
+                """, new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("phone", "+91" + ThreadLocalRandom.current().nextLong(6_000_000_000L, 9_999_999_999L)));
+        return id;
+    }
+
+    UUID insertRequest(UUID requesterId, UUID helperId, String status, double lat, double lng) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO help_request (id, title, radius_meters, status, requester_id, helper_id, location)
+                VALUES (:id, 'Bench', 1000, :status, :requesterId, :helperId,
+                        ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography)
+                """, new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("status", status)
+                .addValue("requesterId", requesterId)
+                .addValue("helperId", helperId)
+                .addValue("lat", lat)
+                .addValue("lng", lng));
+        return id;
+    }
+
+    void insertRating(UUID requestId, UUID raterId, UUID targetId, String raterRole, BigDecimal value) {
+        jdbc.update("""
+                INSERT INTO help_request_rating (id, request_id, rater_user_id, target_user_id, rating_value, rater_role)
+                VALUES (:id, :requestId, :raterId, :targetId, :value, :raterRole)
+                """, new MapSqlParameterSource()
+                .addValue("id", UUID.randomUUID())
+                .addValue("requestId", requestId)
+                .addValue("raterId", raterId)
+                .addValue("targetId", targetId)
+                .addValue("value", value)
+                .addValue("raterRole", raterRole));
+    }
+
+    @Override
+    public void close() {
+        container.stop();
+    }
+}
@@ -0,0 +1,145 @@
+package com.oolshik.backend.security;
+
+import com.oolshik.backend.domain.Role;
+import com.oolshik.backend.entity.UserEntity;
+import com.oolshik.backend.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthFilterTest {
+
+    private final JwtService jwtService = new JwtService("test-secret-test-secret-test-secret-0123", 60, 14);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenRevocationRegistry revocations = new TokenRevocationRegistry(userRepository, 60);
+    private final JwtAuthFilter filter = new JwtAuthFilter(jwtService, userRepository, revocations);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesFromClaimsWithoutReadingTheUser() throws Exception {
+        when(userRepository.findTokenEpochsChangedSince(any())).thenReturn(List.of());
+        revocations.refresh();
+        UserEntity user = user(0);
+
+        Authentication auth = filter(jwtService.generateAccessToken(user));
+
+        assertNotNull(auth);
+        AuthenticatedUserPrincipal principal = (AuthenticatedUserPrincipal) auth.getPrincipal();
+        assertEquals(user.getId(), principal.userId());
+        assertEquals("+919876543210", principal.phone());
+        assertEquals("n@example.com", principal.email());
+        assertEquals(Set.of("ROLE_NETA", "ROLE_KARYAKARTA"),
+                Set.copyOf(auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList()));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void rejectsTokensOlderThanTheRevokedEpoch() throws Exception {
+        UserEntity user = user(0);
+        String token = jwtService.generateAccessToken(user);
+        when(userRepository.findTokenEpochsChangedSince(any())).thenReturn(List.of(row(user.getId(), 1)));
+        revocations.refresh();
+
+        assertNull(filter(token));
+
+        user.setTokenEpoch(1);
+        assertNotNull(filter(jwtService.generateAccessToken(user)));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void dropsRevocationsOlderThanTheAccessTokenTtl() throws Exception {
+        UserEntity user = user(0);
+        Instant longAgo = Instant.now().minus(Duration.ofHours(3));
+        when(userRepository.findTokenEpochsChangedSince(any())).thenReturn(List.of(row(user.getId(), 1, longAgo)));
+
+        revocations.refresh();
+
+        assertFalse(revocations.isRevoked(user.getId(), 0));
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        verify(userRepository).findTokenEpochsChangedSince(since.capture());
+        assertTrue(since.getValue().isAfter(Instant.now().minus(Duration.ofMinutes(62))));
+    }
+
+    @Test
+    void fallsBackToTheUserRowUntilRevocationsAreLoaded() throws Exception {
+        UserEntity user = user(2);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        assertNull(filter(jwtService.generateAccessToken(user(user.getId(), 1))));
+        assertNotNull(filter(jwtService.generateAccessToken(user)));
+    }
+
+    private Authentication filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static UserEntity user(int epoch) {
+        return user(UUID.randomUUID(), epoch);
+    }
+
+    private static UserEntity user(UUID id, int epoch) {
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setPhoneNumber("+919876543210");
+        user.setEmail("n@example.com");
+        user.setRoleSet(Set.of(Role.NETA, Role.KARYAKARTA));
+        user.setTokenEpoch(epoch);
+        return user;
+    }
+
+    private static UserRepository.TokenEpochRow row(UUID userId, int epoch) {
+        return row(userId, epoch, Instant.now());
+    }
+
+    private static UserRepository.TokenEpochRow row(UUID userId, int epoch, Instant changedAt) {
+        return new UserRepository.TokenEpochRow() {
+            @Override
+            public UUID getId() {
+                return userId;
+            }
+
+            @Override
+            public int getTokenEpoch() {
+                return epoch;
+            }
+
+            @Override
+            public Instant getTokenEpochChangedAt() {
+                return changedAt;
+            }
+        };
+    }
+}
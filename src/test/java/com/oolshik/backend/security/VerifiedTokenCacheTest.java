@@ -0,0 +1,68 @@
+package com.oolshik.backend.security;
+
+import com.oolshik.backend.config.AuthProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void returnsVerifiedValueUntilTokenExpires() {
+        VerifiedTokenCache<String> cache = new VerifiedTokenCache<>(properties(true, 300, 10));
+
+        cache.put("token-a", "uid-a", Instant.now().plusSeconds(60));
+        cache.put("token-b", "uid-b", Instant.now().minusSeconds(1));
+
+        assertEquals("uid-a", cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+        assertNull(cache.get("token-c"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() {
+        VerifiedTokenCache<String> cache = new VerifiedTokenCache<>(properties(true, 300, 2));
+        Instant exp = Instant.now().plusSeconds(60);
+
+        cache.put("token-a", "uid-a", exp);
+        cache.put("token-b", "uid-b", exp);
+        cache.get("token-a");
+        cache.put("token-c", "uid-c", exp);
+
+        assertEquals(2, cache.size());
+        assertEquals("uid-a", cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+        assertEquals("uid-c", cache.get("token-c"));
+    }
+
+    @Test
+    void disabledCacheNeverStores() {
+        VerifiedTokenCache<String> cache = new VerifiedTokenCache<>(properties(false, 300, 10));
+
+        cache.put("token-a", "uid-a", Instant.now().plusSeconds(60));
+
+        assertNull(cache.get("token-a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void zeroTtlOverrideDisablesTheCache() {
+        VerifiedTokenCache<String> cache = new VerifiedTokenCache<>(properties(true, 300, 10), 0);
+
+        cache.put("token-a", "uid-a", Instant.now().plusSeconds(60));
+
+        assertNull(cache.get("token-a"));
+        assertEquals(0, cache.size());
+    }
+
+    private static AuthProperties.TokenCache properties(boolean enabled, long ttlSeconds, int maxEntries) {
+        AuthProperties.TokenCache properties = new AuthProperties().getTokenCache();
+        properties.setEnabled(enabled);
+        properties.setTtlSeconds(ttlSeconds);
+        properties.setMaxEntries(maxEntries);
+        return properties;
+    }
+}
@@ -45,6 +45,8 @@ class AuthControllerLocaleTest {
     private CurrentUserService currentUserService;
     @Mock
     private MessageSource messageSource;
+    @Mock
+    private UserCacheInvalidationPublisher cacheInvalidation;
 
     private AuthController controller;
     private AuthProperties authProperties;
@@ -61,7 +63,8 @@ class AuthControllerLocaleTest {
                 googleAuthService,
                 currentUserService,
                 messageSource,
-                authProperties
+                authProperties,
+                cacheInvalidation
         );
     }
 
@@ -104,5 +107,6 @@ class AuthControllerLocaleTest {
         assertEquals("mr-IN", userCaptor.getValue().getPreferredLanguage());
         assertEquals("mr-IN", body.get("preferredLanguage"));
         assertEquals("updated", body.get("message"));
+        verify(cacheInvalidation).userChanged(user.getId());
     }
 }
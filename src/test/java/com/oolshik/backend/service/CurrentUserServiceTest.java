@@ -0,0 +1,89 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.config.AuthProperties;
+import com.oolshik.backend.entity.UserEntity;
+import com.oolshik.backend.repo.UserRepository;
+import com.oolshik.backend.security.AuthenticatedUserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CurrentUserServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CurrentUserService service = new CurrentUserService(userRepository, new AuthProperties());
+    private final AuthenticatedUserPrincipal firebasePrincipal =
+            new AuthenticatedUserPrincipal("firebase", "uid-1", "+919999999999", "a@b.com", null);
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void resolvesOncePerRequest() {
+        UserEntity user = user();
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        startRequest();
+        AuthenticatedUserPrincipal principal = new AuthenticatedUserPrincipal("local", null, null, null, user.getId());
+
+        assertSame(user, service.require(principal));
+        assertSame(user, service.require(principal));
+
+        verify(userRepository, times(1)).findById(user.getId());
+    }
+
+    @Test
+    void laterRequestsSkipFallbackLookups() {
+        UserEntity user = user();
+        when(userRepository.findByFirebaseUid("uid-1")).thenReturn(Optional.of(user));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        startRequest();
+        assertSame(user, service.require(firebasePrincipal));
+        startRequest();
+        assertSame(user, service.require(firebasePrincipal));
+
+        verify(userRepository, times(1)).findByFirebaseUid("uid-1");
+        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, never()).findByPhoneNumber(any());
+    }
+
+    @Test
+    void evictForgetsTheMapping() {
+        UserEntity user = user();
+        when(userRepository.findByFirebaseUid("uid-1")).thenReturn(Optional.of(user));
+
+        startRequest();
+        service.require(firebasePrincipal);
+        service.evict(user.getId());
+        startRequest();
+        service.require(firebasePrincipal);
+
+        verify(userRepository, times(2)).findByFirebaseUid("uid-1");
+        verify(userRepository, never()).findById(any());
+    }
+
+    private static void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private static UserEntity user() {
+        UserEntity user = new UserEntity();
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+}
@@ -97,8 +97,8 @@ class GoogleAuthServiceTest {
         when(userRepository.findByPhoneNumber("+919876543210")).thenReturn(Optional.empty());
         when(federatedIdentityRepository.save(any(FederatedIdentityEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(jwtService.generateAccessToken(userId, "+919876543210")).thenReturn("access-token");
-        when(jwtService.generateRefreshToken(userId)).thenReturn("refresh-token");
+        when(jwtService.generateAccessToken(user)).thenReturn("access-token");
+        when(jwtService.generateRefreshToken(user)).thenReturn("refresh-token");
 
         TokenResponse tokens = service.authenticate("google-id-token", "+919876543210");
 
@@ -3,26 +3,22 @@ package com.oolshik.backend.service;
 import com.oolshik.backend.config.NotificationProperties;
 import com.oolshik.backend.entity.HelpRequestEntity;
 import com.oolshik.backend.repo.HelpRequestCandidateRepository;
-import com.oolshik.backend.repo.HelpRequestNotificationAudienceRepository;
-import com.oolshik.backend.repo.HelperLocationRepository;
 import org.junit.jupiter.api.Test;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
-import org.mockito.ArgumentCaptor;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyDouble;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class HelpRequestCandidateServiceTest {
@@ -32,12 +28,10 @@ class HelpRequestCandidateServiceTest {
 
     @Test
     void seedCandidatesForNewRequestInsertsCandidatesAndAudience() {
-        HelperLocationRepository helperRepo = mock(HelperLocationRepository.class);
         HelpRequestCandidateRepository candidateRepo = mock(HelpRequestCandidateRepository.class);
-        HelpRequestNotificationAudienceRepository audienceRepo = mock(HelpRequestNotificationAudienceRepository.class);
         NotificationProperties properties = new NotificationProperties();
 
-        HelpRequestCandidateService service = new HelpRequestCandidateService(helperRepo, candidateRepo, audienceRepo, properties);
+        HelpRequestCandidateService service = new HelpRequestCandidateService(candidateRepo, properties);
 
         UUID requestId = UUID.randomUUID();
         UUID helperA = UUID.randomUUID();
@@ -49,27 +43,21 @@ class HelpRequestCandidateServiceTest {
         Point point = GEOMETRY_FACTORY.createPoint(new Coordinate(72.0, 19.0));
         task.setLocation(point);
 
-        when(helperRepo.findEligibleHelpersForRequest(eq(requestId), anyDouble(), any()))
+        when(candidateRepo.seedEligibleHelpers(
+                eq(requestId), eq(1000.0), any(), eq("PENDING"), eq("TASK_CREATED"), eq(1000)))
                 .thenReturn(List.of(helperA, helperB));
 
-        service.seedCandidatesForNewRequest(task, OffsetDateTime.now());
+        List<UUID> seeded = service.seedCandidatesForNewRequest(task, OffsetDateTime.now());
 
-        verify(candidateRepo).insertIgnore(any(), eq(requestId), eq(helperA), anyString());
-        verify(candidateRepo).insertIgnore(any(), eq(requestId), eq(helperB), anyString());
-
-        ArgumentCaptor<Integer> radiusCaptor = ArgumentCaptor.forClass(Integer.class);
-        verify(audienceRepo).insertIgnore(any(), eq(requestId), eq(helperA), anyString(), radiusCaptor.capture());
-        assertEquals(1000, radiusCaptor.getValue());
+        assertEquals(List.of(helperA, helperB), seeded);
     }
 
     @Test
     void seedCandidatesForRadiusExpansionUsesNewlyEligible() {
-        HelperLocationRepository helperRepo = mock(HelperLocationRepository.class);
         HelpRequestCandidateRepository candidateRepo = mock(HelpRequestCandidateRepository.class);
-        HelpRequestNotificationAudienceRepository audienceRepo = mock(HelpRequestNotificationAudienceRepository.class);
         NotificationProperties properties = new NotificationProperties();
 
-        HelpRequestCandidateService service = new HelpRequestCandidateService(helperRepo, candidateRepo, audienceRepo, properties);
+        HelpRequestCandidateService service = new HelpRequestCandidateService(candidateRepo, properties);
 
         UUID requestId = UUID.randomUUID();
         UUID helperA = UUID.randomUUID();
@@ -79,12 +67,25 @@ class HelpRequestCandidateServiceTest {
         Point point = GEOMETRY_FACTORY.createPoint(new Coordinate(72.0, 19.0));
         task.setLocation(point);
 
-        when(helperRepo.findNewlyEligibleHelpersForRequest(eq(requestId), anyDouble(), anyDouble(), any()))
+        when(candidateRepo.seedNewlyEligibleHelpers(
+                eq(requestId), eq(2000.0), eq(1000.0), any(), eq("PENDING"), eq("TASK_RADIUS_EXPANDED"), eq(2000)))
                 .thenReturn(List.of(helperA));
 
-        service.seedCandidatesForRadiusExpansion(task, 1000, 2000, OffsetDateTime.now());
+        List<UUID> seeded = service.seedCandidatesForRadiusExpansion(task, 1000, 2000, OffsetDateTime.now());
+
+        assertEquals(List.of(helperA), seeded);
+    }
+
+    @Test
+    void seedCandidatesSkipsRequestsWithoutLocation() {
+        HelpRequestCandidateRepository candidateRepo = mock(HelpRequestCandidateRepository.class);
+        HelpRequestCandidateService service = new HelpRequestCandidateService(candidateRepo, new NotificationProperties());
+
+        HelpRequestEntity task = new HelpRequestEntity();
+        task.setId(UUID.randomUUID());
+        task.setRadiusMeters(1000);
 
-        verify(candidateRepo).insertIgnore(any(), eq(requestId), eq(helperA), anyString());
-        verify(audienceRepo).insertIgnore(any(), eq(requestId), eq(helperA), anyString(), eq(2000));
+        assertTrue(service.seedCandidatesForNewRequest(task, OffsetDateTime.now()).isEmpty());
+        verifyNoInteractions(candidateRepo);
     }
 }
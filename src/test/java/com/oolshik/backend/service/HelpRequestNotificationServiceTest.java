@@ -1,9 +1,11 @@
 package com.oolshik.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oolshik.backend.config.NotificationProperties;
 import com.oolshik.backend.entity.HelpRequestEntity;
 import com.oolshik.backend.entity.NotificationOutboxEntity;
 import com.oolshik.backend.notification.AssignmentChange;
+import com.oolshik.backend.notification.NotificationEventCodec;
 import com.oolshik.backend.notification.NotificationEventContext;
 import com.oolshik.backend.notification.NotificationEventPayload;
 import com.oolshik.backend.notification.NotificationEventType;
@@ -16,11 +18,14 @@ import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.mockito.ArgumentCaptor;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -32,7 +37,7 @@ class HelpRequestNotificationServiceTest {
     @Test
     void enqueueTaskEventWritesOutbox() throws Exception {
         NotificationOutboxRepository repo = mock(NotificationOutboxRepository.class);
-        HelpRequestNotificationService service = new HelpRequestNotificationService(repo, new ObjectMapper());
+        HelpRequestNotificationService service = new HelpRequestNotificationService(repo, new ObjectMapper(), new NotificationProperties());
 
         HelpRequestEntity task = new HelpRequestEntity();
         UUID taskId = UUID.randomUUID();
@@ -63,4 +68,41 @@ class HelpRequestNotificationServiceTest {
         assertEquals(requesterId, payload.getRequesterUserId());
         assertEquals(NotificationEventType.TASK_CANCELLED.name(), payload.getEventType());
     }
+
+    @Test
+    void binaryPayloadRoundTripsThroughCodec() {
+        NotificationProperties properties = new NotificationProperties();
+        properties.setBinaryPayloadEnabled(true);
+        HelpRequestNotificationService service =
+                new HelpRequestNotificationService(mock(NotificationOutboxRepository.class), new ObjectMapper(), properties);
+
+        HelpRequestEntity task = new HelpRequestEntity();
+        task.setId(UUID.randomUUID());
+        task.setRequesterId(UUID.randomUUID());
+        task.setLocation(GEOMETRY_FACTORY.createPoint(new Coordinate(72.8777, 19.076)));
+        task.setOfferAmount(new BigDecimal("150.50"));
+        task.setOfferCurrency("INR");
+        NotificationEventContext context = new NotificationEventContext();
+        context.setOccurredAt(OffsetDateTime.parse("2026-03-01T10:15:30.123456+05:30"));
+        context.setNewRadiusMeters(2000);
+
+        NotificationOutboxEntity outbox = service.buildTaskEvent(NotificationEventType.TASK_CREATED, task, context);
+
+        assertNull(outbox.getPayloadJson());
+        assertTrue(NotificationEventCodec.isBinary(outbox.getPayloadBin()));
+        NotificationEventPayload payload = NotificationEventCodec.decode(outbox.getPayloadBin());
+        assertEquals(outbox.getId(), payload.getEventId());
+        assertEquals(NotificationEventType.TASK_CREATED.name(), payload.getEventType());
+        assertEquals(task.getId(), payload.getTaskId());
+        assertEquals(context.getOccurredAt(), payload.getOccurredAt());
+        assertEquals(new BigDecimal("150.50"), payload.getOfferAmount());
+        assertEquals(2000, payload.getNewRadiusMeters());
+        assertNull(payload.getPreviousRadiusMeters());
+        assertEquals(19.076, payload.getGeo().getLat());
+        assertEquals(72.8777, payload.getGeo().getLng());
+
+        NotificationEventPayload withoutGeo = new NotificationEventPayload();
+        withoutGeo.setEventType(NotificationEventType.TASK_CANCELLED.name());
+        assertNull(NotificationEventCodec.decode(NotificationEventCodec.encode(withoutGeo)).getGeo());
+    }
 }
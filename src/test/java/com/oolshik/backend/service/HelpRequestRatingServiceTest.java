@@ -0,0 +1,61 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.domain.HelpRequestActorRole;
+import com.oolshik.backend.entity.HelpRequestRatingEntity;
+import com.oolshik.backend.repo.HelpRequestRatingRepository;
+import org.apache.coyote.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HelpRequestRatingServiceTest {
+
+    @Test
+    void createRatingUpdatesUserRatingSummary() throws Exception {
+        HelpRequestRatingRepository repo = mock(HelpRequestRatingRepository.class);
+        HelpRequestRatingService service = new HelpRequestRatingService(repo);
+        UUID requestId = UUID.randomUUID();
+        UUID raterId = UUID.randomUUID();
+        UUID targetId = UUID.randomUUID();
+        when(repo.saveAndFlush(any(HelpRequestRatingEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.createRating(requestId, raterId, targetId, HelpRequestActorRole.REQUESTER, new BigDecimal("4.46"));
+
+        verify(repo).incrementUserRatingSummary(targetId, new BigDecimal("4.5"));
+    }
+
+    @Test
+    void duplicateRatingDoesNotTouchSummary() {
+        HelpRequestRatingRepository repo = mock(HelpRequestRatingRepository.class);
+        HelpRequestRatingService service = new HelpRequestRatingService(repo);
+        UUID requestId = UUID.randomUUID();
+        UUID raterId = UUID.randomUUID();
+        when(repo.existsByRequestIdAndRaterUserId(requestId, raterId)).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> service.createRating(
+                requestId, raterId, UUID.randomUUID(), HelpRequestActorRole.HELPER, new BigDecimal("3.0")));
+
+        verify(repo, never()).incrementUserRatingSummary(any(), any());
+    }
+
+    @Test
+    void findAvgRatingForUserReadsSummary() {
+        HelpRequestRatingRepository repo = mock(HelpRequestRatingRepository.class);
+        HelpRequestRatingService service = new HelpRequestRatingService(repo);
+        UUID userId = UUID.randomUUID();
+        when(repo.findAvgRatingForUser(userId)).thenReturn(new BigDecimal("4.25"));
+
+        assertEquals(new BigDecimal("4.25"), service.findAvgRatingForUser(userId));
+        assertNull(new HelpRequestRatingService(mock(HelpRequestRatingRepository.class)).findAvgRatingForUser(null));
+    }
+}
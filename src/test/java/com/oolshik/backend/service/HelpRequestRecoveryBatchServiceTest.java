@@ -0,0 +1,83 @@
+package com.oolshik.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oolshik.backend.config.NearbyIndexProperties;
+import com.oolshik.backend.config.NotificationProperties;
+import com.oolshik.backend.config.TaskRecoveryProperties;
+import com.oolshik.backend.domain.HelpRequestEventType;
+import com.oolshik.backend.entity.HelpRequestEventEntity;
+import com.oolshik.backend.entity.NotificationOutboxEntity;
+import com.oolshik.backend.notification.NotificationEventType;
+import com.oolshik.backend.repo.HelpRequestRecoveryBatchRepository;
+import com.oolshik.backend.repo.HelpRequestRecoveryBatchRepository.ClaimedRequest;
+import com.oolshik.backend.repo.HelpRequestRepository;
+import com.oolshik.backend.repo.NotificationOutboxRepository;
+import com.oolshik.backend.service.SchedulerLeaseService.PartitionSlice;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HelpRequestRecoveryBatchServiceTest {
+
+    @Test
+    void autoReleaseWritesEventsAndOutboxOnlyForTransitionedRows() {
+        HelpRequestRecoveryBatchRepository batchRepo = mock(HelpRequestRecoveryBatchRepository.class);
+        HelpRequestRadiusExpansionService radiusService = mock(HelpRequestRadiusExpansionService.class);
+        HelpRequestNotificationService notificationService =
+                new HelpRequestNotificationService(
+                        mock(NotificationOutboxRepository.class),
+                        new ObjectMapper(),
+                        new NotificationProperties()
+                );
+        OpenRequestSpatialIndex index =
+                new OpenRequestSpatialIndex(mock(HelpRequestRepository.class), new NearbyIndexProperties());
+        HelpRequestRecoveryBatchService service = new HelpRequestRecoveryBatchService(
+                batchRepo, radiusService, notificationService, new TaskRecoveryProperties(), index);
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        ClaimedRequest won = claimed(UUID.randomUUID());
+        ClaimedRequest lost = claimed(UUID.randomUUID());
+        when(batchRepo.claimExpiredAssignments(now, 10, 0, 1)).thenReturn(List.of(won, lost));
+        when(radiusService.findNextRadius(anyInt())).thenReturn(Optional.empty());
+        when(batchRepo.autoReleaseAll(anyList(), eq(now), isNull(), eq(HelpRequestEventType.TIMEOUT.name())))
+                .thenReturn(List.of(won.id()));
+
+        int released = service.autoReleaseExpired(now, 10, PartitionSlice.ALL);
+
+        assertEquals(1, released);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<HelpRequestEventEntity>> events = ArgumentCaptor.forClass(List.class);
+        verify(batchRepo).insertEvents(events.capture());
+        assertEquals(1, events.getValue().size());
+        assertEquals(won.id(), events.getValue().get(0).getRequestId());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationOutboxEntity>> outbox = ArgumentCaptor.forClass(List.class);
+        verify(batchRepo).insertOutbox(outbox.capture(), any());
+        assertEquals(1, outbox.getValue().size());
+        assertEquals(NotificationEventType.TASK_TIMEOUT.name(), outbox.getValue().get(0).getEventType());
+        assertEquals(won.id(), outbox.getValue().get(0).getAggregateId());
+    }
+
+    private static ClaimedRequest claimed(UUID id) {
+        return new ClaimedRequest(
+                id, UUID.randomUUID(), UUID.randomUUID(), null,
+                1000, 0, 19.0, 72.0, OffsetDateTime.now(ZoneOffset.UTC), null, null
+        );
+    }
+}
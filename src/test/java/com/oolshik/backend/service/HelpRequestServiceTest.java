@@ -26,6 +26,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -68,6 +69,10 @@ class HelpRequestServiceTest {
     private com.oolshik.backend.repo.HelpRequestOfferEventRepository offerEventRepository;
     @Mock
     private ActiveRequestCapConfigService activeRequestCapConfigService;
+    @Mock
+    private OpenRequestSpatialIndex openRequestIndex;
+    @Mock
+    private TaskDeadlineWheel deadlineWheel;
 
     private TaskRecoveryProperties recoveryProperties;
     private HelpRequestService service;
@@ -88,7 +93,9 @@ class HelpRequestServiceTest {
                 ratingService,
                 candidateService,
                 offerEventRepository,
-                activeRequestCapConfigService
+                activeRequestCapConfigService,
+                openRequestIndex,
+                deadlineWheel
         );
     }
 
@@ -646,6 +653,7 @@ class HelpRequestServiceTest {
         existing.setRequesterId(UUID.randomUUID());
         existing.setHelperId(UUID.randomUUID());
         existing.setStatus(HelpRequestStatus.WORK_DONE_PENDING_CONFIRMATION);
+        existing.setWorkDoneAt(OffsetDateTime.now(ZoneOffset.UTC).minusHours(7));
 
         when(repo.findById(requestId)).thenReturn(Optional.of(existing));
         when(repo.markReminder50Sent(eq(requestId), any(), eq(HelpRequestStatus.WORK_DONE_PENDING_CONFIRMATION)))
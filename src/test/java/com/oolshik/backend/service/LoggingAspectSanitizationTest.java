@@ -1,12 +1,22 @@
 package com.oolshik.backend.service;
 
 import com.oolshik.backend.aop.LoggingAspect;
+import com.oolshik.backend.config.LoggingAspectProperties;
 import com.oolshik.backend.web.dto.AuthDtos;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.boot.test.system.CapturedOutput;
 import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Controller;
+
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -15,11 +25,7 @@ class LoggingAspectSanitizationTest {
 
     @Test
     void redactsOtpAndPhoneValues(CapturedOutput output) {
-        LoggingAspect aspect = new LoggingAspect();
-        TestTarget target = new TestTarget();
-        AspectJProxyFactory factory = new AspectJProxyFactory(target);
-        factory.addAspect(aspect);
-        TestTarget proxy = factory.getProxy();
+        TestTarget proxy = proxy(new TestTarget(), new LoggingAspectProperties());
 
         proxy.submit(new AuthDtos.OtpVerify("+919876543210", "123456", "Nitin", "n@example.com"));
 
@@ -28,8 +34,72 @@ class LoggingAspectSanitizationTest {
         assertThat(output.getOut()).contains("[redacted]");
     }
 
+    @Test
+    void sampledModeSkipsCallsOutsideConfiguredScopes(CapturedOutput output) {
+        LoggingAspectProperties properties = new LoggingAspectProperties();
+        properties.setMode(LoggingAspectProperties.Mode.SAMPLED);
+        properties.setSampleRate(1.0);
+        TestTarget service = proxy(new TestTarget(), properties);
+        TestController controller = proxy(new TestController(), properties);
+
+        service.submit(new AuthDtos.OtpVerify("+919876543210", "123456", "Nitin", "n@example.com"));
+        assertThat(output.getOut()).doesNotContain("TestTarget.submit");
+
+        controller.list("open");
+        assertThat(output.getOut()).contains("TestController.list(..) args=[status=open]");
+    }
+
+    @Test
+    void sampledModeLogsNothingWhenHeadIsNotSampled(CapturedOutput output) {
+        LoggingAspectProperties properties = new LoggingAspectProperties();
+        properties.setMode(LoggingAspectProperties.Mode.SAMPLED);
+        properties.setScopes(Set.of(LoggingAspectProperties.Scope.CONTROLLER, LoggingAspectProperties.Scope.OTHER));
+        properties.setSampleRate(0.0);
+        TestController controller = proxy(new TestController(), properties);
+
+        controller.list("open");
+
+        assertThat(output.getOut()).doesNotContain("TestController.list");
+    }
+
+    @Test
+    void advisesBeansInARunningContextWithoutProxyingItsOwnProperties(CapturedOutput output) {
+        new ApplicationContextRunner()
+                .withUserConfiguration(AspectContext.class)
+                .withPropertyValues("app.logging.aspect.mode=sampled", "app.logging.aspect.sample-rate=1")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(AopUtils.isAopProxy(context.getBean(LoggingAspectProperties.class))).isFalse();
+                    TestController controller = context.getBean(TestController.class);
+                    assertThat(AopUtils.isAopProxy(controller)).isTrue();
+
+                    assertThat(controller.list("open")).isEqualTo("open");
+                    assertThat(output.getOut()).contains("TestController.list(..) args=[status=open]");
+                });
+    }
+
+    private static <T> T proxy(T target, LoggingAspectProperties properties) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new LoggingAspect(properties));
+        return factory.getProxy();
+    }
+
     static class TestTarget {
         public void submit(AuthDtos.OtpVerify request) {
         }
     }
+
+    @Controller
+    static class TestController {
+        public String list(String status) {
+            return status;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAspectJAutoProxy
+    @EnableConfigurationProperties
+    @Import({LoggingAspect.class, LoggingAspectProperties.class, TestController.class})
+    static class AspectContext {
+    }
 }
@@ -0,0 +1,35 @@
+package com.oolshik.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NearbyCursorTest {
+
+    @Test
+    void encodeDecodeRoundTripsExactPosition() {
+        NearbyCursor cursor = new NearbyCursor(
+                123.45678901234567d,
+                Instant.parse("2025-03-01T10:15:30.123456Z"),
+                UUID.randomUUID()
+        );
+
+        assertEquals(cursor, NearbyCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void blankCursorStartsFromTheBeginning() {
+        assertSame(NearbyCursor.START, NearbyCursor.decode(null));
+        assertSame(NearbyCursor.START, NearbyCursor.decode(" "));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> NearbyCursor.decode("not-a-cursor"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.config.KafkaTopicProperties;
+import com.oolshik.backend.config.NotificationProperties;
+import com.oolshik.backend.config.SchedulerLeaseProperties;
+import com.oolshik.backend.entity.NotificationOutboxEntity;
+import com.oolshik.backend.repo.NotificationOutboxRepository;
+import com.oolshik.backend.repo.SchedulerLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationOutboxPublisherTest {
+
+    @Test
+    void sendsBatchAsyncAndMarksEachOutcomeClassOnce() {
+        NotificationOutboxRepository repo = mock(NotificationOutboxRepository.class);
+        @SuppressWarnings("unchecked")
+        KafkaTemplate<String, byte[]> kafka = mock(KafkaTemplate.class);
+        NotificationProperties properties = new NotificationProperties();
+        properties.setOutboxMaxAttempts(3);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        NotificationOutboxPublisher publisher = new NotificationOutboxPublisher(
+                repo,
+                kafka,
+                new KafkaTopicProperties(),
+                properties,
+                new SchedulerLeaseService(
+                        mock(SchedulerLeaseRepository.class),
+                        new SchedulerLeaseProperties(),
+                        new SchedulerMetrics(registry)
+                ),
+                mock(PlatformTransactionManager.class),
+                registry
+        );
+
+        NotificationOutboxEntity ok1 = outbox(0);
+        NotificationOutboxEntity ok2 = outbox(0);
+        NotificationOutboxEntity retry = outbox(0);
+        NotificationOutboxEntity exhausted = outbox(2);
+        when(repo.lockNextBatch(anyList(), any(), anyInt(), eq(0), eq(1)))
+                .thenReturn(List.of(ok1, retry, ok2, exhausted));
+        when(kafka.send(any(), eq(ok1.getId().toString()), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafka.send(any(), eq(ok2.getId().toString()), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafka.send(any(), eq(retry.getId().toString()), any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(kafka.send(any(), eq(exhausted.getId().toString()), any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        publisher.publishPending();
+
+        verify(repo).markPublished(eq(List.of(ok1.getId(), ok2.getId())), any());
+        verify(repo).markFailed(eq(List.of(retry.getId())), eq("broker down"), any());
+        verify(repo).markDead(eq(List.of(exhausted.getId())), eq("broker down"), any());
+        assertEquals(2.0, registry.counter("notification.outbox.events", "outcome", "published").count());
+        assertEquals(1, registry.timer("notification.outbox.batch.latency").count());
+    }
+
+    private static NotificationOutboxEntity outbox(int attempts) {
+        NotificationOutboxEntity entity = new NotificationOutboxEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setAttemptCount(attempts);
+        entity.setPayloadJson("{}");
+        entity.setCreatedAt(OffsetDateTime.now().minusSeconds(1));
+        return entity;
+    }
+}
@@ -0,0 +1,109 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.config.NearbyIndexProperties;
+import com.oolshik.backend.repo.HelpRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OpenRequestSpatialIndexTest {
+
+    private static final GeometryFactory GEOMETRY_FACTORY =
+            new GeometryFactory(new PrecisionModel(), 4326);
+
+    private static Point point(double lat, double lng) {
+        return GEOMETRY_FACTORY.createPoint(new Coordinate(lng, lat));
+    }
+
+    private OpenRequestSpatialIndex enabledIndex() {
+        HelpRequestRepository repo = mock(HelpRequestRepository.class);
+        when(repo.findOpenRequestLocations()).thenReturn(List.of());
+        NearbyIndexProperties properties = new NearbyIndexProperties();
+        properties.setEnabled(true);
+        OpenRequestSpatialIndex index = new OpenRequestSpatialIndex(repo, properties);
+        index.rebuild();
+        return index;
+    }
+
+    @Test
+    void withinReturnsOnlyRequestsInsideRadiusOrderedByDistance() {
+        OpenRequestSpatialIndex index = enabledIndex();
+        UUID near = UUID.randomUUID();
+        UUID farther = UUID.randomUUID();
+        UUID outside = UUID.randomUUID();
+        OffsetDateTime now = OffsetDateTime.now();
+        index.track(farther, point(18.5300, 73.8500), now);
+        index.track(near, point(18.5205, 73.8568), now);
+        index.track(outside, point(18.6500, 73.8500), now);
+
+        List<OpenRequestSpatialIndex.Hit> hits = index.within(18.5204, 73.8567, 2000);
+
+        assertEquals(List.of(near, farther), hits.stream().map(OpenRequestSpatialIndex.Hit::id).toList());
+    }
+
+    @Test
+    void untrackRemovesRequest() {
+        OpenRequestSpatialIndex index = enabledIndex();
+        UUID id = UUID.randomUUID();
+        index.track(id, point(18.5205, 73.8568), OffsetDateTime.now());
+        index.untrack(id);
+
+        assertTrue(index.within(18.5204, 73.8567, 1000).isEmpty());
+    }
+
+    @Test
+    void afterSeeksPastCursorPosition() {
+        OpenRequestSpatialIndex index = enabledIndex();
+        OffsetDateTime now = OffsetDateTime.now();
+        index.track(UUID.randomUUID(), point(18.5205, 73.8568), now);
+        index.track(UUID.randomUUID(), point(18.5220, 73.8568), now);
+        index.track(UUID.randomUUID(), point(18.5240, 73.8568), now);
+
+        List<OpenRequestSpatialIndex.Hit> first = index.after(18.5204, 73.8567, 1000, NearbyCursor.START, 2);
+        OpenRequestSpatialIndex.Hit last = first.get(1);
+        List<OpenRequestSpatialIndex.Hit> rest = index.after(
+                18.5204, 73.8567, 1000,
+                new NearbyCursor(last.distanceMtr(), last.createdAt(), last.id()),
+                2
+        );
+
+        assertEquals(2, first.size());
+        assertEquals(1, rest.size());
+        assertTrue(rest.get(0).distanceMtr() > last.distanceMtr());
+    }
+
+    @Test
+    void servesOnlyOpenOnlyQueriesOnceBuilt() {
+        NearbyIndexProperties properties = new NearbyIndexProperties();
+        properties.setEnabled(true);
+        OpenRequestSpatialIndex notBuilt = new OpenRequestSpatialIndex(mock(HelpRequestRepository.class), properties);
+        assertFalse(notBuilt.canServe(List.of("OPEN"), 18.5204, 73.8567, 1000));
+
+        OpenRequestSpatialIndex index = enabledIndex();
+        assertTrue(index.canServe(List.of("OPEN"), 18.5204, 73.8567, 1000));
+        assertFalse(index.canServe(null, 18.5204, 73.8567, 1000));
+        assertFalse(index.canServe(List.of("OPEN", "ASSIGNED"), 18.5204, 73.8567, 1000));
+    }
+
+    @Test
+    void leavesLookupsThatWouldWalkTooManyCellsToTheDatabase() {
+        OpenRequestSpatialIndex index = enabledIndex();
+
+        assertFalse(index.canServe(List.of("OPEN"), 18.5204, 73.8567, 200_000));
+        assertFalse(index.canServe(List.of("OPEN"), 89.9, 0.0, 50_000));
+        assertThrows(IllegalArgumentException.class, () -> index.within(18.5204, 73.8567, Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,127 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.config.SchedulerLeaseProperties;
+import com.oolshik.backend.repo.SchedulerLeaseRepository;
+import com.oolshik.backend.service.SchedulerLeaseService.PartitionSlice;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SchedulerLeaseServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SchedulerMetrics metrics = new SchedulerMetrics(meterRegistry);
+    private final SchedulerLeaseRepository repo = mock(SchedulerLeaseRepository.class);
+    private SchedulerLeaseProperties properties;
+    private SchedulerLeaseService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SchedulerLeaseProperties();
+        properties.setLeaseEnabled(true);
+        properties.setInstanceId("node-a");
+        service = new SchedulerLeaseService(repo, properties, metrics);
+    }
+
+    @Test
+    void disabledLeaseRunsWholeSweepLocally() {
+        properties.setLeaseEnabled(false);
+        Set<PartitionSlice> seen = ConcurrentHashMap.newKeySet();
+
+        int processed = service.runPartitioned("job", Duration.ofSeconds(30), slice -> {
+            seen.add(slice);
+            return 3;
+        });
+
+        assertEquals(3, processed);
+        assertEquals(Set.of(PartitionSlice.ALL), seen);
+        verifyNoInteractions(repo);
+        assertEquals(1, meterRegistry.get("scheduler.sweep.duration").tags("job", "job", "outcome", "success").timer().count());
+        assertEquals(3.0, meterRegistry.get("scheduler.sweep.batch.size").tag("job", "job").summary().totalAmount());
+    }
+
+    @Test
+    void releasesPartitionsAboveFairShare() {
+        when(repo.countLiveMembers(anyLong())).thenReturn(2);
+        when(repo.renewOwned(eq("job"), anyString(), eq(8), anyLong())).thenReturn(List.of(0, 1, 2, 3, 4, 5));
+        Set<PartitionSlice> seen = ConcurrentHashMap.newKeySet();
+
+        int processed = service.runPartitioned("job", Duration.ofSeconds(30), slice -> {
+            seen.add(slice);
+            return 1;
+        });
+
+        assertEquals(4, processed);
+        assertEquals(Set.of(
+                new PartitionSlice(0, 8),
+                new PartitionSlice(1, 8),
+                new PartitionSlice(2, 8),
+                new PartitionSlice(3, 8)
+        ), seen);
+        verify(repo).release(eq("job"), anyString(), eq(List.of(5, 4)));
+        verify(repo, never()).acquireFree(anyString(), anyString(), anyInt(), anyLong(), anyInt());
+    }
+
+    @Test
+    void acquiresFreePartitionsUpToFairShare() {
+        when(repo.countLiveMembers(anyLong())).thenReturn(3);
+        when(repo.renewOwned(eq("job"), anyString(), eq(8), anyLong())).thenReturn(List.of(7));
+        when(repo.acquireFree(eq("job"), anyString(), eq(8), eq(90L), eq(2))).thenReturn(List.of(2));
+        Set<PartitionSlice> seen = ConcurrentHashMap.newKeySet();
+
+        service.runPartitioned("job", Duration.ofSeconds(30), slice -> {
+            seen.add(slice);
+            return 0;
+        });
+
+        assertEquals(Set.of(new PartitionSlice(2, 8), new PartitionSlice(7, 8)), seen);
+    }
+
+    @Test
+    void tagsClaimAndPartitionFailuresAsErrors() {
+        doThrow(new IllegalStateException("db down")).doNothing().when(repo).heartbeat(anyString());
+        when(repo.countLiveMembers(anyLong())).thenReturn(4);
+        when(repo.renewOwned(eq("sweep"), anyString(), eq(8), anyLong())).thenReturn(List.of(0, 1));
+
+        assertEquals(0, service.runPartitioned("claim", Duration.ofSeconds(30), slice -> 1));
+        int processed = service.runPartitioned("sweep", Duration.ofSeconds(30), slice -> {
+            if (slice.index() == 1) {
+                throw new IllegalStateException("boom");
+            }
+            return 1;
+        });
+
+        assertEquals(1, processed);
+        for (String job : List.of("claim", "sweep")) {
+            assertEquals(1, meterRegistry.get("scheduler.sweep.duration").tags("job", job, "outcome", "error").timer().count());
+            assertEquals(0, meterRegistry.get("scheduler.sweep.duration").tags("job", job, "outcome", "success").timer().count());
+        }
+    }
+
+    @Test
+    void recordsNothingWhenNoPartitionIsLeased() {
+        when(repo.countLiveMembers(anyLong())).thenReturn(2);
+
+        assertEquals(0, service.runExclusive("job", Duration.ofSeconds(30), slice -> 1));
+
+        assertNull(meterRegistry.find("scheduler.sweep.duration").tag("job", "job").timer());
+    }
+}
@@ -0,0 +1,105 @@
+package com.oolshik.backend.service;
+
+import com.oolshik.backend.config.TaskDeadlineProperties;
+import com.oolshik.backend.config.TaskRecoveryProperties;
+import com.oolshik.backend.repo.HelpRequestRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskDeadlineWheelTest {
+
+    @Test
+    void timersCascadeAndFireOnTheirTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 3, 0);
+        wheel.add(3_000, "level0");
+        wheel.add(20_500, "level1");
+        wheel.add(300_000, "level2");
+        wheel.add(900_000, "overflow");
+
+        assertTrue(wheel.advance(2_999).isEmpty());
+        assertEquals(List.of("level0"), wheel.advance(3_000));
+        assertTrue(wheel.advance(20_999).isEmpty());
+        assertEquals(List.of("level1"), wheel.advance(21_000));
+        assertTrue(wheel.advance(299_999).isEmpty());
+        assertEquals(List.of("level2"), wheel.advance(300_000));
+        assertTrue(wheel.advance(899_999).isEmpty());
+        assertEquals(List.of("overflow"), wheel.advance(900_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 2, 10_000);
+        wheel.add(5_000, "late");
+
+        assertEquals(List.of("late"), wheel.advance(10_000));
+    }
+
+    @Test
+    void onlyLatestDeadlinePerRequestAndKindFires() {
+        TaskDeadlineProperties properties = new TaskDeadlineProperties();
+        properties.setEnabled(true);
+        TaskDeadlineWheel deadlines = new TaskDeadlineWheel(
+                mock(HelpRequestRepository.class), properties, new TaskRecoveryProperties());
+        UUID requestId = UUID.randomUUID();
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+
+        deadlines.schedule(requestId, TaskDeadlineWheel.Kind.ASSIGNMENT_EXPIRY, now.plusSeconds(2));
+        deadlines.schedule(requestId, TaskDeadlineWheel.Kind.ASSIGNMENT_EXPIRY, now.plusSeconds(5));
+
+        Instant base = now.toInstant();
+        assertTrue(deadlines.pollDue(base.plusSeconds(3)).isEmpty());
+        List<TaskDeadlineWheel.Deadline> due = deadlines.pollDue(base.plusSeconds(6));
+        assertEquals(1, due.size());
+        assertEquals(requestId, due.get(0).requestId());
+        assertEquals(0, deadlines.size());
+    }
+
+    @Test
+    void deadlineMovedEarlierReplacesTheLaterOne() {
+        TaskDeadlineProperties properties = new TaskDeadlineProperties();
+        properties.setEnabled(true);
+        TaskDeadlineWheel deadlines = new TaskDeadlineWheel(
+                mock(HelpRequestRepository.class), properties, new TaskRecoveryProperties());
+        UUID requestId = UUID.randomUUID();
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+
+        deadlines.schedule(requestId, TaskDeadlineWheel.Kind.ASSIGNMENT_EXPIRY, now.plusSeconds(5));
+        deadlines.schedule(requestId, TaskDeadlineWheel.Kind.ASSIGNMENT_EXPIRY, now.plusSeconds(2));
+
+        List<TaskDeadlineWheel.Deadline> due = deadlines.pollDue(now.toInstant().plusSeconds(3));
+        assertEquals(1, due.size());
+        assertEquals(now.plusSeconds(2).toInstant().toEpochMilli(), due.get(0).dueAtMillis());
+        assertTrue(deadlines.pollDue(now.toInstant().plusSeconds(6)).isEmpty());
+    }
+
+    @Test
+    void reloadScansEverythingOnceThenOnlyChangedRows() {
+        HelpRequestRepository repo = mock(HelpRequestRepository.class);
+        when(repo.findPendingDeadlines()).thenReturn(List.of());
+        when(repo.findPendingDeadlinesChangedSince(any())).thenReturn(List.of());
+        TaskDeadlineProperties properties = new TaskDeadlineProperties();
+        properties.setEnabled(true);
+        TaskDeadlineWheel deadlines = new TaskDeadlineWheel(repo, properties, new TaskRecoveryProperties());
+
+        deadlines.reload();
+        deadlines.reload();
+        deadlines.reload();
+
+        verify(repo, times(1)).findPendingDeadlines();
+        verify(repo, times(2)).findPendingDeadlinesChangedSince(any());
+    }
+}
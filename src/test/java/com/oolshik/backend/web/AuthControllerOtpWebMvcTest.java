@@ -9,6 +9,7 @@ import com.oolshik.backend.service.AuthService;
 import com.oolshik.backend.service.CurrentUserService;
 import com.oolshik.backend.service.GoogleAuthService;
 import com.oolshik.backend.service.OtpService;
+import com.oolshik.backend.service.UserCacheInvalidationPublisher;
 import com.oolshik.backend.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -59,6 +60,9 @@ class AuthControllerOtpWebMvcTest {
     @MockBean
     private CurrentUserService currentUserService;
 
+    @MockBean
+    private UserCacheInvalidationPublisher cacheInvalidation;
+
     @Test
     void otpRequestPreservesContract() throws Exception {
         when(otpService.requestLoginOtp("+919876543210"))
@@ -81,8 +85,8 @@ class AuthControllerOtpWebMvcTest {
 
         when(otpService.verifyLoginOtp("+919876543210", "123456")).thenReturn(true);
         when(userService.getOrCreateByPhone("+919876543210", "Nitin", "n@example.com")).thenReturn(user);
-        when(jwtService.generateAccessToken(user.getId(), user.getPhoneNumber())).thenReturn("access-token");
-        when(jwtService.generateRefreshToken(user.getId())).thenReturn("refresh-token");
+        when(jwtService.generateAccessToken(user)).thenReturn("access-token");
+        when(jwtService.generateRefreshToken(user)).thenReturn("refresh-token");
 
         mockMvc.perform(post("/api/auth/otp/verify")
                         .contentType(MediaType.APPLICATION_JSON)
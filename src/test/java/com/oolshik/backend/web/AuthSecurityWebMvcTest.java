@@ -6,10 +6,12 @@ import com.oolshik.backend.repo.UserRepository;
 import com.oolshik.backend.security.JwtAuthFilter;
 import com.oolshik.backend.security.JwtService;
 import com.oolshik.backend.security.SecurityConfig;
+import com.oolshik.backend.security.TokenRevocationRegistry;
 import com.oolshik.backend.service.AuthService;
 import com.oolshik.backend.service.CurrentUserService;
 import com.oolshik.backend.service.GoogleAuthService;
 import com.oolshik.backend.service.OtpService;
+import com.oolshik.backend.service.UserCacheInvalidationPublisher;
 import com.oolshik.backend.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -60,6 +62,12 @@ class AuthSecurityWebMvcTest {
     @MockBean
     private AuthProperties authProperties;
 
+    @MockBean
+    private UserCacheInvalidationPublisher cacheInvalidation;
+
+    @MockBean
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
     @Test
     void meReturnsUnauthorizedWhenBearerTokenCannotBeParsed() throws Exception {
         when(jwtService.parse("expired-token")).thenThrow(new RuntimeException("expired"));